@@ -0,0 +1,110 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2005 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.commandline;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints output in a separate thread, so checking doesn't have to wait for slow output.
+ * At most a fixed number of strings is waiting to be printed, so memory use is limited.
+ * @since 2.4
+ */
+class BackgroundWriter implements Closeable {
+
+  private static final String END = new String("end of output");  // compared by identity
+
+  private final BlockingQueue<String> queue;
+  private final PrintStream out;
+  private final Thread thread;
+
+  private volatile Throwable error;
+
+  BackgroundWriter(PrintStream out, int capacity) {
+    this.out = out;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        writeQueue();
+      }
+    }, "languagetool-output");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Print the string, waiting if too many strings are waiting to be printed.
+   */
+  void print(String s) throws IOException {
+    put(s);
+  }
+
+  /**
+   * Wait until everything has been printed.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      put(END);
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for output");
+    }
+    out.flush();
+    checkError();
+  }
+
+  private void put(String s) throws IOException {
+    try {
+      // the writer thread might have stopped because of an error, so don't wait forever:
+      while (!queue.offer(s, 100, TimeUnit.MILLISECONDS)) {
+        checkError();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for output");
+    }
+    checkError();
+  }
+
+  private void writeQueue() {
+    try {
+      String s;
+      while ((s = queue.take()) != END) {
+        out.print(s);
+      }
+    } catch (Throwable e) {
+      error = e;
+    }
+  }
+
+  private void checkError() throws IOException {
+    if (error != null) {
+      throw new IOException("Could not print output", error);
+    }
+  }
+
+}
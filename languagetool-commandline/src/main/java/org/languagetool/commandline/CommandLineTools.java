@@ -146,27 +146,7 @@ public final class CommandLineTools {
     final ContextTools contextTools = new ContextTools();
     contextTools.setContextSize(contextSize);
     for (final RuleMatch match : ruleMatches) {
-      String output = i + prevMatches + ".) Line " + (match.getLine() + 1) + ", column "
-              + match.getColumn() + ", Rule ID: " + match.getRule().getId();
-      if (match.getRule() instanceof PatternRule) {
-        final PatternRule pRule = (PatternRule) match.getRule();
-        output += "[" + pRule.getSubId() + "]";
-      }
-      System.out.println(output);
-      String msg = match.getMessage();
-      msg = msg.replaceAll("<suggestion>", "'");
-      msg = msg.replaceAll("</suggestion>", "'");
-      System.out.println("Message: " + msg);
-      final List<String> replacements = match.getSuggestedReplacements();
-      if (!replacements.isEmpty()) {
-        System.out.println("Suggestion: "
-                + StringTools.listToString(replacements, "; "));
-      }
-      System.out.println(contextTools.getPlainTextContext(match.getFromPos(), match.getToPos(), contents));
-      if (match.getRule().getUrl() != null) {
-        System.out.println("More info: " +
-                match.getRule().getUrl().toString());
-      }
+      System.out.print(formatMatch(match, i + prevMatches, contents, 0, contextTools));
       if (i < ruleMatches.size()) {
         System.out.println();
       }
@@ -174,6 +154,40 @@ public final class CommandLineTools {
     }
   }
 
+  /**
+   * Get a match in the simple text format used by {@link #printMatches}.
+   * @param number the number of the match in the text
+   * @param contents the text that was checked, or the part of it that contains the match and its context
+   * @param contentsOffset the position of {@code contents} in the complete text
+   * @since 2.4
+   */
+  static String formatMatch(final RuleMatch match, final int number, final String contents,
+                            final int contentsOffset, final ContextTools contextTools) {
+    final String lineSeparator = System.getProperty("line.separator");
+    final StringBuilder sb = new StringBuilder();
+    sb.append(number).append(".) Line ").append(match.getLine() + 1).append(", column ")
+            .append(match.getColumn()).append(", Rule ID: ").append(match.getRule().getId());
+    if (match.getRule() instanceof PatternRule) {
+      final PatternRule pRule = (PatternRule) match.getRule();
+      sb.append('[').append(pRule.getSubId()).append(']');
+    }
+    sb.append(lineSeparator);
+    String msg = match.getMessage();
+    msg = msg.replaceAll("<suggestion>", "'");
+    msg = msg.replaceAll("</suggestion>", "'");
+    sb.append("Message: ").append(msg).append(lineSeparator);
+    final List<String> replacements = match.getSuggestedReplacements();
+    if (!replacements.isEmpty()) {
+      sb.append("Suggestion: ").append(StringTools.listToString(replacements, "; ")).append(lineSeparator);
+    }
+    sb.append(contextTools.getPlainTextContext(match.getFromPos() - contentsOffset,
+            match.getToPos() - contentsOffset, contents)).append(lineSeparator);
+    if (match.getRule().getUrl() != null) {
+      sb.append("More info: ").append(match.getRule().getUrl().toString()).append(lineSeparator);
+    }
+    return sb.toString();
+  }
+
   /**
    * Checks the bilingual input (bitext) and displays the output (considering the target 
    * language) in API format or in the simple text format.
@@ -22,10 +22,13 @@ import org.apache.tika.language.LanguageIdentifier;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.MultiThreadedJLanguageTool;
+import org.languagetool.RuleMatchListener;
 import org.languagetool.bitext.TabBitextReader;
 import org.languagetool.language.English;
 import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
 import org.languagetool.rules.bitext.BitextRule;
+import org.languagetool.tools.ContextTools;
 import org.languagetool.tools.JnaTools;
 import org.languagetool.tools.StringTools;
 import org.languagetool.tools.Tools;
@@ -33,6 +36,8 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -47,6 +52,11 @@ class Main {
 
   /* maximum file size to read in a single read */
   private static final int MAX_FILE_SIZE = 64000;
+  /* number of characters kept to print the context of errors in streaming mode */
+  private static final int STREAMING_WINDOW_SIZE = 1024 * 1024;
+  /* number of errors that may wait to be printed in streaming mode */
+  private static final int STREAMING_OUTPUT_QUEUE_SIZE = 1000;
+  private static final int STREAMING_CONTEXT_SIZE = 45;
 
   private final boolean verbose;
   private final boolean apiFormat;
@@ -161,6 +171,8 @@ class Main {
     }
     if (oneTime) {
       runOnFileInOneGo(filename, encoding, listUnknownWords, xmlFiltering);
+    } else if (!isStdIn(filename) && !xmlFiltering && !applySuggestions && !profileRules && !taggerOnly) {
+      runOnFileStreaming(filename, encoding, listUnknownWords);
     } else {
       runOnFileLineByLine(filename, encoding, listUnknownWords);
     }
@@ -309,6 +321,49 @@ class Main {
     }
   }
 
+  /**
+   * Check a large file without keeping it in memory. Sentences are analyzed by the thread pool
+   * while the rules check them, and the errors are printed by a background thread.
+   */
+  private void runOnFileStreaming(String filename, String encoding, boolean listUnknownWords) throws IOException {
+    if (verbose) {
+      lt.setOutput(System.err);
+    }
+    if (!apiFormat) {
+      System.out.println("Working on " + filename + "...");
+    }
+    if (lt instanceof MultiThreadedJLanguageTool) {
+      ((MultiThreadedJLanguageTool) lt).setPipelined(true);
+    }
+    final long startTime = System.currentTimeMillis();
+    final PrintStream out = apiFormat ? new PrintStream(System.out, false, "UTF-8") : System.out;
+    final StreamingMatchPrinter printer;
+    try (FileInputStream fis = new FileInputStream(filename);
+         TextWindowReader reader = new TextWindowReader(Channels.newReader(fis.getChannel(),
+                 encoding != null ? encoding : Charset.defaultCharset().name()), STREAMING_WINDOW_SIZE)) {
+      try (BackgroundWriter writer = new BackgroundWriter(out, STREAMING_OUTPUT_QUEUE_SIZE)) {
+        printer = new StreamingMatchPrinter(reader, writer);
+        if (apiFormat) {
+          writer.print(StringTools.ruleMatchesToXML(Collections.<RuleMatch>emptyList(), "", STREAMING_CONTEXT_SIZE,
+                  StringTools.XmlPrintMode.START_XML));
+        }
+        lt.check(reader, printer);
+        if (apiFormat) {
+          writer.print(StringTools.ruleMatchesToXML(Collections.<RuleMatch>emptyList(), "", STREAMING_CONTEXT_SIZE,
+                  StringTools.XmlPrintMode.END_XML));
+        } else if (printer.matchCount > 0) {
+          writer.print(System.getProperty("line.separator"));
+        }
+      }
+    }
+    final List<String> unknownWords = new ArrayList<>();
+    if (listUnknownWords) {
+      unknownWords.addAll(lt.getUnknownWords());
+    }
+    printTimingInformation(listUnknownWords, Collections.<Rule>emptyList(), unknownWords, 0,
+            printer.matchCount, lt.getSentenceCount(), startTime);
+  }
+
   private InputStreamReader getInputStreamReader(String filename, String encoding)
           throws UnsupportedEncodingException, FileNotFoundException {
     final InputStreamReader isr;
@@ -392,6 +447,53 @@ class Main {
     return matches;
   }
 
+  /**
+   * Prints the errors found in streaming mode, using the text window of the reader for the context.
+   */
+  private class StreamingMatchPrinter implements RuleMatchListener {
+
+    private final TextWindowReader reader;
+    private final BackgroundWriter writer;
+    private final ContextTools contextTools = new ContextTools();
+
+    private int matchCount;
+
+    private StreamingMatchPrinter(TextWindowReader reader, BackgroundWriter writer) {
+      this.reader = reader;
+      this.writer = writer;
+      contextTools.setContextSize(STREAMING_CONTEXT_SIZE);
+    }
+
+    @Override
+    public void matchFound(RuleMatch match) throws IOException {
+      final int contextStart = Math.max(0, match.getFromPos() - 2 * STREAMING_CONTEXT_SIZE);
+      final int contextEnd = match.getToPos() + 2 * STREAMING_CONTEXT_SIZE;
+      final String context = getContext(contextStart, contextEnd);
+      matchCount++;
+      if (apiFormat) {
+        writer.print(StringTools.ruleMatchesToXML(Collections.singletonList(match), context, contextStart,
+                STREAMING_CONTEXT_SIZE, StringTools.XmlPrintMode.CONTINUE_XML));
+      } else {
+        final String separator = matchCount > 1 ? System.getProperty("line.separator") : "";
+        writer.print(separator + CommandLineTools.formatMatch(match, matchCount, context, contextStart, contextTools));
+      }
+    }
+
+    private String getContext(int fromPos, int toPos) {
+      final int windowStart = reader.getWindowStart();
+      if (fromPos >= windowStart) {
+        return reader.getText(fromPos, toPos);
+      }
+      // the text is not available anymore, so use spaces instead:
+      final StringBuilder sb = new StringBuilder();
+      for (int i = fromPos; i < Math.min(windowStart, toPos); i++) {
+        sb.append(' ');
+      }
+      sb.append(reader.getText(windowStart, toPos));
+      return sb.toString();
+    }
+  }
+
   private void runRecursive(final String filename, final String encoding,
       final boolean listUnknown, final boolean xmlFiltering) {
     final File dir = new File(filename);
@@ -0,0 +1,123 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2005 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.commandline;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A reader that keeps the last characters it has read, so the context of errors
+ * can be printed while a text is checked without keeping it in memory.
+ * @since 2.4
+ */
+class TextWindowReader extends FilterReader {
+
+  private final char[] window;
+
+  private int position;
+
+  /**
+   * @param windowSize the number of characters to keep
+   */
+  TextWindowReader(Reader in, int windowSize) {
+    super(in);
+    this.window = new char[windowSize];
+  }
+
+  @Override
+  public int read() throws IOException {
+    final int c = super.read();
+    if (c != -1) {
+      window[position % window.length] = (char) c;
+      position++;
+    }
+    return c;
+  }
+
+  @Override
+  public int read(char[] cbuf, int off, int len) throws IOException {
+    final int charsRead = super.read(cbuf, off, len);
+    for (int i = 0; i < charsRead; i++) {
+      window[(position + i) % window.length] = cbuf[off + i];
+    }
+    if (charsRead > 0) {
+      position += charsRead;
+    }
+    return charsRead;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    // skipped characters must go through the window, too:
+    final char[] buffer = new char[(int) Math.min(n, 8192)];
+    long skipped = 0;
+    while (skipped < n) {
+      final int charsRead = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+      if (charsRead == -1) {
+        break;
+      }
+      skipped += charsRead;
+    }
+    return skipped;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public void mark(int readAheadLimit) throws IOException {
+    throw new IOException("mark() not supported");
+  }
+
+  @Override
+  public void reset() throws IOException {
+    throw new IOException("reset() not supported");
+  }
+
+  /**
+   * The position in the text of the first character that is still available.
+   */
+  int getWindowStart() {
+    return Math.max(0, position - window.length);
+  }
+
+  /**
+   * The number of characters read so far.
+   */
+  int getPosition() {
+    return position;
+  }
+
+  /**
+   * Get the text between the given positions, limited to the characters still available.
+   */
+  String getText(int fromPos, int toPos) {
+    final int start = Math.max(fromPos, getWindowStart());
+    final int end = Math.min(toPos, position);
+    final StringBuilder sb = new StringBuilder(Math.max(0, end - start));
+    for (int i = start; i < end; i++) {
+      sb.append(window[i % window.length]);
+    }
+    return sb.toString();
+  }
+
+}
@@ -467,6 +467,36 @@ public class MainTest extends AbstractSecurityTestCase {
     assertFalse(output.contains("ENGLISH_WORD_REPEAT_RULE"));
   }
 
+  public void testEnglishLargeFile() throws Exception {
+    final File input = writeToTempFile(getLargeText());
+    final String[] args = {"-l", "en", input.getAbsolutePath()};
+    Main.main(args);
+    final String output = new String(this.out.toByteArray());
+    assertTrue(output.contains("1.) Line 1, column 9, Rule ID: EN_A_VS_AN"));
+    assertTrue(output.contains("Line 9999, column 9, Rule ID: EN_A_VS_AN"));
+    assertTrue(output.contains("... This is an test.  This is an test.  This is an test.  This is an test.  This is an test.  T..."));
+    assertTrue(output.contains("sentences/sec"));
+  }
+
+  public void testEnglishLargeFileAPI() throws Exception {
+    final File input = writeToTempFile(getLargeText());
+    final String[] args = {"-l", "en", "--api", input.getAbsolutePath()};
+    Main.main(args);
+    final String output = new String(this.out.toByteArray());
+    assertTrue(output.indexOf("<?xml version=\"1.0\" encoding=\"UTF-8\"?>") == 0);
+    assertTrue(output.contains("<error fromy=\"9998\" fromx=\"8\" toy=\"9998\" tox=\"10\" ruleId=\"EN_A_VS_AN\""));
+    assertTrue(output.contains("offset=\"89990\" errorlength=\"2\""));
+    assertTrue(output.contains("</matches>"));
+  }
+
+  private String getLargeText() {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      sb.append("This is an test.\n\n");
+    }
+    return sb.toString();
+  }
+
   private File writeToTempFile(String content) throws IOException {
     final File tempFile = createTempFile();
     try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(tempFile), "UTF-8"))) {
@@ -0,0 +1,48 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.commandline;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+public class TextWindowReaderTest extends TestCase {
+
+  public void testWindow() throws IOException {
+    final TextWindowReader reader = new TextWindowReader(new StringReader("0123456789abcdef"), 8);
+    assertEquals("", reader.getText(0, 5));
+    final char[] buffer = new char[5];
+    assertEquals(5, reader.read(buffer));
+    assertEquals(0, reader.getWindowStart());
+    assertEquals("01234", reader.getText(0, 10));
+    assertEquals("234", reader.getText(2, 5));
+    assertEquals(5, reader.read(buffer));
+    assertEquals(2, reader.getWindowStart());
+    assertEquals("23456789", reader.getText(0, 10));
+    assertEquals('a', reader.read());
+    assertEquals(5, reader.read(buffer));
+    assertEquals(16, reader.getPosition());
+    assertEquals("89abcdef", reader.getText(0, 16));
+    assertEquals("bcd", reader.getText(11, 14));
+    assertEquals(-1, reader.read(buffer));
+    assertEquals(16, reader.getPosition());
+  }
+
+}
@@ -90,6 +90,18 @@ public class AnalyzedSentence {
     return nonBlankTokens.clone();
   }
 
+  /**
+   * Like {@link #getTokensWithoutWhitespace()}, but returns the internal array instead of
+   * a copy, to save the copy in code that is called for every rule. The array must not be modified.
+   * @since 2.4
+   */
+  public final AnalyzedTokenReadings[] getTokensWithoutWhitespaceReadOnly() {
+    if (nonBlankTokens == null) {
+      getTokensWithoutWhitespace();
+    }
+    return nonBlankTokens;
+  }
+
   /**
    * Get a position of a non-whitespace token in the original sentence with
    * whitespace.
@@ -18,16 +18,18 @@
  */
 package org.languagetool;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
+import org.languagetool.tagging.PosTagTable;
 
 /**
  * A word (or punctuation, or whitespace) and its part-of-speech tag.
  * 
  * @author Daniel Naber
  */
-public class AnalyzedToken {
+public class AnalyzedToken implements Serializable {
 
   private final String token;
   private final String posTag;
@@ -42,14 +44,20 @@ public class AnalyzedToken {
   
   private boolean hasNoPOSTag;
 
+  /** The ID of the POS tag in the {@link PosTagTable} plus one, 0 if not known yet (e.g. after deserialization). */
+  private transient int posTagId;
+
   public AnalyzedToken(final String token, final String posTag, final String lemma) {
     this.token = Objects.requireNonNull(token, "token cannot be null");
-    this.posTag = posTag;
-    this.lemma = lemma;    
+    // share the strings of tags and lemmas, so that there are fewer copies of them in memory:
+    final int id = PosTagTable.getId(posTag);
+    this.posTag = id != PosTagTable.NO_ID ? PosTagTable.getTag(id) : posTag;
+    this.posTagId = id + 1;
+    this.lemma = lemma != null && lemma.equals(token) ? this.token : lemma;
     if (lemma == null) {
       tokenInflected = token;
     } else {
-      tokenInflected = lemma;
+      tokenInflected = this.lemma;
     }
     hasNoPOSTag = (posTag == null 
         || JLanguageTool.SENTENCE_END_TAGNAME.equals(posTag)
@@ -64,6 +72,20 @@ public class AnalyzedToken {
     return posTag;
   }
 
+  /**
+   * The ID of the POS tag in the {@link PosTagTable}, or {@link PosTagTable#NO_ID} if there's no tag
+   * or if the table is full.
+   * @since 2.4
+   */
+  public final int getPOSTagId() {
+    int id = posTagId;
+    if (id == 0) {
+      id = PosTagTable.getId(posTag) + 1;
+      posTagId = id;
+    }
+    return id - 1;
+  }
+
   /**
    * @return the token's lemma or {@code null}
    */
@@ -24,6 +24,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.StringUtils;
 import org.languagetool.chunking.ChunkTag;
+import org.languagetool.tagging.disambiguation.DisambiguationTrace;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -34,6 +35,15 @@ import org.languagetool.tools.StringTools;
  */
 public class AnalyzedTokenReadings implements Iterable<AnalyzedToken> {
 
+  // the boolean fields as bits, used by CompactAnalyzedSentence:
+  private static final int WHITESPACE = 1;
+  private static final int LINEBREAK = 2;
+  private static final int SENT_END = 4;
+  private static final int SENT_START = 8;
+  private static final int PARA_END = 16;
+  private static final int WHITESPACE_BEFORE = 32;
+  private static final int IMMUNIZED = 64;
+
   protected AnalyzedToken[] anTokReadings;
 
   private int startPos;
@@ -58,6 +68,7 @@ public class AnalyzedTokenReadings implements Iterable<AnalyzedToken> {
    * Used to hold the string representation of the disambiguator actions on a token.
    */
   private String historicalAnnotations = "";
+  private DisambiguationTrace disambiguationTrace;
    
   
   public AnalyzedTokenReadings(final AnalyzedToken[] token, final int startPos) {
@@ -77,6 +88,25 @@ public class AnalyzedTokenReadings implements Iterable<AnalyzedToken> {
     this.startPos = startPos;
   }
 
+  /**
+   * Restores a token saved with {@link #getFlags()} etc.
+   */
+  AnalyzedTokenReadings(final AnalyzedToken[] readings, final int startPos, final String token, final int flags,
+                        final List<ChunkTag> chunkTags, final String historicalAnnotations) {
+    anTokReadings = readings;
+    this.startPos = startPos;
+    this.token = token;
+    this.chunkTags = chunkTags;
+    this.historicalAnnotations = historicalAnnotations;
+    isWhitespace = (flags & WHITESPACE) != 0;
+    isLinebreak = (flags & LINEBREAK) != 0;
+    isSentEnd = (flags & SENT_END) != 0;
+    isSentStart = (flags & SENT_START) != 0;
+    isParaEnd = (flags & PARA_END) != 0;
+    isWhitespaceBefore = (flags & WHITESPACE_BEFORE) != 0;
+    isImmunized = (flags & IMMUNIZED) != 0;
+  }
+
   AnalyzedTokenReadings(final AnalyzedToken token) {
     anTokReadings = new AnalyzedToken[1];
     anTokReadings[0] = token;
@@ -385,7 +415,23 @@ public class AnalyzedTokenReadings implements Iterable<AnalyzedToken> {
    * Used to track disambiguator actions.
    * @return the historicalAnnotations
    */
+  /**
+   * The boolean fields as bits, for {@link CompactAnalyzedSentence}.
+   */
+  int getFlags() {
+    return (isWhitespace ? WHITESPACE : 0)
+        | (isLinebreak ? LINEBREAK : 0)
+        | (isSentEnd ? SENT_END : 0)
+        | (isSentStart ? SENT_START : 0)
+        | (isParaEnd ? PARA_END : 0)
+        | (isWhitespaceBefore ? WHITESPACE_BEFORE : 0)
+        | (isImmunized ? IMMUNIZED : 0);
+  }
+
   public String getHistoricalAnnotations() {
+    if (disambiguationTrace != null) {
+      return disambiguationTrace.toString();
+    }
     return historicalAnnotations;
   }
 
@@ -395,6 +441,28 @@ public class AnalyzedTokenReadings implements Iterable<AnalyzedToken> {
    */
   public void setHistoricalAnnotations(String historicalAnnotations) {
     this.historicalAnnotations = historicalAnnotations;
+    if (disambiguationTrace != null) {
+      disambiguationTrace = DisambiguationTrace.start(historicalAnnotations);
+    }
+  }
+
+  /**
+   * @return the log of the disambiguator's changes to this token, or {@code null}
+   *   if they are not traced (the default)
+   * @since 2.4
+   */
+  public DisambiguationTrace getDisambiguationTrace() {
+    return disambiguationTrace;
+  }
+
+  /**
+   * Set a log to make the disambiguator trace its changes to this token, or
+   * {@code null} to not trace them. The log is also returned as text
+   * by {@link #getHistoricalAnnotations()}.
+   * @since 2.4
+   */
+  public void setDisambiguationTrace(DisambiguationTrace disambiguationTrace) {
+    this.disambiguationTrace = disambiguationTrace;
   }
 
   /**
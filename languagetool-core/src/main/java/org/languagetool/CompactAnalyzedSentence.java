@@ -0,0 +1,187 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.chunking.ChunkTag;
+import org.languagetool.tagging.PosTagTable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An {@link AnalyzedSentence} stored in a much smaller form, useful to keep many analyzed
+ * sentences in memory. Instead of objects for each token and each reading, the data is kept
+ * in arrays of numbers: the tokens as offsets into the text of the sentence, the POS tags as
+ * IDs of the {@link PosTagTable}, and lemmas and other strings as indexes into a table of the
+ * sentence's strings. Use {@link #toAnalyzedSentence()} to get the sentence for rules etc.
+ *
+ * <p>Readings are restored as {@link AnalyzedToken} objects, even if they have been created
+ * as a subclass of it.
+ *
+ * <p><b>Thread-safety:</b> this class is immutable and thread-safe.
+ *
+ * @since 2.4
+ */
+public final class CompactAnalyzedSentence {
+
+  // values in the reading arrays:
+  private static final int NONE = -1;       // no tag or lemma
+  private static final int SAME = -2;       // lemma is the same as the token
+  private static final int STRING = -3;     // tag from the string table: STRING - index
+
+  private static final int WHITESPACE_BEFORE = 1;
+  private static final int NO_POS_TAG = 2;
+
+  /** All tokens, one after the other. */
+  private final String text;
+  private final int[] tokenEnds;
+  private final int[] startPositions;
+  private final int[] tokenFlags;
+  /** Index of each token's first reading, plus the number of readings at the end. */
+  private final int[] firstReadings;
+  /** Index of the reading's token in the string table, or {@link #SAME} if it's the token of its readings. */
+  private final int[] readingTokens;
+  private final int[] readingTags;
+  private final int[] readingLemmas;
+  private final byte[] readingFlags;
+  /** Index of each token's first chunk tag, plus the number of chunk tags at the end. */
+  private final int[] firstChunkTags;
+  private final int[] chunkTags;
+  /** Index of each token's annotations in the string table, or {@link #NONE} if empty. */
+  private final int[] historicalAnnotations;
+  private final String[] strings;
+
+  public CompactAnalyzedSentence(final AnalyzedSentence sentence) {
+    final AnalyzedTokenReadings[] tokens = sentence.getTokens();
+    final Map<String, Integer> stringIndexes = new HashMap<>();
+    final List<String> stringList = new ArrayList<>();
+    final StringBuilder sb = new StringBuilder();
+    int readingCount = 0;
+    int chunkTagCount = 0;
+    for (AnalyzedTokenReadings token : tokens) {
+      readingCount += token.getReadingsLength();
+      chunkTagCount += token.getChunkTags().size();
+    }
+    tokenEnds = new int[tokens.length];
+    startPositions = new int[tokens.length];
+    tokenFlags = new int[tokens.length];
+    firstReadings = new int[tokens.length + 1];
+    readingTokens = new int[readingCount];
+    readingTags = new int[readingCount];
+    readingLemmas = new int[readingCount];
+    readingFlags = new byte[readingCount];
+    firstChunkTags = new int[tokens.length + 1];
+    chunkTags = new int[chunkTagCount];
+    historicalAnnotations = new int[tokens.length];
+    int reading = 0;
+    int chunkTag = 0;
+    for (int i = 0; i < tokens.length; i++) {
+      final AnalyzedTokenReadings token = tokens[i];
+      sb.append(token.getToken());
+      tokenEnds[i] = sb.length();
+      startPositions[i] = token.getStartPos();
+      tokenFlags[i] = token.getFlags();
+      firstReadings[i] = reading;
+      for (AnalyzedToken analyzedToken : token) {
+        final String readingToken = analyzedToken.getToken();
+        readingTokens[reading] = readingToken.equals(token.getToken()) ? SAME : getIndex(readingToken, stringIndexes, stringList);
+        final String posTag = analyzedToken.getPOSTag();
+        final int posTagId = analyzedToken.getPOSTagId();
+        if (posTag == null) {
+          readingTags[reading] = NONE;
+        } else if (posTagId != PosTagTable.NO_ID) {
+          readingTags[reading] = posTagId;
+        } else {
+          readingTags[reading] = STRING - getIndex(posTag, stringIndexes, stringList);
+        }
+        final String lemma = analyzedToken.getLemma();
+        if (lemma == null) {
+          readingLemmas[reading] = NONE;
+        } else if (lemma.equals(readingToken)) {
+          readingLemmas[reading] = SAME;
+        } else {
+          readingLemmas[reading] = getIndex(lemma, stringIndexes, stringList);
+        }
+        readingFlags[reading] = (byte) ((analyzedToken.isWhitespaceBefore() ? WHITESPACE_BEFORE : 0)
+                | (analyzedToken.hasNoTag() ? NO_POS_TAG : 0));
+        reading++;
+      }
+      firstChunkTags[i] = chunkTag;
+      for (ChunkTag tag : token.getChunkTags()) {
+        chunkTags[chunkTag++] = getIndex(tag.getChunkTag(), stringIndexes, stringList);
+      }
+      final String annotations = token.getHistoricalAnnotations();
+      historicalAnnotations[i] = annotations == null || annotations.isEmpty() ? NONE : getIndex(annotations, stringIndexes, stringList);
+    }
+    firstReadings[tokens.length] = reading;
+    firstChunkTags[tokens.length] = chunkTag;
+    text = sb.toString();
+    strings = stringList.toArray(new String[stringList.size()]);
+  }
+
+  private static int getIndex(final String s, final Map<String, Integer> stringIndexes, final List<String> stringList) {
+    Integer index = stringIndexes.get(s);
+    if (index == null) {
+      index = stringList.size();
+      stringIndexes.put(s, index);
+      stringList.add(s);
+    }
+    return index;
+  }
+
+  /**
+   * The number of tokens, including whitespace.
+   */
+  public int getTokenCount() {
+    return tokenEnds.length;
+  }
+
+  /**
+   * Create the sentence with all its tokens and readings. Each call creates new objects
+   * that can be modified without affecting this object.
+   */
+  public AnalyzedSentence toAnalyzedSentence() {
+    final AnalyzedTokenReadings[] tokens = new AnalyzedTokenReadings[tokenEnds.length];
+    for (int i = 0; i < tokens.length; i++) {
+      final String token = text.substring(i == 0 ? 0 : tokenEnds[i - 1], tokenEnds[i]);
+      final AnalyzedToken[] readings = new AnalyzedToken[firstReadings[i + 1] - firstReadings[i]];
+      for (int j = 0; j < readings.length; j++) {
+        final int reading = firstReadings[i] + j;
+        final String readingToken = readingTokens[reading] == SAME ? token : strings[readingTokens[reading]];
+        final int tag = readingTags[reading];
+        final String posTag = tag == NONE ? null : tag >= 0 ? PosTagTable.getTag(tag) : strings[STRING - tag];
+        final int lemmaIndex = readingLemmas[reading];
+        final String lemma = lemmaIndex == NONE ? null : lemmaIndex == SAME ? readingToken : strings[lemmaIndex];
+        readings[j] = new AnalyzedToken(readingToken, posTag, lemma);
+        readings[j].setWhitespaceBefore((readingFlags[reading] & WHITESPACE_BEFORE) != 0);
+        readings[j].setNoPOSTag((readingFlags[reading] & NO_POS_TAG) != 0);
+      }
+      final List<ChunkTag> tokenChunkTags = new ArrayList<>(firstChunkTags[i + 1] - firstChunkTags[i]);
+      for (int j = firstChunkTags[i]; j < firstChunkTags[i + 1]; j++) {
+        tokenChunkTags.add(new ChunkTag(strings[chunkTags[j]]));
+      }
+      final String annotations = historicalAnnotations[i] == NONE ? "" : strings[historicalAnnotations[i]];
+      tokens[i] = new AnalyzedTokenReadings(readings, startPositions[i], token, tokenFlags[i], tokenChunkTags, annotations);
+    }
+    return new AnalyzedSentence(tokens);
+  }
+
+}
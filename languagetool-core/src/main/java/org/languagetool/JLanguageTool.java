@@ -22,20 +22,25 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.io.Reader;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.net.JarURLConnection;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.jar.Manifest;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -50,13 +55,19 @@ import org.languagetool.rules.Rule;
 import org.languagetool.rules.RuleMatch;
 import org.languagetool.rules.RuleMatchFilter;
 import org.languagetool.rules.SameRuleGroupFilter;
+import org.languagetool.rules.SuggestionProvider;
+import org.languagetool.rules.patterns.BinaryRuleCache;
+import org.languagetool.rules.patterns.CompiledPatternRules;
 import org.languagetool.rules.patterns.FalseFriendRuleLoader;
 import org.languagetool.rules.patterns.PatternRule;
+import org.languagetool.rules.patterns.PatternRuleAutomaton;
+import org.languagetool.rules.patterns.TokenSet;
 import org.languagetool.rules.patterns.PatternRuleLoader;
 import org.languagetool.rules.spelling.SpellingCheckRule;
 import org.languagetool.rules.spelling.SuggestionExtractor;
 import org.languagetool.tagging.Tagger;
 import org.languagetool.tagging.disambiguation.Disambiguator;
+import org.languagetool.tagging.disambiguation.DisambiguationTrace;
 import org.languagetool.tokenizers.Tokenizer;
 import org.xml.sax.SAXException;
 
@@ -99,6 +110,12 @@ public class JLanguageTool {
   public static final String SENTENCE_END_TAGNAME = "SENT_END";
   /** The internal tag used to mark the end of a paragraph. */
   public static final String PARAGRAPH_END_TAGNAME = "PARA_END";
+  /**
+   * The maximum number of sentences for which {@link #check(Reader, RuleMatchListener)} keeps
+   * the matches of paragraph-level rules before reporting them.
+   * @since 2.4
+   */
+  public static final int STREAM_PARAGRAPH_WINDOW = 100;
   /** Name of the message bundle for translations. */
   public static final String MESSAGE_BUNDLE = "org.languagetool.MessagesBundle";
 
@@ -121,6 +138,10 @@ public class JLanguageTool {
     }
   }
   
+  private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+  // non-private only for test case
+  static final int STREAM_MAX_BUFFER_SIZE = 8 * STREAM_CHUNK_SIZE;
+
   private static ResourceDataBroker dataBroker = new DefaultResourceDataBroker();
 
   private final List<Rule> builtinRules = new ArrayList<>();
@@ -138,11 +159,18 @@ public class JLanguageTool {
   private Chunker chunker;
 
   private PrintStream printStream;
+  private boolean traceDisambiguation;
+
+  private int maxSuggestions = -1;
+  private long maxSuggestionTimeMillis = -1;
+  private volatile SuggestionTimer suggestionTimer;
 
   private int sentenceCount;
 
   private boolean listUnknownWords;
   private Set<String> unknownWords;  
+  private ResultCache resultCache;
+  private PatternRuleAutomaton patternRuleAutomaton;
 
   /**
    * Constants for correct paragraph-rule handling:
@@ -251,6 +279,34 @@ public class JLanguageTool {
     this.listUnknownWords = listUnknownWords;
   }
 
+  /**
+   * Use a cache for the analysis and the rule matches of sentences, so sentences that
+   * have been checked before don't need to be checked again.
+   * @param resultCache the cache, or {@code null} to not use a cache (the default)
+   * @since 2.4
+   */
+  public void setResultCache(final ResultCache resultCache) {
+    this.resultCache = resultCache;
+  }
+
+  /**
+   * @return the cache set with {@link #setResultCache(ResultCache)}, or {@code null}
+   * @since 2.4
+   */
+  public ResultCache getResultCache() {
+    return resultCache;
+  }
+
+  /**
+   * Whether to use a {@link PatternRuleAutomaton} to find the positions where the pattern rules
+   * loaded by {@link #activateDefaultPatternRules()} may match, with one scan per sentence.
+   * The results are the same as without the automaton. Default: false.
+   * @since 2.4
+   */
+  public void setUsePatternRuleAutomaton(final boolean usePatternRuleAutomaton) throws IOException {
+    patternRuleAutomaton = usePatternRuleAutomaton ? CompiledPatternRules.getAutomaton(language) : null;
+  }
+
   /**
    * Gets the ResourceBundle (i18n strings) for the default language of the user's system.
    */
@@ -307,11 +363,60 @@ public class JLanguageTool {
   /**
    * Set a PrintStream that will receive verbose output. Set to
    * {@code null} (which is the default) to disable verbose output.
+   * The verbose output includes the disambiguator log, see {@link #setTraceDisambiguation(boolean)}.
    */
   public void setOutput(final PrintStream printStream) {
     this.printStream = printStream;
   }
 
+  /**
+   * Whether the disambiguator logs its changes to the tokens of analyzed sentences, so they
+   * can be inspected with {@link AnalyzedSentence#getAnnotations()}. This is a diagnostic
+   * mode that makes disambiguation slower. It's off by default, but always on if
+   * verbose output has been enabled with {@link #setOutput(PrintStream)}.
+   * @since 2.4
+   */
+  public void setTraceDisambiguation(final boolean traceDisambiguation) {
+    this.traceDisambiguation = traceDisambiguation;
+  }
+
+  /**
+   * Limit the number of suggested replacements of each error. Use {@code 0} if no suggestions
+   * are needed at all, so that rules like spell checkers don't need to create them.
+   * @param maxSuggestions the maximum number of suggestions, or {@code -1} for no limit (the default)
+   * @since 2.4
+   */
+  public void setMaxSuggestions(final int maxSuggestions) {
+    if (maxSuggestions < -1) {
+      throw new IllegalArgumentException("maxSuggestions must be >= -1: " + maxSuggestions);
+    }
+    this.maxSuggestions = maxSuggestions;
+  }
+
+  /**
+   * Limit the time spent on creating suggestions that are only created when they are
+   * needed, see {@link RuleMatch#setLazySuggestedReplacements(SuggestionProvider)}. This is the
+   * total time for all errors found in one call of a {@code check} method. Once it has been
+   * used up, the remaining errors of that call get no suggestions.
+   * @param maxSuggestionTimeMillis the time in milliseconds, or {@code -1} for no limit (the default)
+   * @since 2.4
+   */
+  public void setMaxSuggestionTime(final long maxSuggestionTimeMillis) {
+    if (maxSuggestionTimeMillis < -1) {
+      throw new IllegalArgumentException("maxSuggestionTimeMillis must be >= -1: " + maxSuggestionTimeMillis);
+    }
+    this.maxSuggestionTimeMillis = maxSuggestionTimeMillis;
+    startSuggestionTimer();
+  }
+
+  private void startSuggestionTimer() {
+    suggestionTimer = maxSuggestionTimeMillis == -1 ? null : new SuggestionTimer(maxSuggestionTimeMillis);
+  }
+
+  private boolean isTracingDisambiguation() {
+    return traceDisambiguation || printStream != null;
+  }
+
   /**
    * Load pattern rules from an XML file. Use {@link #addRule(Rule)} to add these
    * rules to the checking process.
@@ -344,37 +449,31 @@ public class JLanguageTool {
     if (motherTongue == null) {
       return new ArrayList<>();
     }
+    final String languagePair = language.getShortNameWithCountryAndVariant() + "-" + motherTongue.getShortNameWithCountryAndVariant();
+    final List<PatternRule> cachedRules = BinaryRuleCache.read(filename, languagePair);
+    if (cachedRules != null) {
+      return cachedRules;
+    }
     final FalseFriendRuleLoader ruleLoader = new FalseFriendRuleLoader();
     final InputStream is = this.getClass().getResourceAsStream(filename);
+    final List<PatternRule> rules;
     if (is == null) {
-      return ruleLoader.getRules(new File(filename), language, motherTongue);
+      rules = ruleLoader.getRules(new File(filename), language, motherTongue);
     } else {
-      return ruleLoader.getRules(is, language, motherTongue);
+      rules = ruleLoader.getRules(is, language, motherTongue);
     }
+    BinaryRuleCache.write(filename, languagePair, rules);
+    return rules;
   }
 
   /**
    * Loads and activates the pattern rules from
-   * {@code org/languagetool/rules/<languageCode>/grammar.xml}.
+   * {@code org/languagetool/rules/<languageCode>/grammar.xml}. The rules are only
+   * loaded once per language variant and then shared with all other instances,
+   * see {@link CompiledPatternRules}.
    */
   public void activateDefaultPatternRules() throws IOException {
-    final List<PatternRule> patternRules = new ArrayList<>();
-    final List<String> enabledRules = language.getDefaultEnabledRulesForVariant();
-    final List<String> disabledRules = language.getDefaultDisabledRulesForVariant();
-    for (String patternRuleFileName : language.getRuleFileNames()) {
-      patternRules.addAll(loadPatternRules(patternRuleFileName));
-    }
-    if (!enabledRules.isEmpty() || !disabledRules.isEmpty()) {
-      for (PatternRule patternRule : patternRules) {
-        if (enabledRules.contains(patternRule.getId())) {
-          patternRule.setDefaultOn();
-        }
-        if (disabledRules.contains(patternRule.getId())) {
-          patternRule.setDefaultOff();
-        }
-      }
-    }
-    userRules.addAll(patternRules);
+    userRules.addAll(CompiledPatternRules.getRules(language));
   }
 
   /**
@@ -426,6 +525,18 @@ public class JLanguageTool {
     reInitSpellCheckIgnoreWords();
   }
 
+  /**
+   * Disable the given rules so the check methods like {@link #check(String)} won't use them.
+   * This is faster than calling {@link #disableRule(String)} for each rule.
+   * 
+   * @param ruleIds the ids of the rules to disable - no error will be thrown if an id does not exist
+   * @since 2.4
+   */
+  public void disableRules(final Collection<String> ruleIds) {
+    disabledRules.addAll(ruleIds);
+    reInitSpellCheckIgnoreWords();
+  }
+
   private void reInitSpellCheckIgnoreWords() {
     final List<Rule> allActiveRules = getAllActiveRules();
     final List<String> ignoreTokens = getAllIgnoreWords(allActiveRules);
@@ -476,6 +587,26 @@ public class JLanguageTool {
     enabledRules.add(ruleId);
   }
 
+  /**
+   * Switch off again a rule that is off by default and that has been enabled
+   * with {@link #enableDefaultOffRule(String)}.
+   * 
+   * @param ruleId the id of the turned off rule
+   * @since 2.4
+   */
+  public void disableDefaultOffRule(final String ruleId) {
+    enabledRules.remove(ruleId);
+  }
+
+  /**
+   * Get rule ids of the rules that are off by default but have been enabled
+   * with {@link #enableDefaultOffRule(String)}.
+   * @since 2.4
+   */
+  public Set<String> getEnabledDefaultOffRules() {
+    return Collections.unmodifiableSet(enabledRules);
+  }
+
   /**
    * Get category ids of the rule categories that have been explicitly disabled.
    */
@@ -496,6 +627,19 @@ public class JLanguageTool {
     }
   }
 
+  /**
+   * Re-enable the given rules so the check methods like {@link #check(String)} will use them.
+   * This is faster than calling {@link #enableRule(String)} for each rule, as the
+   * ignore lists of the spell checker rules get updated only once.
+   * 
+   * @param ruleIds the ids of the rules to enable
+   * @since 2.4
+   */
+  public void enableRules(final Collection<String> ruleIds) {
+    disabledRules.removeAll(ruleIds);
+    reInitSpellCheckIgnoreWords();
+  }
+
   /**
    * Tokenizes the given text into sentences.
    */
@@ -555,6 +699,7 @@ public class JLanguageTool {
 
     sentenceCount = sentences.size();
     unknownWords = new HashSet<>();
+    startSuggestionTimer();
     final List<AnalyzedSentence> analyzedSentences = analyzeSentences(sentences);    
     
     final List<RuleMatch> ruleMatches = performCheck(analyzedSentences, sentences, allRules, paraMode, annotatedText);
@@ -577,25 +722,141 @@ public class JLanguageTool {
     return ruleMatches;
   }
   
-  private List<AnalyzedSentence> analyzeSentences(final List<String> sentences) throws IOException {
+  /**
+   * Check a text of any size without keeping it in memory. The text is read in chunks and
+   * tokenized into sentences on the fly. The errors of a sentence are reported as soon as the
+   * sentence has been checked, except those of paragraph-level rules: these are reported at
+   * the end of the paragraph, or after {@link #STREAM_PARAGRAPH_WINDOW} sentences for longer
+   * paragraphs, as a later sentence might still show that they are not errors.
+   * All positions are relative to the complete text. If the text has no sentence end for
+   * more than {@link #STREAM_MAX_BUFFER_SIZE} characters, it is split at a whitespace
+   * and the parts are checked as if they were separate sentences.
+   *
+   * @param reader the text to be checked, the caller is responsible for closing it
+   * @param listener receives the errors
+   * @since 2.4
+   */
+  public void check(final Reader reader, final RuleMatchListener listener) throws IOException {
+    final List<Rule> allRules = getAllRules();
+    printIfVerbose(allRules.size() + " rules activated for language " + language);
+    sentenceCount = 0;
+    unknownWords = new HashSet<>();
+    startSuggestionTimer();
+    final StreamingCheck streamingCheck = new StreamingCheck(allRules, listener);
+    final char[] chunk = new char[STREAM_CHUNK_SIZE];
+    final StringBuilder text = new StringBuilder();
+    // tokenizing again only after the text has grown considerably keeps the effort linear
+    // if there are no sentence ends to cut at:
+    int tokenizeAtLength = STREAM_CHUNK_SIZE;
+    int charsRead;
+    while ((charsRead = reader.read(chunk)) != -1) {
+      text.append(chunk, 0, charsRead);
+      if (text.length() >= tokenizeAtLength) {
+        final List<String> sentences = sentenceTokenize(text.toString());
+        // the last sentence might continue in the text that has not been read yet, and
+        // the tokenizer needs the sentence before it (plus any empty lines) as context:
+        int keepFrom = sentences.size() - 2;
+        while (keepFrom > 0 && sentences.get(keepFrom).trim().isEmpty()) {
+          keepFrom--;
+        }
+        if (keepFrom > 0) {
+          final List<String> keptSentences = sentences.subList(keepFrom, sentences.size());
+          final StringBuilder keptText = new StringBuilder();
+          for (String sentence : keptSentences) {
+            keptText.append(sentence);
+          }
+          keptSentences.clear();
+          streamingCheck.check(sentences, false);
+          text.setLength(0);
+          text.append(keptText);
+        }
+        if (text.length() >= STREAM_MAX_BUFFER_SIZE) {
+          // no sentence end for a long time - cut at the last whitespace so memory use stays bounded:
+          final int cutPos = getLastTokenBoundary(text);
+          streamingCheck.check(sentenceTokenize(text.substring(0, cutPos)), false);
+          text.delete(0, cutPos);
+        }
+        tokenizeAtLength = Math.min(STREAM_MAX_BUFFER_SIZE, Math.max(STREAM_CHUNK_SIZE, 2 * text.length()));
+      }
+    }
+    if (text.length() > 0) {
+      streamingCheck.check(sentenceTokenize(text.toString()), true);
+    }
+    streamingCheck.flushParagraphMatches();
+  }
+
+  /**
+   * @return the position after the last whitespace, or the text's length if there's no whitespace
+   */
+  private static int getLastTokenBoundary(final CharSequence text) {
+    for (int i = text.length(); i > 0; i--) {
+      if (Character.isWhitespace(text.charAt(i - 1))) {
+        return i;
+      }
+    }
+    return text.length();
+  }
+
+  /**
+   * Analyze all sentences, in the order given.
+   * @since 2.4
+   */
+  protected List<AnalyzedSentence> analyzeSentences(final List<String> sentences) throws IOException {
+    return analyzeSentences(sentences, true);
+  }
+
+  /**
+   * Analyze the sentences, in the order given.
+   * @param endsText whether the last of the sentences is the end of the text
+   * @since 2.4
+   */
+  protected List<AnalyzedSentence> analyzeSentences(final List<String> sentences, final boolean endsText) throws IOException {
     final List<AnalyzedSentence> analyzedSentences = new ArrayList<>();
     
     int j = 0;
     for (final String sentence : sentences) {
-      AnalyzedSentence analyzedSentence = getAnalyzedSentence(sentence);
-      rememberUnknownWords(analyzedSentence);
-      if (++j == sentences.size()) {
-        final AnalyzedTokenReadings[] anTokens = analyzedSentence.getTokens();
-        anTokens[anTokens.length - 1].setParagraphEnd();
-        analyzedSentence = new AnalyzedSentence(anTokens);
-      }
+      final AnalyzedSentence analyzedSentence = analyzeSentence(sentence, endsText && ++j == sentences.size());
+      sentenceAnalyzed(analyzedSentence);
       analyzedSentences.add(analyzedSentence);
-      printIfVerbose(analyzedSentence.toString());
-      printIfVerbose(analyzedSentence.getAnnotations());
     }
     
     return analyzedSentences;
   }
+
+  /**
+   * Analyze one sentence of the text. Only uses the language's thread-safe analysis
+   * components, so it may be called for several sentences at the same time.
+   * @param isLastSentence whether this is the last sentence of the text, which ends the paragraph
+   */
+  AnalyzedSentence analyzeSentence(final String sentence, final boolean isLastSentence) throws IOException {
+    // cached sentences don't have the disambiguator log:
+    final ResultCache cache = isTracingDisambiguation() ? null : resultCache;
+    if (cache != null) {
+      final AnalyzedSentence cachedSentence = cache.getAnalyzedSentence(language, sentence, isLastSentence);
+      if (cachedSentence != null) {
+        return cachedSentence;
+      }
+    }
+    AnalyzedSentence analyzedSentence = getAnalyzedSentence(sentence);
+    if (isLastSentence) {
+      final AnalyzedTokenReadings[] anTokens = analyzedSentence.getTokens();
+      anTokens[anTokens.length - 1].setParagraphEnd();
+      analyzedSentence = new AnalyzedSentence(anTokens);
+    }
+    if (cache != null) {
+      cache.putAnalyzedSentence(language, sentence, isLastSentence, analyzedSentence);
+    }
+    return analyzedSentence;
+  }
+
+  /**
+   * Needs to be called for each result of {@link #analyzeSentence(String, boolean)}, in text order.
+   */
+  void sentenceAnalyzed(final AnalyzedSentence analyzedSentence) {
+    rememberUnknownWords(analyzedSentence);
+    printIfVerbose(analyzedSentence.toString());
+    printIfVerbose(analyzedSentence.getAnnotations());
+  }
   
   protected List<RuleMatch> performCheck(final List<AnalyzedSentence> analyzedSentences, final List<String> sentences,
                                          final List<Rule> allRules, ParagraphHandling paraMode, final AnnotatedText annotatedText) throws IOException {
@@ -622,7 +883,17 @@ public class JLanguageTool {
       final List<Rule> allRules, int charCount, int lineCount,
       int columnCount, final String sentence, final AnalyzedSentence analyzedSentence, final AnnotatedText annotatedText)
         throws IOException {
-    final List<RuleMatch> sentenceMatches = new ArrayList<>();
+    return checkAnalyzedSentence(paraMode, allRules, charCount, lineCount, columnCount, sentence, analyzedSentence, annotatedText, null);
+  }
+
+  /**
+   * @param costTracker if not {@code null}, the time each rule needs is added to it
+   */
+  List<RuleMatch> checkAnalyzedSentence(final ParagraphHandling paraMode,
+      final List<Rule> allRules, int charCount, int lineCount,
+      int columnCount, final String sentence, final AnalyzedSentence analyzedSentence, final AnnotatedText annotatedText,
+      final RuleCostTracker costTracker) throws IOException {
+    final List<Rule> activeRules = new ArrayList<>();
     for (final Rule rule : allRules) {
       if (disabledRules.contains(rule.getId())
           || (rule.isDefaultOff() && !enabledRules.contains(rule.getId()))) {
@@ -650,8 +921,64 @@ public class JLanguageTool {
         case NORMAL:
         default:
       }
+      activeRules.add(rule);
+    }
+
+    final ResultCache cache = resultCache;
+    final boolean paragraphEnd;
+    Map<Rule, List<RuleMatch>> cachedMatches = null;
+    Map<Rule, List<RuleMatch>> matchesToCache = null;
+    if (cache != null) {
+      final AnalyzedTokenReadings[] tokens = analyzedSentence.getTokens();
+      paragraphEnd = tokens.length > 0 && tokens[tokens.length - 1].isParagraphEnd();
+      final List<Rule> cacheableRules = new ArrayList<>();
+      for (final Rule rule : activeRules) {
+        if (isCacheable(rule)) {
+          cacheableRules.add(rule);
+        }
+      }
+      if (cacheableRules.size() > 0) {
+        cachedMatches = cache.getMatches(language, sentence, paragraphEnd, cacheableRules);
+        if (cachedMatches.size() < cacheableRules.size()) {
+          matchesToCache = new IdentityHashMap<>();
+        }
+      }
+    } else {
+      paragraphEnd = false;
+    }
 
-      final RuleMatch[] thisMatches = rule.match(analyzedSentence);
+    final List<RuleMatch> sentenceMatches = new ArrayList<>();
+    TokenSet tokenSet = null;
+    final PatternRuleAutomaton automaton = patternRuleAutomaton;
+    PatternRuleAutomaton.Candidates candidates = null;
+    for (final Rule rule : activeRules) {
+      final List<RuleMatch> cachedRuleMatches = cachedMatches != null ? cachedMatches.get(rule) : null;
+      final List<RuleMatch> thisMatches;
+      if (tokenSet == null && rule instanceof PatternRule && cachedRuleMatches == null) {
+        tokenSet = new TokenSet(analyzedSentence);
+      }
+      if (cachedRuleMatches != null) {
+        thisMatches = cachedRuleMatches;
+      } else if (rule instanceof PatternRule && !((PatternRule) rule).canMatch(tokenSet)) {
+        // the sentence doesn't contain the words or tags that the rule requires
+        thisMatches = Collections.emptyList();
+      } else {
+        final long startTime = costTracker != null ? System.nanoTime() : 0;
+        if (automaton != null && rule instanceof PatternRule && automaton.contains((PatternRule) rule)) {
+          if (candidates == null) {
+            candidates = automaton.scan(analyzedSentence);
+          }
+          thisMatches = Arrays.asList(candidates.match((PatternRule) rule));
+        } else {
+          thisMatches = Arrays.asList(rule.match(analyzedSentence));
+        }
+        if (costTracker != null) {
+          costTracker.add(language, rule, System.nanoTime() - startTime);
+        }
+      }
+      if (matchesToCache != null && cachedRuleMatches == null && isCacheable(rule)) {
+        matchesToCache.put(rule, thisMatches);
+      }
       for (final RuleMatch element1 : thisMatches) {
         final RuleMatch thisMatch = adjustRuleMatchPos(element1,
             charCount, columnCount, lineCount, sentence, annotatedText);
@@ -661,10 +988,24 @@ public class JLanguageTool {
         }
       }
     }
+    if (matchesToCache != null) {
+      // cached matches are used by other checks, maybe in other threads, so their
+      // suggestions cannot be created later by the rules of this check:
+      for (List<RuleMatch> ruleMatches : matchesToCache.values()) {
+        for (RuleMatch ruleMatch : ruleMatches) {
+          ruleMatch.getSuggestedReplacements();
+        }
+      }
+      cache.putMatches(language, sentence, paragraphEnd, matchesToCache);
+    }
     final RuleMatchFilter filter = new SameRuleGroupFilter();
     return filter.filter(sentenceMatches);
   }
 
+  private static boolean isCacheable(final Rule rule) {
+    return !rule.isParagraphBackTrack() && !rule.dependsOnPreviousSentences();
+  }
+
   /**
    * Change RuleMatch positions so they are relative to the complete text,
    * not just to the sentence. 
@@ -684,7 +1025,7 @@ public class JLanguageTool {
     }
     final RuleMatch thisMatch = new RuleMatch(match.getRule(),
         fromPos, toPos, match.getMessage(), match.getShortMessage());
-    thisMatch.setSuggestedReplacements(match.getSuggestedReplacements());
+    copySuggestedReplacements(match, thisMatch);
     final String sentencePartToError = sentence.substring(0, match.getFromPos());
     final String sentencePartToEndOfError = sentence.substring(0,match.getToPos());
     final int lastLineBreakPos = sentencePartToError.lastIndexOf('\n');
@@ -737,6 +1078,23 @@ public class JLanguageTool {
     return words;
   }
 
+  /**
+   * Calculate the column after the given sentence.
+   */
+  private int getColumnAfter(final String sentence, final int columnCount) {
+    final int lineBreakPos = sentence.lastIndexOf('\n');
+    if (lineBreakPos == -1) {
+      return columnCount + sentence.length();
+    } else if (lineBreakPos == 0) {
+      if (!language.getSentenceTokenizer().singleLineBreaksMarksPara()) {
+        return sentence.length() - 1;
+      }
+      return sentence.length();
+    } else {
+      return sentence.length() - lineBreakPos;
+    }
+  }
+
   // non-private only for test case
   static int countLineBreaks(final String s) {
     int pos = -1;
@@ -819,6 +1177,11 @@ public class JLanguageTool {
     if (tokenArray.length == lastToken + 1 && tokenArray[lastToken].isLinebreak()) {
       tokenArray[lastToken].setParagraphEnd();
     }
+    if (isTracingDisambiguation()) {
+      for (final AnalyzedTokenReadings token : tokenArray) {
+        token.setDisambiguationTrace(DisambiguationTrace.start());
+      }
+    }
     return new AnalyzedSentence(tokenArray);
   }
 
@@ -927,6 +1290,145 @@ public class JLanguageTool {
     }
   }
 
+  /**
+   * Copy the suggestions, applying the limits set with {@link #setMaxSuggestions(int)} and
+   * {@link #setMaxSuggestionTime(long)}. Lazy suggestions stay lazy.
+   */
+  private void copySuggestedReplacements(final RuleMatch from, final RuleMatch to) {
+    if (maxSuggestions == 0) {
+      return;
+    }
+    if (from.hasLazySuggestedReplacements()) {
+      to.setLazySuggestedReplacements(new LimitedSuggestions(from, maxSuggestions, suggestionTimer));
+    } else {
+      to.setSuggestedReplacements(limitSuggestions(from.getSuggestedReplacements(), maxSuggestions));
+    }
+  }
+
+  private static List<String> limitSuggestions(final List<String> suggestions, final int maxSuggestions) {
+    if (maxSuggestions != -1 && suggestions.size() > maxSuggestions) {
+      return new ArrayList<>(suggestions.subList(0, maxSuggestions));
+    }
+    return new ArrayList<>(suggestions);
+  }
+
+  /**
+   * The time left for creating suggestions in one call of a {@code check} method.
+   */
+  private static class SuggestionTimer {
+
+    private final AtomicLong nanosLeft;
+
+    private SuggestionTimer(long millis) {
+      nanosLeft = new AtomicLong(millis * 1_000_000);
+    }
+
+    private boolean hasTimeLeft() {
+      return nanosLeft.get() > 0;
+    }
+
+    private void spent(long nanos) {
+      nanosLeft.addAndGet(-nanos);
+    }
+  }
+
+  /**
+   * Creates the suggestions of a match using the lazy suggestions of the
+   * original match, as long as there's time left.
+   */
+  private static class LimitedSuggestions implements SuggestionProvider {
+
+    private final RuleMatch original;
+    private final int maxSuggestions;
+    private final SuggestionTimer timer;
+
+    private LimitedSuggestions(RuleMatch original, int maxSuggestions, SuggestionTimer timer) {
+      this.original = original;
+      this.maxSuggestions = maxSuggestions;
+      this.timer = timer;
+    }
+
+    @Override
+    public List<String> getSuggestions() {
+      if (timer == null) {
+        return limitSuggestions(original.getSuggestedReplacements(), maxSuggestions);
+      }
+      if (!timer.hasTimeLeft()) {
+        return new ArrayList<>();
+      }
+      final long startTime = System.nanoTime();
+      final List<String> suggestions = limitSuggestions(original.getSuggestedReplacements(), maxSuggestions);
+      timer.spent(System.nanoTime() - startTime);
+      return suggestions;
+    }
+  }
+
+  /**
+   * The state of {@link JLanguageTool#check(Reader, RuleMatchListener)}.
+   */
+  private class StreamingCheck {
+
+    private final List<Rule> rules;
+    private final RuleMatchListener listener;
+    private final List<RuleMatch> paragraphMatches = new ArrayList<>();
+
+    private int sentencesInParagraph;
+    private int charCount;
+    private int lineCount;
+    private int columnCount = 1;
+
+    private StreamingCheck(List<Rule> rules, RuleMatchListener listener) {
+      this.rules = rules;
+      this.listener = Objects.requireNonNull(listener);
+    }
+
+    private void check(List<String> sentences, boolean endsText) throws IOException {
+      final List<AnalyzedSentence> analyzedSentences = analyzeSentences(sentences, endsText);
+      int i = 0;
+      for (AnalyzedSentence analyzedSentence : analyzedSentences) {
+        final String sentence = sentences.get(i++);
+        sentenceCount++;
+        final List<RuleMatch> sentenceMatches = checkAnalyzedSentence(ParagraphHandling.NORMAL, rules,
+                charCount, lineCount, columnCount, sentence, analyzedSentence, null);
+        for (RuleMatch ruleMatch : sentenceMatches) {
+          if (ruleMatch.getRule().isParagraphBackTrack()) {
+            paragraphMatches.add(ruleMatch);
+          } else {
+            listener.matchFound(ruleMatch);
+          }
+        }
+        charCount += sentence.length();
+        lineCount += countLineBreaks(sentence);
+        columnCount = getColumnAfter(sentence, columnCount);
+        sentencesInParagraph++;
+        final AnalyzedTokenReadings[] tokens = analyzedSentence.getTokens();
+        final boolean paragraphEnd = tokens.length > 0 && tokens[tokens.length - 1].isParagraphEnd();
+        if (paragraphEnd) {
+          flushParagraphMatches();
+          // the rules won't look back beyond the paragraph end, so forget their matches:
+          for (Rule rule : rules) {
+            if (rule.isParagraphBackTrack()) {
+              rule.clearMatches();
+            }
+          }
+        } else if (sentencesInParagraph >= STREAM_PARAGRAPH_WINDOW) {
+          flushParagraphMatches();
+        }
+      }
+    }
+
+    private void flushParagraphMatches() throws IOException {
+      Collections.sort(paragraphMatches);
+      for (RuleMatch ruleMatch : paragraphMatches) {
+        if (!ruleMatch.getRule().isInRemoved(ruleMatch)) {
+          listener.matchFound(ruleMatch);
+        }
+      }
+      paragraphMatches.clear();
+      sentencesInParagraph = 0;
+    }
+  }
+
   class TextCheckCallable implements Callable<List<RuleMatch>> {
 
     private final List<Rule> rules;
@@ -934,6 +1436,7 @@ public class JLanguageTool {
     private final AnnotatedText annotatedText;
     private final List<String> sentences;
     private final List<AnalyzedSentence> analyzedSentences;
+    private final RuleCostTracker costTracker;
     
     private int charCount;
     private int lineCount;
@@ -941,6 +1444,12 @@ public class JLanguageTool {
 
     TextCheckCallable(List<Rule> rules, List<String> sentences, List<AnalyzedSentence> analyzedSentences,
                       ParagraphHandling paraMode, AnnotatedText annotatedText, int charCount, int lineCount, int columnCount) {
+      this(rules, sentences, analyzedSentences, paraMode, annotatedText, charCount, lineCount, columnCount, null);
+    }
+
+    TextCheckCallable(List<Rule> rules, List<String> sentences, List<AnalyzedSentence> analyzedSentences,
+                      ParagraphHandling paraMode, AnnotatedText annotatedText, int charCount, int lineCount, int columnCount,
+                      RuleCostTracker costTracker) {
       this.rules = rules;
       if (sentences.size() != analyzedSentences.size()) {
         throw new IllegalArgumentException("sentences and analyzedSentences do not have the same length : " + sentences.size() + " != " + analyzedSentences.size());
@@ -952,6 +1461,7 @@ public class JLanguageTool {
       this.charCount = charCount;
       this.lineCount = lineCount;
       this.columnCount = columnCount;
+      this.costTracker = costTracker;
     }
 
     @Override
@@ -962,26 +1472,12 @@ public class JLanguageTool {
         final String sentence = sentences.get(i++);
         final List<RuleMatch> sentenceMatches =
                 checkAnalyzedSentence(paraMode, rules, charCount, lineCount,
-                        columnCount, sentence, analyzedSentence, annotatedText);
+                        columnCount, sentence, analyzedSentence, annotatedText, costTracker);
 
         ruleMatches.addAll(sentenceMatches);
         charCount += sentence.length();
         lineCount += countLineBreaks(sentence);
-
-        // calculate matching column:
-        final int lineBreakPos = sentence.lastIndexOf('\n');
-        if (lineBreakPos == -1) {
-          columnCount += sentence.length();
-        } else {
-          if (lineBreakPos == 0) {
-            columnCount = sentence.length();
-            if (!language.getSentenceTokenizer().singleLineBreaksMarksPara()) {
-              columnCount--;
-            }
-          } else {
-            columnCount = sentence.length() - lineBreakPos;
-          }
-        }
+        columnCount = getColumnAfter(sentence, columnCount);
       }
       return ruleMatches;
     }
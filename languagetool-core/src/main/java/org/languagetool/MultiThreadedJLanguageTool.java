@@ -19,13 +19,24 @@
 package org.languagetool;
 
 import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.languagetool.markup.AnnotatedText;
 import org.languagetool.rules.Rule;
@@ -35,12 +46,37 @@ import org.languagetool.rules.RuleMatch;
  * A variant of {@link JLanguageTool} that uses several threads for rule matching.
  * Use this if you want text checking to be fast and do not care about the 
  * high load that this might cause.
+ *
+ * <p>By default, the threads are taken from a thread pool that is shared by all instances
+ * of this class and that lives until {@link #shutdownSharedThreadPools()} is called. Its
+ * threads are daemon threads, so they don't keep the JVM from exiting. Alternatively,
+ * use {@link #setExecutorService(ExecutorService)} to provide your own executor.
+ * Texts shorter than {@link #setMinTextLengthForParallelCheck(int)} characters are
+ * checked in the calling thread, as for these the overhead of using threads is larger
+ * than the gain.
+ *
+ * <p>With {@link #setPipelined(boolean)}, the sentences are analyzed (tagged, chunked and
+ * disambiguated) by the threads of the pool while the calling thread already runs the rules
+ * on the sentences that are ready. Only a limited number of sentences is analyzed ahead, so
+ * long texts don't need to be kept in memory as analyzed sentences all at once.
  * 
  * <p><b>Thread-safety:</b> See the remarks at {@link JLanguageTool}.
  */
 public class MultiThreadedJLanguageTool extends JLanguageTool {
-  
+
+  /** The default value for {@link #setMinTextLengthForParallelCheck(int)}. */
+  public static final int DEFAULT_MIN_TEXT_LENGTH_FOR_PARALLEL_CHECK = 100;
+
+  private static final ConcurrentMap<String, ExecutorService> SHARED_POOLS = new ConcurrentHashMap<>();
+  private static final RuleCostTracker RULE_COSTS = new RuleCostTracker();
+
   private int threadPoolSize = -1;
+  private ExecutorService executorService;
+  private boolean useForkJoinPool;
+  private int minTextLengthForParallelCheck = DEFAULT_MIN_TEXT_LENGTH_FOR_PARALLEL_CHECK;
+  private int minSentencesForParallelCheck = 1;
+  private boolean pipelined;
+  private int pipelineSize = -1;
 
   public MultiThreadedJLanguageTool(Language language) throws IOException {
     super(language);
@@ -50,6 +86,15 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
     super(language, motherTongue);
   }
 
+  /**
+   * @param executorService the executor used to run the checks, see {@link #setExecutorService(ExecutorService)}
+   * @since 2.4
+   */
+  public MultiThreadedJLanguageTool(Language language, Language motherTongue, ExecutorService executorService) throws IOException {
+    super(language, motherTongue);
+    this.executorService = executorService;
+  }
+
   /**
    * When no thread pool size is {@link #setThreadPoolSize(int) configured}, the number of available processors is returned. 
    * 
@@ -72,16 +117,113 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
   }
 
   /**
-   * @return a fixed size executor with the given number of threads
+   * Use the given executor instead of the shared thread pool. The caller is responsible
+   * for shutting it down. Use {@code null} to use the shared thread pool again.
+   * @since 2.4
+   */
+  public void setExecutorService(ExecutorService executorService) {
+    this.executorService = executorService;
+  }
+
+  /**
+   * If true, the shared thread pool is a {@link ForkJoinPool}, whose threads steal work from
+   * each other, so a thread that is done early helps with the remaining tasks.
+   * Has no effect if an executor was set with {@link #setExecutorService(ExecutorService)}.
+   * @since 2.4
+   */
+  public void setUseForkJoinPool(boolean useForkJoinPool) {
+    this.useForkJoinPool = useForkJoinPool;
+  }
+
+  /**
+   * Texts with fewer characters are checked in the calling thread only.
+   * Use {@code 0} to always use several threads.
+   * @since 2.4
+   */
+  public void setMinTextLengthForParallelCheck(int minTextLength) {
+    this.minTextLengthForParallelCheck = minTextLength;
+  }
+
+  /**
+   * Texts with fewer sentences are checked in the calling thread only.
+   * Use {@code 0} to always use several threads.
+   * @since 2.4
+   */
+  public void setMinSentencesForParallelCheck(int minSentences) {
+    this.minSentencesForParallelCheck = minSentences;
+  }
+
+  /**
+   * If true, sentence analysis runs in parallel, ahead of the rule checking. The rules are
+   * then run in the calling thread, as the pool's threads are busy with the analysis.
+   * @since 2.4
+   */
+  public void setPipelined(boolean pipelined) {
+    this.pipelined = pipelined;
+  }
+
+  /**
+   * The maximum number of sentences that are analyzed ahead of the rule checking when
+   * {@link #setPipelined(boolean) pipelined}. By default, four times the thread pool size.
+   * @since 2.4
+   */
+  public void setPipelineSize(int pipelineSize) {
+    this.pipelineSize = pipelineSize;
+  }
+
+  /**
+   * Shut down the thread pools shared by all instances of this class. Only needed if the
+   * threads need to go away before the JVM exits, e.g. when a web application is undeployed.
+   * Checks that are started later will create a new thread pool.
+   * @since 2.4
+   */
+  public static void shutdownSharedThreadPools() {
+    for (String key : new ArrayList<>(SHARED_POOLS.keySet())) {
+      final ExecutorService pool = SHARED_POOLS.remove(key);
+      if (pool != null) {
+        pool.shutdown();
+      }
+    }
+  }
+
+  /**
+   * @return the executor set with {@link #setExecutorService(ExecutorService)} or a
+   *   shared thread pool with the given number of threads. It must not be shut down.
    */
   protected ExecutorService getExecutorService(int threads) {
-    return Executors.newFixedThreadPool(threads);
+    if (executorService != null) {
+      return executorService;
+    }
+    final String key = (useForkJoinPool ? "forkjoin-" : "fixed-") + threads;
+    ExecutorService pool = SHARED_POOLS.get(key);
+    if (pool == null) {
+      final ExecutorService newPool = useForkJoinPool ? new ForkJoinPool(threads) : Executors.newFixedThreadPool(threads, new DaemonThreadFactory());
+      pool = SHARED_POOLS.putIfAbsent(key, newPool);
+      if (pool == null) {
+        pool = newPool;
+      } else {
+        newPool.shutdown();
+      }
+    }
+    return pool;
   }
   
+  @Override
+  protected List<AnalyzedSentence> analyzeSentences(final List<String> sentences, final boolean endsText) throws IOException {
+    if (pipelined && isParallelCheckUseful(sentences)) {
+      final int threads = getThreadPoolSize();
+      return new PipelinedAnalysis(sentences, endsText, getExecutorService(threads), pipelineSize > 0 ? pipelineSize : threads * 4);
+    }
+    return super.analyzeSentences(sentences, endsText);
+  }
+
   @Override
   protected List<RuleMatch> performCheck(final List<AnalyzedSentence> analyzedSentences, final List<String> sentences,
        final List<Rule> allRules, final ParagraphHandling paraMode, 
        final AnnotatedText annotatedText) throws IOException {
+    if (analyzedSentences instanceof PipelinedAnalysis || !isParallelCheckUseful(sentences)) {
+      return super.performCheck(analyzedSentences, sentences, allRules, paraMode, annotatedText);
+    }
     int charCount = 0;
     int lineCount = 0;
     int columnCount = 1;
@@ -99,34 +241,218 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
       }
     } catch (InterruptedException | ExecutionException e) {
       throw new RuntimeException(e);
-    } finally {
-      executorService.shutdownNow();
     }
-    
+    sortLikeSingleThreaded(ruleMatches, allRules);
     return ruleMatches;
   }
 
+  // the tasks don't get the rules in their original order, but we want the same
+  // result order as JLanguageTool: by position, then by rule:
+  private void sortLikeSingleThreaded(List<RuleMatch> ruleMatches, List<Rule> allRules) {
+    final Map<Rule, Integer> ruleIndex = new IdentityHashMap<>();
+    for (int i = 0; i < allRules.size(); i++) {
+      ruleIndex.put(allRules.get(i), i);
+    }
+    Collections.sort(ruleMatches, new Comparator<RuleMatch>() {
+      @Override
+      public int compare(RuleMatch match1, RuleMatch match2) {
+        final int posCompare = Integer.compare(match1.getFromPos(), match2.getFromPos());
+        if (posCompare != 0) {
+          return posCompare;
+        }
+        return Integer.compare(getIndex(match1), getIndex(match2));
+      }
+      private int getIndex(RuleMatch match) {
+        final Integer index = ruleIndex.get(match.getRule());
+        return index != null ? index : -1;
+      }
+    });
+  }
+
+  private boolean isParallelCheckUseful(List<String> sentences) {
+    if (sentences.size() < minSentencesForParallelCheck) {
+      return false;
+    }
+    int textLength = 0;
+    for (String sentence : sentences) {
+      textLength += sentence.length();
+      if (textLength >= minTextLengthForParallelCheck) {
+        return true;
+      }
+    }
+    return textLength >= minTextLengthForParallelCheck;
+  }
+
   private List<Callable<List<RuleMatch>>> createTextCheckCallables(ParagraphHandling paraMode,
        AnnotatedText annotatedText, List<AnalyzedSentence> analyzedSentences, List<String> sentences, 
        List<Rule> allRules, int charCount, int lineCount, int columnCount, int threads) {
-    final int totalRules = allRules.size();
-    final int chunkSize = totalRules / threads;
-    int firstItem = 0;
+    final RuleCostTracker costTracker = RULE_COSTS.shouldMeasure() ? RULE_COSTS : null;
     final List<Callable<List<RuleMatch>>> callables = new ArrayList<>();
-    
     // split the rules - all rules are independent, so it makes more sense to split
     // the rules than to split the text:
-    for (int i = 0; i < threads; i++) {
-      final List<Rule> subRules;
-      if (i == threads - 1) {
-        // make sure the last rules are not lost due to rounding issues:
-        subRules = allRules.subList(firstItem, totalRules);
+    for (List<Rule> subRules : distributeRules(allRules, threads)) {
+      callables.add(new TextCheckCallable(subRules, sentences, analyzedSentences, paraMode, annotatedText,
+              charCount, lineCount, columnCount, costTracker));
+    }
+    return callables;
+  }
+
+  /**
+   * Distribute the rules so that all parts need about the same time to run, using
+   * the time measured in earlier checks. Rules with the same id stay together, as
+   * overlapping matches of a rule group are filtered per part.
+   */
+  List<List<Rule>> distributeRules(List<Rule> allRules, int parts) {
+    final List<RuleGroup> groups = new ArrayList<>();
+    double knownCostSum = 0;
+    int knownCostCount = 0;
+    RuleGroup group = null;
+    for (int i = 0; i < allRules.size(); i++) {
+      final Rule rule = allRules.get(i);
+      if (group == null || !Objects.equals(group.id, rule.getId())) {
+        group = new RuleGroup(rule.getId(), i);
+        groups.add(group);
+      }
+      group.end = i + 1;
+      final double cost = RULE_COSTS.getCost(getLanguage(), rule);
+      if (cost >= 0) {
+        group.cost += cost;
+        knownCostSum += cost;
+        knownCostCount++;
       } else {
-        subRules = allRules.subList(firstItem, firstItem + chunkSize);
+        group.unknownCostRules++;
       }
-      callables.add(new TextCheckCallable(subRules, sentences, analyzedSentences, paraMode, annotatedText, charCount, lineCount, columnCount));
-      firstItem = firstItem + chunkSize;
     }
-    return callables;
+    // rules that have not been measured yet are assumed to be average:
+    final double defaultCost = knownCostCount > 0 ? knownCostSum / knownCostCount : 1;
+    for (RuleGroup ruleGroup : groups) {
+      ruleGroup.cost += ruleGroup.unknownCostRules * defaultCost;
+    }
+    // greedy bin packing: the most expensive group goes to the part with the lowest cost so far:
+    Collections.sort(groups, new Comparator<RuleGroup>() {
+      @Override
+      public int compare(RuleGroup group1, RuleGroup group2) {
+        final int costCompare = Double.compare(group2.cost, group1.cost);
+        return costCompare != 0 ? costCompare : Integer.compare(group1.start, group2.start);
+      }
+    });
+    final int partCount = Math.max(1, Math.min(parts, groups.size()));
+    final double[] partCosts = new double[partCount];
+    final List<List<RuleGroup>> partGroups = new ArrayList<>();
+    for (int i = 0; i < partCount; i++) {
+      partGroups.add(new ArrayList<RuleGroup>());
+    }
+    for (RuleGroup ruleGroup : groups) {
+      int cheapestPart = 0;
+      for (int i = 1; i < partCount; i++) {
+        if (partCosts[i] < partCosts[cheapestPart]) {
+          cheapestPart = i;
+        }
+      }
+      partGroups.get(cheapestPart).add(ruleGroup);
+      partCosts[cheapestPart] += ruleGroup.cost;
+    }
+    final List<List<Rule>> result = new ArrayList<>();
+    for (List<RuleGroup> ruleGroups : partGroups) {
+      // keep the original rule order inside a part:
+      Collections.sort(ruleGroups, new Comparator<RuleGroup>() {
+        @Override
+        public int compare(RuleGroup group1, RuleGroup group2) {
+          return Integer.compare(group1.start, group2.start);
+        }
+      });
+      final List<Rule> partRules = new ArrayList<>();
+      for (RuleGroup ruleGroup : ruleGroups) {
+        partRules.addAll(allRules.subList(ruleGroup.start, ruleGroup.end));
+      }
+      result.add(partRules);
+    }
+    return result;
+  }
+
+  private static class RuleGroup {
+    private final String id;
+    private final int start;
+    private int end;
+    private double cost;
+    private int unknownCostRules;
+    private RuleGroup(String id, int start) {
+      this.id = id;
+      this.start = start;
+    }
+  }
+
+  /**
+   * The analyzed sentences of a text, analyzed by an executor while they are being used.
+   * The sentences must be fetched once each, in order, as is done by {@link TextCheckCallable}
+   * and {@link JLanguageTool#check(java.io.Reader, RuleMatchListener)}.
+   */
+  private class PipelinedAnalysis extends AbstractList<AnalyzedSentence> {
+
+    private final List<String> sentences;
+    private final boolean endsText;
+    private final ExecutorService executorService;
+    private final int maxAhead;
+    private final List<Future<AnalyzedSentence>> futures;
+
+    private int nextIndex;
+
+    private PipelinedAnalysis(List<String> sentences, boolean endsText, ExecutorService executorService, int maxAhead) {
+      this.sentences = sentences;
+      this.endsText = endsText;
+      this.executorService = executorService;
+      this.maxAhead = maxAhead;
+      this.futures = new ArrayList<>(sentences.size());
+    }
+
+    @Override
+    public AnalyzedSentence get(int index) {
+      if (index != nextIndex) {
+        throw new IllegalStateException("Sentences must be fetched once each, in order - expected " + nextIndex + ", got " + index);
+      }
+      nextIndex++;
+      while (futures.size() < sentences.size() && futures.size() <= index + maxAhead) {
+        final int sentenceIndex = futures.size();
+        final boolean isLastSentence = endsText && sentenceIndex == sentences.size() - 1;
+        futures.add(executorService.submit(new Callable<AnalyzedSentence>() {
+          @Override
+          public AnalyzedSentence call() throws Exception {
+            return analyzeSentence(sentences.get(sentenceIndex), isLastSentence);
+          }
+        }));
+      }
+      final Future<AnalyzedSentence> future = futures.get(index);
+      futures.set(index, null);  // no need to keep the sentence once it has been checked
+      try {
+        final AnalyzedSentence analyzedSentence = future.get();
+        sentenceAnalyzed(analyzedSentence);
+        return analyzedSentence;
+      } catch (InterruptedException | ExecutionException e) {
+        for (Future<AnalyzedSentence> pendingFuture : futures) {
+          if (pendingFuture != null) {
+            pendingFuture.cancel(true);
+          }
+        }
+        throw new RuntimeException("Could not analyze sentence: '" + sentences.get(index) + "'", e);
+      }
+    }
+
+    @Override
+    public int size() {
+      return sentences.size();
+    }
+  }
+
+  private static class DaemonThreadFactory implements ThreadFactory {
+    private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+    private final AtomicInteger count = new AtomicInteger();
+    @Override
+    public Thread newThread(Runnable r) {
+      final Thread thread = defaultFactory.newThread(r);
+      thread.setName("languagetool-check-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
   }
+
 }
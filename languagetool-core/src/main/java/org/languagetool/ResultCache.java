@@ -0,0 +1,237 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache of the results of sentence analysis and rule matching, useful if mostly the
+ * same text gets checked again and again, as in an editor. Only results that don't depend
+ * on other sentences are cached, so paragraph-level rules and rules that keep a state
+ * between sentences (see {@link Rule#dependsOnPreviousSentences()}) are always run.
+ * The least recently used sentences are removed from the cache when it is full.
+ * Analyzed sentences are kept as {@link CompactAnalyzedSentence}s to save memory.
+ * The matches of a sentence are kept per rule, so a check with other rules enabled,
+ * or with the rules distributed differently over threads, can still use them. Matches
+ * of a rule whose {@link Rule#getConfigurationVersion() configuration} has changed
+ * since they were cached are not used. The suggestions of matches are created before
+ * they are cached, even if the rule only creates them when they're needed.
+ *
+ * <p>Use {@link JLanguageTool#setResultCache(ResultCache)} to activate a cache. A cache may
+ * be shared by several {@link JLanguageTool} instances, even for different languages.
+ *
+ * <p><b>Thread-safety:</b> this class is thread-safe.
+ *
+ * @since 2.4
+ */
+public class ResultCache {
+
+  private final Map<SentenceKey, Object> entries;
+
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  /**
+   * @param maxSize the maximum number of entries, each entry being the analysis of a sentence or
+   *                the matches of a sentence for all rules that have been run on it
+   */
+  public ResultCache(final int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be > 0: " + maxSize);
+    }
+    entries = new LinkedHashMap<SentenceKey, Object>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<SentenceKey, Object> eldest) {
+        if (size() > maxSize) {
+          evictionCount++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Number of lookups that found their result in the cache. A lookup of matches only
+   * counts as a hit if the matches of all requested rules were found.
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Number of lookups that didn't find their result in the cache.
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Number of entries that were removed because the cache was full.
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * The number of entries in the cache.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Remove all entries. Doesn't reset the statistics.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "ResultCache{size=" + entries.size() + ", hits=" + hitCount + ", misses=" + missCount
+            + ", evictions=" + evictionCount + "}";
+  }
+
+  AnalyzedSentence getAnalyzedSentence(final Language language, final String sentence, final boolean isLastSentence) {
+    final CompactAnalyzedSentence compactSentence = (CompactAnalyzedSentence) get(new SentenceKey(language, sentence, isLastSentence, false));
+    // outside of the lock, and every caller gets its own copy:
+    return compactSentence != null ? compactSentence.toAnalyzedSentence() : null;
+  }
+
+  void putAnalyzedSentence(final Language language, final String sentence, final boolean isLastSentence,
+                           final AnalyzedSentence analyzedSentence) {
+    put(new SentenceKey(language, sentence, isLastSentence, false), new CompactAnalyzedSentence(analyzedSentence));
+  }
+
+  /**
+   * @param rules the rules whose matches are requested
+   * @return the cached matches of those of the given rules that are in the cache for the rule's
+   *    current configuration, with positions relative to the sentence - rules that are not in
+   *    the cache are missing from the map
+   */
+  @SuppressWarnings("unchecked")
+  synchronized Map<Rule, List<RuleMatch>> getMatches(final Language language, final String sentence, final boolean paragraphEnd,
+                                                     final List<Rule> rules) {
+    final Map<Rule, List<RuleMatch>> result = new IdentityHashMap<>();
+    final Map<Rule, RuleMatches> matchesByRule = (Map<Rule, RuleMatches>) entries.get(new SentenceKey(language, sentence, paragraphEnd, true));
+    if (matchesByRule != null) {
+      for (Rule rule : rules) {
+        final RuleMatches matches = matchesByRule.get(rule);
+        if (matches != null && matches.configurationVersion == rule.getConfigurationVersion()) {
+          result.put(rule, matches.matches);
+        }
+      }
+    }
+    if (result.size() == rules.size()) {
+      hitCount++;
+    } else {
+      missCount++;
+    }
+    return result;
+  }
+
+  /**
+   * Add the matches of some rules to the matches of the sentence that are already in the cache.
+   * @param matches the matches of each rule with positions relative to the sentence, also for
+   *    rules that have no matches
+   */
+  @SuppressWarnings("unchecked")
+  synchronized void putMatches(final Language language, final String sentence, final boolean paragraphEnd,
+                               final Map<Rule, List<RuleMatch>> matches) {
+    final SentenceKey key = new SentenceKey(language, sentence, paragraphEnd, true);
+    Map<Rule, RuleMatches> matchesByRule = (Map<Rule, RuleMatches>) entries.get(key);
+    if (matchesByRule == null) {
+      // rules are compared by identity, so different configurations of a rule don't share matches:
+      matchesByRule = new IdentityHashMap<>();
+      entries.put(key, matchesByRule);
+    }
+    for (Map.Entry<Rule, List<RuleMatch>> entry : matches.entrySet()) {
+      final Rule rule = entry.getKey();
+      matchesByRule.put(rule, new RuleMatches(rule.getConfigurationVersion(), Collections.unmodifiableList(entry.getValue())));
+    }
+  }
+
+  private synchronized Object get(final SentenceKey key) {
+    final Object value = entries.get(key);
+    if (value != null) {
+      hitCount++;
+    } else {
+      missCount++;
+    }
+    return value;
+  }
+
+  private synchronized void put(final SentenceKey key, final Object value) {
+    entries.put(key, value);
+  }
+
+  private static class SentenceKey {
+    private final Class<? extends Language> languageClass;
+    private final String sentence;
+    private final boolean paragraphEnd;
+    private final boolean matches;  // whether the entry is the matches or the analysis of the sentence
+    private final int hashCode;
+    private SentenceKey(Language language, String sentence, boolean paragraphEnd, boolean matches) {
+      this.languageClass = language.getClass();
+      this.sentence = sentence;
+      this.paragraphEnd = paragraphEnd;
+      this.matches = matches;
+      int hash = languageClass.hashCode();
+      hash = 31 * hash + sentence.hashCode();
+      hash = 31 * hash + (paragraphEnd ? 1 : 0);
+      hash = 31 * hash + (matches ? 1 : 0);
+      this.hashCode = hash;
+    }
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SentenceKey)) {
+        return false;
+      }
+      final SentenceKey other = (SentenceKey) o;
+      return hashCode == other.hashCode && paragraphEnd == other.paragraphEnd && matches == other.matches
+              && languageClass == other.languageClass && sentence.equals(other.sentence);
+    }
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static class RuleMatches {
+    private final long configurationVersion;
+    private final List<RuleMatch> matches;
+    private RuleMatches(long configurationVersion, List<RuleMatch> matches) {
+      this.configurationVersion = configurationVersion;
+      this.matches = matches;
+    }
+  }
+
+}
@@ -0,0 +1,92 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.languagetool.rules.Rule;
+
+/**
+ * Keeps the measured average time a rule needs to check a sentence, so
+ * {@link MultiThreadedJLanguageTool} can distribute the rules evenly over its threads.
+ * Only every n-th check is measured to keep the overhead low.
+ *
+ * <p><b>Thread-safety:</b> this class is thread-safe.
+ * @since 2.4
+ */
+class RuleCostTracker {
+
+  private static final int SAMPLE_INTERVAL = 10;
+  // avoid that old measurements outweigh new ones forever:
+  private static final long MAX_SAMPLES = 10_000;
+
+  private final ConcurrentMap<String, Cost> costs = new ConcurrentHashMap<>();
+  private final AtomicLong checkCount = new AtomicLong();
+
+  /**
+   * Whether the next check should be measured.
+   */
+  boolean shouldMeasure() {
+    return checkCount.getAndIncrement() % SAMPLE_INTERVAL == 0;
+  }
+
+  void add(Language language, Rule rule, long nanos) {
+    final String key = getKey(language, rule);
+    Cost cost = costs.get(key);
+    if (cost == null) {
+      final Cost newCost = new Cost();
+      cost = costs.putIfAbsent(key, newCost);
+      if (cost == null) {
+        cost = newCost;
+      }
+    }
+    cost.add(nanos);
+  }
+
+  /**
+   * @return the average time in nanoseconds the rule needs per sentence, or a negative value if unknown
+   */
+  double getCost(Language language, Rule rule) {
+    final Cost cost = costs.get(getKey(language, rule));
+    return cost != null ? cost.getAverage() : -1;
+  }
+
+  private String getKey(Language language, Rule rule) {
+    return language.getShortNameWithCountryAndVariant() + "/" + rule.getId();
+  }
+
+  private static class Cost {
+    private long totalNanos;
+    private long samples;
+    synchronized void add(long nanos) {
+      if (samples >= MAX_SAMPLES) {
+        totalNanos /= 2;
+        samples /= 2;
+      }
+      totalNanos += nanos;
+      samples++;
+    }
+    synchronized double getAverage() {
+      return samples > 0 ? (double) totalNanos / samples : -1;
+    }
+  }
+
+}
@@ -18,9 +18,17 @@
  */
 package org.languagetool.databroker;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
+import morfologik.stemming.Dictionary;
 import org.languagetool.JLanguageTool;
 
 /**
@@ -87,6 +95,13 @@ public class DefaultResourceDataBroker implements ResourceDataBroker {
    */
   protected String rulesDir;
 
+  /**
+   * The dictionaries loaded or being loaded, by their complete URL. Each dictionary is
+   * loaded by the first thread that requests it, other threads requesting the same
+   * dictionary wait for it, while different dictionaries can be loaded in parallel.
+   */
+  private final ConcurrentMap<String, FutureTask<Dictionary>> dictionaries = new ConcurrentHashMap<>();
+
   /**
    * Instantiates this data broker with the default resource directory names
    * as specified in:
@@ -157,6 +172,57 @@ public class DefaultResourceDataBroker implements ResourceDataBroker {
     return resource;
   }
 
+  /**
+   * See:
+   * {@link ResourceDataBroker#getFromResourceDirAsDictionary(java.lang.String)}
+   *
+   * @param path
+   *            The relative path to the {@code .dict} file inside of the {@code /resource}
+   *            directory. Please start your path information with {@code /}
+   *            because it will be concatenated with the directory's name:
+   *            /resource<b>/yourpath</b>.
+   * @return The shared dictionary
+   * @throws RuntimeException if path cannot be found
+   * @since 2.4
+   */
+  @Override
+  public Dictionary getFromResourceDirAsDictionary(final String path) throws IOException {
+    final URL url = this.getFromResourceDirAsUrl(path);
+    final String key = url.toExternalForm();
+    FutureTask<Dictionary> loader = dictionaries.get(key);
+    if (loader == null) {
+      final FutureTask<Dictionary> newLoader = new FutureTask<>(new Callable<Dictionary>() {
+        @Override
+        public Dictionary call() throws IOException {
+          return Dictionary.read(url);
+        }
+      });
+      loader = dictionaries.putIfAbsent(key, newLoader);
+      if (loader == null) {
+        loader = newLoader;
+        loader.run();
+      }
+    }
+    try {
+      return loader.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for dictionary " + key);
+    } catch (ExecutionException e) {
+      // don't keep the failure, so the next call tries again:
+      dictionaries.remove(key, loader);
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException("Could not load dictionary " + key, cause);
+    }
+  }
+
   /**
    * Concatenates the passed resource path with the currently set {@code
    * resource} directory path.
@@ -18,9 +18,11 @@
  */
 package org.languagetool.databroker;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 
+import morfologik.stemming.Dictionary;
 import org.languagetool.JLanguageTool;
 
 /**
@@ -98,6 +100,19 @@ public interface ResourceDataBroker {
    */
   public InputStream getFromResourceDirAsStream(String path);
 
+  /**
+   * Gets a morfologik dictionary from the grammar checker's {@code /resource} directory.
+   * A dictionary is only loaded once and then shared by all its users, so call this
+   * instead of {@link Dictionary#read(URL)}.
+   *
+   * @param path Path to a {@code .dict} file from the {@code /resource} directory,
+   *            the {@code .info} file must be next to it.
+   * @return The dictionary, which is immutable and thread-safe
+   * @throws RuntimeException if path cannot be found
+   * @since 2.4
+   */
+  public Dictionary getFromResourceDirAsDictionary(String path) throws IOException;
+
   /**
    * Gets any resource from the grammar checker's {@code /rules} directory.
    *
@@ -50,6 +50,8 @@ public abstract class Rule {
   /** The final list of RuleMatches, without removed matches. */
   private List<RuleMatch> previousMatches;
   private List<RuleMatch> removedMatches;
+  /** If true, the rule is used by several JLanguageTool instances and must not be changed. */
+  private volatile boolean shared;
 
   /**
    * Called by language-dependent rules.
@@ -97,6 +99,26 @@ public abstract class Rule {
    */
   public abstract void reset();
 
+  /**
+   * Whether the matches of this rule for a sentence may depend on the sentences checked
+   * before, e.g. because the rule remembers the previous sentence. The results of
+   * such rules are never taken from a {@link org.languagetool.ResultCache}.
+   * @since 2.4
+   */
+  public boolean dependsOnPreviousSentences() {
+    return false;
+  }
+
+  /**
+   * A number that changes whenever the rule is configured in a way that may change its
+   * matches, e.g. when words to be ignored are added to a spelling rule. Matches that
+   * a {@link org.languagetool.ResultCache} keeps for an older version are not used.
+   * @since 2.4
+   */
+  public long getConfigurationVersion() {
+    return 0;
+  }
+
   /**
    * Whether this rule can be used for text in the given language. Note that
    * this just checks if this rule is in the list of hard-coded rules for the
@@ -120,6 +142,7 @@ public abstract class Rule {
    * Set the examples that are correct and thus do not trigger the rule.
    */
   public final void setCorrectExamples(final List<String> correctExamples) {
+    assertNotShared();
     this.correctExamples = correctExamples;
   }
 
@@ -135,6 +158,7 @@ public abstract class Rule {
    */
   public final void setIncorrectExamples(
       final List<IncorrectExample> incorrectExamples) {
+    assertNotShared();
     this.incorrectExamples = incorrectExamples;
   }
 
@@ -150,6 +174,7 @@ public abstract class Rule {
   }
 
   public final void setCategory(final Category category) {
+    assertNotShared();
     this.category = category;
   }
 
@@ -162,6 +187,7 @@ public abstract class Rule {
   }
 
   public final void setParagraphBackTrack(final boolean backTrack) {
+    assertNotShared();
     paragraphBackTrack = backTrack;
   }
 
@@ -237,6 +263,7 @@ public abstract class Rule {
    * Turns the rule off by default.
    */
   public final void setDefaultOff() {
+    assertNotShared();
     defaultOff = true;
   }
 
@@ -244,6 +271,7 @@ public abstract class Rule {
    * Turns the rule on by default.
    */
   public final void setDefaultOn() {
+    assertNotShared();
     defaultOff = false;
   }
   
@@ -260,6 +288,7 @@ public abstract class Rule {
    * @since 1.8
    */
   public void setUrl(URL url) {
+    assertNotShared();
     this.url = url;
   }
 
@@ -284,7 +313,38 @@ public abstract class Rule {
    * @since 2.0
    */
   public void setLocQualityIssueType(String locQualityIssueType) {
+    assertNotShared();
     this.locQualityIssueType = locQualityIssueType;
   }
 
+  /**
+   * Mark this rule as used by several {@link org.languagetool.JLanguageTool} instances, like
+   * the default pattern rules of a language. Its settings cannot be changed after that, as
+   * a change would affect all these instances: the setters throw an {@link UnsupportedOperationException}.
+   * Settings that differ per instance, like disabled rules, are kept by {@link org.languagetool.JLanguageTool}.
+   * @since 2.4
+   */
+  public final void setShared() {
+    shared = true;
+  }
+
+  /**
+   * @see #setShared()
+   * @since 2.4
+   */
+  public final boolean isShared() {
+    return shared;
+  }
+
+  /**
+   * To be called by methods that change the rule's settings.
+   * @throws UnsupportedOperationException if the rule is shared, see {@link #setShared()}
+   * @since 2.4
+   */
+  protected final void assertNotShared() {
+    if (shared) {
+      throw new UnsupportedOperationException("Rule " + getId() + " is shared by several JLanguageTool instances and cannot be changed");
+    }
+  }
+
 }
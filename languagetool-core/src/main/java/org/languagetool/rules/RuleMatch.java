@@ -18,6 +18,7 @@
  */
 package org.languagetool.rules;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -49,6 +50,7 @@ public class RuleMatch implements Comparable<RuleMatch> {
   private final String shortMessage;   // for OOo/LO context menu
 
   private List<String> suggestedReplacements = new ArrayList<>();
+  private SuggestionProvider suggestionProvider;  // not null until lazy suggestions have been created
 
   /**
    * Creates a RuleMatch object, taking the rule that triggered
@@ -221,8 +223,33 @@ public class RuleMatch implements Comparable<RuleMatch> {
   /**
    * @see #getSuggestedReplacements()
    */
-  public void setSuggestedReplacements(final List<String> replacements) {
+  public synchronized void setSuggestedReplacements(final List<String> replacements) {
     this.suggestedReplacements = Objects.requireNonNull(replacements, "replacements may be empty but not null");
+    this.suggestionProvider = null;
+  }
+
+  /**
+   * Set suggestions that are only created when {@link #getSuggestedReplacements()} is
+   * called for the first time. The provider may use the rule that created the match, and
+   * rules are not thread-safe: so the suggestions may be created after the check has
+   * finished and from another thread, but they must be created before the
+   * {@link org.languagetool.JLanguageTool} that found the match is used for the next check.
+   * Matches that are stored in a {@link org.languagetool.ResultCache} get their
+   * suggestions created before that, as they are shared with other checks.
+   * @see #getSuggestedReplacements()
+   * @since 2.4
+   */
+  public synchronized void setLazySuggestedReplacements(final SuggestionProvider provider) {
+    this.suggestionProvider = Objects.requireNonNull(provider, "provider must not be null");
+  }
+
+  /**
+   * Whether the suggestions are set with {@link #setLazySuggestedReplacements(SuggestionProvider)}
+   * and have not been created yet.
+   * @since 2.4
+   */
+  public synchronized boolean hasLazySuggestedReplacements() {
+    return suggestionProvider != null;
   }
 
   /**
@@ -231,7 +258,16 @@ public class RuleMatch implements Comparable<RuleMatch> {
    * to {@link #getToPos()}.
    * @return List of String objects or an empty List
    */
-  public List<String> getSuggestedReplacements() {
+  public synchronized List<String> getSuggestedReplacements() {
+    if (suggestionProvider != null) {
+      try {
+        suggestedReplacements = Objects.requireNonNull(suggestionProvider.getSuggestions(),
+                "suggestions may be empty but not null");
+      } catch (IOException e) {
+        throw new RuntimeException("Could not create suggestions for " + this, e);
+      }
+      suggestionProvider = null;
+    }
     return suggestedReplacements;
   }
 
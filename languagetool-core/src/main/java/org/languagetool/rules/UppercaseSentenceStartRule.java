@@ -148,6 +148,11 @@ public class UppercaseSentenceStartRule extends Rule {
   @Override
   public void reset() {
   }
+
+  @Override
+  public boolean dependsOnPreviousSentences() {
+    return true;
+  }
   
   protected boolean isUrl(String token) {
     for (String protocol : WordTokenizer.getProtocols()) {
@@ -117,4 +117,9 @@ public class WordRepeatBeginningRule extends Rule {
     beforeLastToken = "";
   }
 
+  @Override
+  public boolean dependsOnPreviousSentences() {
+    return true;
+  }
+
 }
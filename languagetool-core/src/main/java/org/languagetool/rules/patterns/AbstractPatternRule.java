@@ -20,12 +20,18 @@
 package org.languagetool.rules.patterns;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 import org.languagetool.AnalyzedSentence;
 import org.languagetool.Language;
+import org.languagetool.rules.Category;
+import org.languagetool.rules.IncorrectExample;
 import org.languagetool.rules.Rule;
 import org.languagetool.rules.RuleMatch;
 
@@ -37,7 +43,7 @@ import org.languagetool.rules.RuleMatch;
  * 
  * @author Marcin Miłkowski
  */
-public abstract class AbstractPatternRule extends Rule {
+public abstract class AbstractPatternRule extends Rule implements Serializable {
 
   protected final Language language;
   protected final List<Element> patternElements;
@@ -54,6 +60,9 @@ public abstract class AbstractPatternRule extends Rule {
 
   private boolean groupsOrUnification;
 
+  /** Lazily created, see {@link #getTokenRequirement()}. */
+  private transient volatile TokenRequirement tokenRequirement;
+
   public AbstractPatternRule(final String id, 
       final String description,
       final Language language,
@@ -92,6 +101,18 @@ public abstract class AbstractPatternRule extends Rule {
     return id + "[" + subId + "]:" + patternElements + ":" + description;
   }
 
+  /**
+   * What a sentence needs to contain so that the pattern can match it.
+   */
+  TokenRequirement getTokenRequirement() {
+    TokenRequirement requirement = tokenRequirement;
+    if (requirement == null) {
+      requirement = TokenRequirement.create(patternElements);
+      tokenRequirement = requirement;
+    }
+    return requirement;
+  }
+
   @Override
   public String getDescription() {
     return description;
@@ -119,6 +140,7 @@ public abstract class AbstractPatternRule extends Rule {
   }
 
   public final void setStartPositionCorrection(final int startPositionCorrection) {
+    assertNotShared();
     this.startPositionCorrection = startPositionCorrection;
   }
 
@@ -127,6 +149,7 @@ public abstract class AbstractPatternRule extends Rule {
   }
 
   public final void setEndPositionCorrection(final int endPositionCorrection) {
+    assertNotShared();
     this.endPositionCorrection = endPositionCorrection;
   }
 
@@ -139,6 +162,7 @@ public abstract class AbstractPatternRule extends Rule {
   }
 
   public final void setSubId(final String subId) {
+    assertNotShared();
     this.subId = subId;
   }
 
@@ -176,4 +200,29 @@ public abstract class AbstractPatternRule extends Rule {
   public List<Element> getPatternElements() {
     return patternElements;
   }
+
+  // Rule is not serializable, so its properties are written here, see BinaryRuleCache:
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeObject(getCorrectExamples());
+    out.writeObject(getIncorrectExamples());
+    out.writeObject(getCategory());
+    out.writeObject(getUrl());
+    out.writeObject(getLocQualityIssueType());
+    out.writeBoolean(isDefaultOff());
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    setCorrectExamples((List<String>) in.readObject());
+    setIncorrectExamples((List<IncorrectExample>) in.readObject());
+    setCategory((Category) in.readObject());
+    setUrl((URL) in.readObject());
+    setLocQualityIssueType((String) in.readObject());
+    if (in.readBoolean()) {
+      setDefaultOff();
+    }
+  }
+
 }
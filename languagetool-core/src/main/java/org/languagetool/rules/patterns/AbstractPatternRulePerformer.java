@@ -95,7 +95,9 @@ public abstract class AbstractPatternRulePerformer {
           ^ elem.getElement().getNegation();
     }
     if (elem.getElement().hasAndGroup()) {
-        for (Element e : elem.getElement().getAndGroup()) {          
+        final List<Element> andGroup = elem.getElement().getAndGroup();
+        for (int i = 0; i < andGroup.size(); i++) {
+            final Element e = andGroup.get(i);
             if (e.getChunkTag() != null) {
                 thisMatched &= tokens[tokenNo].getChunkTags().contains(e.getChunkTag())
                     ^ e.getNegation();
@@ -0,0 +1,332 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.tagging.disambiguation.rules.DisambiguationPatternRule;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * A cache of parsed XML rule files in Java's binary serialization format. Reading the
+ * binary format is much faster than parsing the XML, so this speeds up startup.
+ * A cache file is only used if it is newer than its XML file and if it was written by the
+ * same LanguageTool version, otherwise the XML is parsed and the cache file is re-written.
+ *
+ * <p>The cache is disabled unless a cache directory is configured with the system
+ * property {@value #CACHE_DIR_PROPERTY} or {@link #setCacheDir(File)}.
+ *
+ * @since 2.4
+ */
+public final class BinaryRuleCache {
+
+  /** The name of the system property that specifies the cache directory. */
+  public static final String CACHE_DIR_PROPERTY = "languagetool.ruleCacheDir";
+
+  private static final String FILE_SUFFIX = ".ser";
+
+  // the JDK classes used by the serialized rules, see RuleInputStream:
+  private static final Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(
+      String.class.getName(), Boolean.class.getName(), Integer.class.getName(), Number.class.getName(),
+      Enum.class.getName(), URL.class.getName(), Pattern.class.getName(),
+      ArrayList.class.getName(), LinkedList.class.getName(), HashMap.class.getName(),
+      LinkedHashMap.class.getName(), HashSet.class.getName(), LinkedHashSet.class.getName(),
+      ConcurrentHashMap.class.getName(), CopyOnWriteArrayList.class.getName(), "java.util.Arrays$ArrayList"));
+
+  private static final Logger LOGGER = Logger.getLogger(BinaryRuleCache.class.getName());
+  private static final AtomicBoolean writeErrorLogged = new AtomicBoolean();
+
+  private static volatile File cacheDir = getDefaultCacheDir();
+
+  private BinaryRuleCache() {
+  }
+
+  /**
+   * @param dir the directory for the cache files, or {@code null} to disable the cache
+   */
+  public static void setCacheDir(final File dir) {
+    cacheDir = dir;
+  }
+
+  /**
+   * @return the cache directory, or {@code null} if the cache is disabled
+   */
+  public static File getCacheDir() {
+    return cacheDir;
+  }
+
+  /**
+   * Get the rules of the given XML rule file from the cache.
+   * @param ruleFile the rule file as used by the XML loader, i.e. a classpath resource or a file name
+   * @return the rules or {@code null} if there's no cache file that is up-to-date
+   */
+  public static <T extends AbstractPatternRule> List<T> read(final String ruleFile) {
+    return read(ruleFile, null);
+  }
+
+  /**
+   * Like {@link #read(String)}, but for rules that were loaded from the file with some
+   * additional parameters, like the language pair of false friend rules.
+   * @param qualifier describes the parameters, or {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends AbstractPatternRule> List<T> read(final String ruleFile, final String qualifier) {
+    final File cacheFile = getCacheFile(ruleFile, qualifier);
+    if (cacheFile == null || !cacheFile.isFile() || cacheFile.lastModified() < getLastModified(ruleFile)) {
+      return null;
+    }
+    try (RuleInputStream in = new RuleInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+      if (!JLanguageTool.VERSION.equals(in.readObject()) || !getCacheKey(ruleFile, qualifier).equals(in.readObject())) {
+        return null;
+      }
+      final List<T> rules = (List<T>) in.readObject();
+      final int configurationCount = in.readInt();
+      for (int i = 0; i < configurationCount; i++) {
+        final Language language = (Language) in.readObject();
+        final boolean disambiguation = in.readBoolean();
+        final List<Equivalence> equivalences = (List<Equivalence>) in.readObject();
+        final UnifierConfiguration config = getUnifierConfiguration(language, disambiguation);
+        for (Equivalence equivalence : equivalences) {
+          config.setEquivalence(equivalence.feature, equivalence.type, equivalence.element);
+        }
+      }
+      return rules;
+    } catch (Exception e) {
+      // outdated or broken cache file, the caller will parse the XML instead:
+      return null;
+    }
+  }
+
+  /**
+   * Write the rules of the given XML rule file to the cache. Does nothing if the
+   * cache is disabled. As the cache is only an optimization, a cache file that cannot
+   * be written (e.g. because the cache directory is read-only or the disk is full)
+   * is not an error - it is only logged, for the first such file.
+   * @param ruleFile the rule file as used by the XML loader, i.e. a classpath resource or a file name
+   * @param rules the rules as loaded from {@code ruleFile}
+   */
+  public static void write(final String ruleFile, final List<? extends AbstractPatternRule> rules) {
+    write(ruleFile, null, rules);
+  }
+
+  /**
+   * Like {@link #write(String, List)}, for rules read with {@link #read(String, String)}.
+   * @param qualifier describes the parameters, or {@code null}
+   */
+  public static void write(final String ruleFile, final String qualifier, final List<? extends AbstractPatternRule> rules) {
+    final File cacheFile = getCacheFile(ruleFile, qualifier);
+    if (cacheFile == null || getLastModified(ruleFile) == 0) {
+      return;
+    }
+    // the XML may contain unification definitions that are stored in the language, not in the rules.
+    // Disambiguation rules use their own unifier configuration:
+    final boolean disambiguation = !rules.isEmpty() && rules.get(0) instanceof DisambiguationPatternRule;
+    final Set<Language> languages = new LinkedHashSet<>();
+    for (AbstractPatternRule rule : rules) {
+      languages.add(rule.getLanguage());
+    }
+    final File tmpFile = new File(cacheFile.getPath() + "." + Thread.currentThread().getId() + ".tmp");
+    try {
+      try (RuleOutputStream out = new RuleOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+        out.writeObject(JLanguageTool.VERSION);
+        out.writeObject(getCacheKey(ruleFile, qualifier));
+        out.writeObject(new ArrayList<>(rules));
+        out.writeInt(languages.size());
+        for (Language language : languages) {
+          out.writeObject(language);
+          out.writeBoolean(disambiguation);
+          out.writeObject(getEquivalences(getUnifierConfiguration(language, disambiguation)));
+        }
+      }
+      if (!tmpFile.renameTo(cacheFile)) {
+        cacheFile.delete();
+        if (!tmpFile.renameTo(cacheFile)) {
+          tmpFile.delete();
+        }
+      }
+    } catch (IOException e) {
+      tmpFile.delete();
+      if (!writeErrorLogged.getAndSet(true)) {
+        LOGGER.log(Level.WARNING, "Could not write rule cache file " + cacheFile
+                + ", rules will be loaded from XML (further errors are not logged)", e);
+      }
+    }
+  }
+
+  private static File getDefaultCacheDir() {
+    final String dir = System.getProperty(CACHE_DIR_PROPERTY);
+    return dir != null && !dir.trim().isEmpty() ? new File(dir) : null;
+  }
+
+  private static File getCacheFile(final String ruleFile, final String qualifier) {
+    final File dir = cacheDir;
+    if (dir == null || (!dir.isDirectory() && !dir.mkdirs())) {
+      return null;
+    }
+    return new File(dir, getCacheKey(ruleFile, qualifier).replaceAll("[^a-zA-Z0-9._-]", "_") + FILE_SUFFIX);
+  }
+
+  private static String getCacheKey(final String ruleFile, final String qualifier) {
+    return qualifier != null ? ruleFile + "|" + qualifier : ruleFile;
+  }
+
+  private static long getLastModified(final String ruleFile) {
+    final URL url = JLanguageTool.class.getResource(ruleFile);
+    if (url == null) {
+      return new File(ruleFile).lastModified();
+    }
+    try {
+      return url.openConnection().getLastModified();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static UnifierConfiguration getUnifierConfiguration(final Language language, final boolean disambiguation) {
+    return disambiguation ? language.getDisambiguationUnifierConfiguration() : language.getUnifierConfiguration();
+  }
+
+  private static List<Equivalence> getEquivalences(final UnifierConfiguration config) {
+    final List<Equivalence> result = new ArrayList<>();
+    for (Map.Entry<String, List<String>> entry : config.getEquivalenceFeatures().entrySet()) {
+      for (String type : entry.getValue()) {
+        final Element element = config.getEquivalenceTypes().get(new EquivalenceTypeLocator(entry.getKey(), type));
+        result.add(new Equivalence(entry.getKey(), type, element));
+      }
+    }
+    return result;
+  }
+
+  private static class Equivalence implements Serializable {
+    private final String feature;
+    private final String type;
+    private final Element element;
+    private Equivalence(String feature, String type, Element element) {
+      this.feature = feature;
+      this.type = type;
+      this.element = element;
+    }
+  }
+
+  /**
+   * Languages are not serializable, so only their class name is written. When reading,
+   * it's resolved to the same object that the XML loader would use.
+   */
+  private static class LanguageReference implements Serializable {
+    private final String className;
+    private LanguageReference(String className) {
+      this.className = className;
+    }
+    private Language resolve() throws ObjectStreamException {
+      for (Language language : Language.LANGUAGES) {
+        if (language.getClass().getName().equals(className)) {
+          return language;
+        }
+      }
+      throw new InvalidObjectException("Unknown language: " + className);
+    }
+  }
+
+  private static class RuleOutputStream extends ObjectOutputStream {
+    private RuleOutputStream(OutputStream out) throws IOException {
+      super(out);
+      enableReplaceObject(true);
+    }
+    @Override
+    protected Object replaceObject(Object obj) throws IOException {
+      if (obj instanceof Language) {
+        return new LanguageReference(obj.getClass().getName());
+      }
+      return obj;
+    }
+  }
+
+  /**
+   * Only reads the classes that rules consist of, so that a file put into the cache
+   * directory cannot make us instantiate arbitrary classes.
+   */
+  private static class RuleInputStream extends ObjectInputStream {
+    private RuleInputStream(InputStream in) throws IOException {
+      super(in);
+      enableResolveObject(true);
+    }
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+      if (!isAllowed(desc.getName())) {
+        throw new InvalidClassException(desc.getName(), "Class not allowed in rule cache");
+      }
+      return super.resolveClass(desc);
+    }
+    private static boolean isAllowed(String className) {
+      String name = className;
+      while (name.startsWith("[")) {
+        name = name.substring(1);
+      }
+      if (name.length() == 1) {
+        return true;  // array of primitives
+      }
+      if (name.startsWith("L") && name.endsWith(";")) {
+        name = name.substring(1, name.length() - 1);
+      }
+      return name.startsWith("org.languagetool.")
+          || name.startsWith("java.util.Collections$")
+          || ALLOWED_CLASSES.contains(name);
+    }
+    @Override
+    protected Object resolveObject(Object obj) throws IOException {
+      if (obj instanceof LanguageReference) {
+        return ((LanguageReference) obj).resolve();
+      }
+      return obj;
+    }
+  }
+
+}
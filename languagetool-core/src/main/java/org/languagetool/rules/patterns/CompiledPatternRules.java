@@ -0,0 +1,144 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.Language;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The default pattern rules of a language, loaded from XML only once per language variant
+ * and then shared by all {@link org.languagetool.JLanguageTool} instances and threads.
+ * The rules are marked as {@link org.languagetool.rules.Rule#setShared() shared} after loading,
+ * so their setters throw an exception. They don't keep any state while matching, so the same
+ * objects can be used by several checks at the same time.
+ *
+ * @since 2.4
+ */
+public final class CompiledPatternRules {
+
+  private static final ConcurrentMap<String, List<PatternRule>> RULES = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, PatternRuleAutomaton> AUTOMATA = new ConcurrentHashMap<>();
+
+  private CompiledPatternRules() {
+  }
+
+  /**
+   * Get the default pattern rules of the given language, with the variant's default on/off
+   * settings applied. The rules are loaded on the first call for a language variant.
+   * @return an unmodifiable list of rules
+   */
+  public static List<PatternRule> getRules(final Language language) throws IOException {
+    final List<String> ruleFileNames = language.getRuleFileNames();
+    final String key = getKey(language, ruleFileNames);
+    final List<PatternRule> rules = RULES.get(key);
+    if (rules != null) {
+      return rules;
+    }
+    synchronized (RULES) {
+      // check again, another thread might have loaded the rules while we were waiting:
+      final List<PatternRule> loadedRules = RULES.get(key);
+      if (loadedRules != null) {
+        return loadedRules;
+      }
+      final List<PatternRule> newRules = Collections.unmodifiableList(loadRules(language, ruleFileNames));
+      RULES.put(key, newRules);
+      return newRules;
+    }
+  }
+
+  /**
+   * Get an automaton for the rules returned by {@link #getRules(Language)}, built on the first call.
+   * @since 2.4
+   */
+  public static PatternRuleAutomaton getAutomaton(final Language language) throws IOException {
+    final String key = getKey(language, language.getRuleFileNames());
+    final PatternRuleAutomaton automaton = AUTOMATA.get(key);
+    if (automaton != null) {
+      return automaton;
+    }
+    final PatternRuleAutomaton newAutomaton = new PatternRuleAutomaton(getRules(language));
+    final PatternRuleAutomaton otherAutomaton = AUTOMATA.putIfAbsent(key, newAutomaton);
+    return otherAutomaton != null ? otherAutomaton : newAutomaton;
+  }
+
+  /**
+   * Forget all loaded rules, so they will be loaded again from XML. Only useful if
+   * rule files have been modified at runtime.
+   */
+  public static void clear() {
+    RULES.clear();
+    AUTOMATA.clear();
+  }
+
+  private static String getKey(final Language language, final List<String> ruleFileNames) {
+    return language.getClass().getName() + ":" + language.getShortNameWithCountryAndVariant() + ":" + ruleFileNames;
+  }
+
+  private static List<PatternRule> loadRules(final Language language, final List<String> ruleFileNames) throws IOException {
+    final List<PatternRule> patternRules = new ArrayList<>();
+    for (String ruleFileName : ruleFileNames) {
+      patternRules.addAll(loadRules(ruleFileName));
+    }
+    final List<String> enabledRules = language.getDefaultEnabledRulesForVariant();
+    final List<String> disabledRules = language.getDefaultDisabledRulesForVariant();
+    if (!enabledRules.isEmpty() || !disabledRules.isEmpty()) {
+      for (PatternRule patternRule : patternRules) {
+        if (enabledRules.contains(patternRule.getId())) {
+          patternRule.setDefaultOn();
+        }
+        if (disabledRules.contains(patternRule.getId())) {
+          patternRule.setDefaultOff();
+        }
+      }
+    }
+    for (PatternRule patternRule : patternRules) {
+      // build the index of required tokens now instead of during the first check:
+      patternRule.getTokenRequirement();
+      patternRule.setShared();
+    }
+    return patternRules;
+  }
+
+  private static List<PatternRule> loadRules(final String filename) throws IOException {
+    final List<PatternRule> cachedRules = BinaryRuleCache.read(filename);
+    if (cachedRules != null) {
+      return cachedRules;
+    }
+    final PatternRuleLoader ruleLoader = new PatternRuleLoader();
+    final InputStream is = CompiledPatternRules.class.getResourceAsStream(filename);
+    final List<PatternRule> rules;
+    if (is == null) {
+      // happens for external rules plugged in as an XML file:
+      rules = ruleLoader.getRules(new File(filename));
+    } else {
+      rules = ruleLoader.getRules(is, filename);
+    }
+    BinaryRuleCache.write(filename, rules);
+    return rules;
+  }
+
+}
@@ -19,7 +19,9 @@
 package org.languagetool.rules.patterns;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -30,6 +32,7 @@ import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.JLanguageTool;
 import org.languagetool.chunking.ChunkTag;
 import org.languagetool.synthesis.Synthesizer;
+import org.languagetool.tagging.PosTagTable;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -37,7 +40,7 @@ import org.languagetool.tools.StringTools;
  * 
  * @author Daniel Naber
  */
-public class Element implements Cloneable {
+public class Element implements Cloneable, Serializable {
 
   /** Matches only tokens without any POS tag. **/
   public static final String UNKNOWN_TAG = "UNKNOWN";
@@ -84,6 +87,14 @@ public class Element implements Cloneable {
 
   private Pattern p;
   private Pattern pPos;
+  /** Used instead of the patterns for simple regular expressions, may be null. */
+  private SimpleRegexMatcher simpleMatcher;
+  private SimpleRegexMatcher simplePosMatcher;
+  /**
+   * Whether the POS regular expression matches a tag, 2 bits (known, matched) for each tag
+   * ID of the {@link PosTagTable}, filled when matching.
+   */
+  private transient volatile long[] posMatchCache;
 
   /** The reference to another element in the pattern. **/
   private Match tokenReference;
@@ -135,20 +146,45 @@ public class Element implements Cloneable {
    * @return True if token matches, false otherwise.
    */
   final boolean isMatched(final AnalyzedToken token) {
+    return isMatched(token, null, null);
+  }
+
+  /**
+   * Like {@link #isMatched(AnalyzedToken)}, but reuses the given matchers for the regular expressions.
+   * @param stringMatcher a matcher created by {@link #createStringMatcher()}, or {@code null}
+   * @param posMatcher a matcher created by {@link #createPosMatcher()}, or {@code null}
+   */
+  final boolean isMatched(final AnalyzedToken token, final Matcher stringMatcher, final Matcher posMatcher) {
     if (testWhitespace && !isWhitespaceBefore(token)) {
       return false;
     }
     final boolean matched;
     if (testString) {
-      matched = (isStringTokenMatched(token) ^ negation)
-          && (isPosTokenMatched(token) ^ posNegation);
+      matched = (isStringTokenMatched(token, stringMatcher) ^ negation)
+          && (isPosTokenMatched(token, posMatcher) ^ posNegation);
     } else {
       matched = (!negation)
-          && (isPosTokenMatched(token) ^ posNegation);
+          && (isPosTokenMatched(token, posMatcher) ^ posNegation);
     }
     return matched;
   }
 
+  /**
+   * A matcher for the regular expression of the string, to be reused with
+   * {@link #isMatched(AnalyzedToken, Matcher, Matcher)}. Like all matchers, it must only be used by one thread.
+   * @return the matcher, or {@code null} if there's no regular expression
+   */
+  final Matcher createStringMatcher() {
+    return p != null && simpleMatcher == null ? p.matcher("") : null;
+  }
+
+  /**
+   * Like {@link #createStringMatcher()}, but for the regular expression of the POS tag.
+   */
+  final Matcher createPosMatcher() {
+    return pPos != null && simplePosMatcher == null ? pPos.matcher("") : null;
+  }
+
   /**
    * Checks whether an exception matches.
    * @param token AnalyzedToken to check matching against
@@ -156,7 +192,8 @@ public class Element implements Cloneable {
    */
   public final boolean isExceptionMatched(final AnalyzedToken token) {
     if (exceptionSet) {
-      for (final Element testException : exceptionList) {
+      for (int i = 0; i < exceptionList.size(); i++) {
+        final Element testException = exceptionList.get(i);
         if (!testException.exceptionValidNext) {
           if (testException.isMatched(token)) {
             return true;
@@ -175,8 +212,8 @@ public class Element implements Cloneable {
    */
   public final boolean isAndExceptionGroupMatched(final AnalyzedToken token) {
     if (andGroupSet) {
-      for (final Element testAndGroup : andGroupList) {
-        if (testAndGroup.isExceptionMatched(token)) {
+      for (int i = 0; i < andGroupList.size(); i++) {
+        if (andGroupList.get(i).isExceptionMatched(token)) {
           return true;
         }
       }
@@ -263,7 +300,8 @@ public class Element implements Cloneable {
    */
   public final boolean isMatchedByScopeNextException(final AnalyzedToken token) {
     if (exceptionSet) {
-      for (final Element testException : exceptionList) {
+      for (int i = 0; i < exceptionList.size(); i++) {
+        final Element testException = exceptionList.get(i);
         if (testException.exceptionValidNext) {
           if (testException.isMatched(token)) {
             return true;
@@ -283,7 +321,8 @@ public class Element implements Cloneable {
    */
   public final boolean isMatchedByPreviousException(final AnalyzedToken token) {
     if (exceptionValidPrevious) {
-      for (final Element testException : previousExceptionList) {
+      for (int i = 0; i < previousExceptionList.size(); i++) {
+        final Element testException = previousExceptionList.get(i);
         if (!testException.exceptionValidNext) {
           if (testException.isMatched(token)) {
             return true;
@@ -302,8 +341,9 @@ public class Element implements Cloneable {
    * @return true if any of the exceptions matches.
    */
   public final boolean isMatchedByPreviousException(final AnalyzedTokenReadings prevToken) {
-    for (AnalyzedToken analyzedToken : prevToken) {
-      if (isMatchedByPreviousException(analyzedToken)) {
+    final int numberOfReadings = prevToken.getReadingsLength();
+    for (int i = 0; i < numberOfReadings; i++) {
+      if (isMatchedByPreviousException(prevToken.getAnalyzedToken(i))) {
         return true;
       }
     }
@@ -330,11 +370,14 @@ public class Element implements Cloneable {
     this.posToken = posToken;
     this.posNegation = negation;
     posRegExp = regExp;
+    posMatchCache = null;
     if (posRegExp) {
       pPos = Pattern.compile(posToken);
+      simplePosMatcher = SimpleRegexMatcher.create(posToken, true);
       final Matcher mPos = pPos.matcher(UNKNOWN_TAG);
       posUnknown = mPos.matches();        
     } else {
+      simplePosMatcher = null;
       posUnknown = UNKNOWN_TAG.equals(posToken); 
     }
   }
@@ -360,6 +403,7 @@ public class Element implements Cloneable {
       }
       if (!"\\0".equals(token)) {
         p = Pattern.compile(regToken);
+        simpleMatcher = SimpleRegexMatcher.create(stringToken, caseSensitive);
       }
     }
   }
@@ -414,7 +458,7 @@ public class Element implements Cloneable {
    * @param token Token to test.
    * @return true if matches
    */
-  private boolean isPosTokenMatched(final AnalyzedToken token) {
+  private boolean isPosTokenMatched(final AnalyzedToken token, final Matcher posMatcher) {
     if (posToken == null) {
       // if no POS set defaulting to true
       return true;
@@ -427,8 +471,7 @@ public class Element implements Cloneable {
     }
     boolean match;
     if (posRegExp) {
-      final Matcher mPos = pPos.matcher(token.getPOSTag());
-      match = mPos.matches();
+      match = isPosRegExpMatched(token, posMatcher);
     } else {
       match = posToken.equals(token.getPOSTag());
     }
@@ -438,15 +481,53 @@ public class Element implements Cloneable {
     return match;
   }
 
+  private boolean isPosRegExpMatched(final AnalyzedToken token, final Matcher posMatcher) {
+    final int id = token.getPOSTagId();
+    if (id == PosTagTable.NO_ID) {
+      return matchPosRegExp(token.getPOSTag(), posMatcher);
+    }
+    final int index = id >> 5;
+    final int shift = (id & 31) * 2;
+    long[] cache = posMatchCache;
+    if (cache == null || index >= cache.length) {
+      final int length = Math.max(index + 1, (PosTagTable.size() >> 5) + 1);
+      cache = cache == null ? new long[length] : Arrays.copyOf(cache, length);
+      posMatchCache = cache;
+    }
+    final long bits = cache[index] >>> shift;
+    if ((bits & 1) != 0) {
+      return (bits & 2) != 0;
+    }
+    final boolean match = matchPosRegExp(token.getPOSTag(), posMatcher);
+    // if another thread sets the bits of another tag at the same time, one of them just gets lost:
+    cache[index] |= (match ? 3L : 1L) << shift;
+    return match;
+  }
+
+  private boolean matchPosRegExp(final String posTag, final Matcher posMatcher) {
+    if (simplePosMatcher != null) {
+      return simplePosMatcher.matches(posTag);
+    }
+    final Matcher mPos = posMatcher != null ? posMatcher.reset(posTag) : pPos.matcher(posTag);
+    return mPos.matches();
+  }
+
   /**
    * Tests whether the string token element matches a given token.
    * @param token {@link AnalyzedToken} to match against.
    * @return True if matches.
    */
   boolean isStringTokenMatched(final AnalyzedToken token) {
+    return isStringTokenMatched(token, null);
+  }
+
+  private boolean isStringTokenMatched(final AnalyzedToken token, final Matcher stringMatcher) {
     final String testToken = getTestToken(token);
+    if (simpleMatcher != null) {
+      return simpleMatcher.matches(testToken);
+    }
     if (stringRegExp) {
-      final Matcher m = p.matcher(testToken);
+      final Matcher m = stringMatcher != null ? stringMatcher.reset(testToken) : p.matcher(testToken);
       return m.matches();
     }
     if (caseSensitive) {
@@ -588,6 +669,7 @@ public class Element implements Cloneable {
 
   void doCompile(final AnalyzedTokenReadings token, final Synthesizer synth) throws IOException {
     p = null;
+    simpleMatcher = null;
     final MatchState matchState = tokenReference.createState(synth, token);
 
     if (StringTools.isEmpty(referenceString)) {
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Matcher;
 
 import org.languagetool.AnalyzedToken;
 import org.languagetool.AnalyzedTokenReadings;
@@ -33,14 +34,25 @@ import org.languagetool.Language;
  */
 public class ElementMatcher {
 
+  // elements referring to other tokens, compiled for the words they referred to:
+  private static final ReferenceElementCache REFERENCE_CACHE = new ReferenceElementCache(5000);
+
   private final Element baseElement;
+  private final Matcher baseStringMatcher;
+  private final Matcher basePosMatcher;
   private Element element;
+  private Matcher stringMatcher;
+  private Matcher posMatcher;
   private List<ElementMatcher> andGroup;
   private boolean[] andGroupCheck;
 
   public ElementMatcher(Element element) {
     baseElement = element;
     this.element = baseElement;
+    baseStringMatcher = element.createStringMatcher();
+    basePosMatcher = element.createPosMatcher();
+    stringMatcher = baseStringMatcher;
+    posMatcher = basePosMatcher;
     resolveGroup();
   }
 
@@ -64,8 +76,10 @@ public class ElementMatcher {
       final int refPos = firstMatchToken
               + baseElement.getMatch().getTokenRef();
       if (refPos < tokens.length) {
-        element = baseElement.compile(tokens[refPos],
+        element = REFERENCE_CACHE.getCompiled(baseElement, tokens[refPos],
                 language.getSynthesizer());
+        stringMatcher = null;
+        posMatcher = null;
       }
     }
   }
@@ -74,6 +88,16 @@ public class ElementMatcher {
     return baseElement;
   }
 
+  /**
+   * Forget the element resolved by {@link #resolveReference}, so the matcher
+   * can be used for another sentence.
+   */
+  void reset() {
+    element = baseElement;
+    stringMatcher = baseStringMatcher;
+    posMatcher = basePosMatcher;
+  }
+
   /**
    * Checks whether the rule element matches the token given as a parameter.
    *
@@ -81,7 +105,7 @@ public class ElementMatcher {
    * @return True if token matches, false otherwise.
    */
   public final boolean isMatched(final AnalyzedToken token) {
-    boolean matched = element.isMatched(token);
+    boolean matched = element.isMatched(token, stringMatcher, posMatcher);
     if (element.hasAndGroup()) {
       andGroupCheck[0] |= matched;
     }
@@ -93,8 +117,12 @@ public class ElementMatcher {
       for (ElementMatcher andMatcher : andGroup) {
         andMatcher.resolveReference(firstMatchToken, tokens, language);
       }
-      andGroupCheck = new boolean[element.getAndGroup().size() + 1];
-      Arrays.fill(andGroupCheck, false);
+      final int size = element.getAndGroup().size() + 1;
+      if (andGroupCheck == null || andGroupCheck.length != size) {
+        andGroupCheck = new boolean[size];
+      } else {
+        Arrays.fill(andGroupCheck, false);
+      }
     }
   }
 
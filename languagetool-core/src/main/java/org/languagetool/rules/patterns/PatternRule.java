@@ -20,7 +20,9 @@ package org.languagetool.rules.patterns;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.languagetool.AnalyzedSentence;
 import org.languagetool.Language;
@@ -35,6 +37,9 @@ import org.languagetool.tools.StringTools;
  */
 public class PatternRule extends AbstractPatternRule {
 
+  private static final AtomicReferenceFieldUpdater<PatternRule, PatternRuleMatcher> IDLE_MATCHER =
+          AtomicReferenceFieldUpdater.newUpdater(PatternRule.class, PatternRuleMatcher.class, "idleMatcher");
+
   private final String shortMessage;
 
   /**
@@ -64,6 +69,9 @@ public class PatternRule extends AbstractPatternRule {
    **/
   private boolean isMemberOfDisjunctiveSet;
 
+  /** A matcher that is currently not in use, kept to be reused by the next call of {@link #match(AnalyzedSentence)}. */
+  private transient volatile PatternRuleMatcher idleMatcher;
+
   /**
    * @param id
    *          Id of the Rule. Used in configuration. Should not contain special characters and should
@@ -183,14 +191,38 @@ public class PatternRule extends AbstractPatternRule {
   }
 
   public final void setMessage(final String message) {
+    assertNotShared();
     this.message = message;
   }
 
+  /**
+   * A quick test whether this rule may match a sentence: if this returns {@code false},
+   * {@link #match(AnalyzedSentence)} will not find an error in the sentence. This is
+   * based on the words, lemmas or POS tags that one of the pattern elements requires.
+   * @since 2.4
+   */
+  public final boolean canMatch(final TokenSet tokenSet) {
+    return getTokenRequirement().isSatisfiedBy(tokenSet);
+  }
+
   @Override
   public final RuleMatch[] match(final AnalyzedSentence text) throws IOException {
+    return match(text, null);
+  }
+
+  /**
+   * @param startPositions if not {@code null}, the only token positions at which a match may start
+   */
+  final RuleMatch[] match(final AnalyzedSentence text, final BitSet startPositions) throws IOException {
     try {
-      final PatternRuleMatcher matcher = new PatternRuleMatcher(this, useList);
-      return matcher.match(text);
+      // a matcher can only be used by one thread at a time, so take it:
+      PatternRuleMatcher matcher = IDLE_MATCHER.getAndSet(this, null);
+      if (matcher == null) {
+        matcher = new PatternRuleMatcher(this, useList);
+      }
+      final RuleMatch[] ruleMatches = matcher.match(text, startPositions);
+      idleMatcher = matcher;
+      return ruleMatches;
     } catch (IOException e) {
       throw new IOException("Error analyzing sentence: '" + text + "'", e);
     } catch (Exception e) {
@@ -199,6 +231,7 @@ public class PatternRule extends AbstractPatternRule {
   }
 
   public final void addSuggestionMatch(final Match m) {
+    assertNotShared();
     if (suggestionMatches == null) {
       suggestionMatches = new ArrayList<>();
     }
@@ -206,6 +239,7 @@ public class PatternRule extends AbstractPatternRule {
   }
   
   public final void addSuggestionMatchOutMsg (final Match m) {
+    assertNotShared();
     if (suggestionMatchesOutMsg == null) {
       suggestionMatchesOutMsg = new ArrayList<>();
     }
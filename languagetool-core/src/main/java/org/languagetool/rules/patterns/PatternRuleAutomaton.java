@@ -0,0 +1,227 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2005 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the positions at which pattern rules may match a sentence with a single scan over
+ * the sentence, instead of trying each rule at each position. The leading words of
+ * all patterns are put into a trie, so patterns that start with the same words share
+ * their nodes. The positions found this way are then confirmed by the usual matching,
+ * so the results are the same as those of {@link PatternRule#match(AnalyzedSentence)}.
+ *
+ * <p>Only rules whose first element matches a list of words are part of the automaton,
+ * see {@link #contains(PatternRule)}.
+ *
+ * <p>Instances are immutable after construction and can be shared between threads.
+ *
+ * @since 2.4
+ */
+public final class PatternRuleAutomaton {
+
+  // stop adding a rule's elements to the trie when it would need more paths than this:
+  private static final int MAX_PATHS = 64;
+
+  private final Node root = new Node();
+  private final Set<PatternRule> rules = Collections.newSetFromMap(new IdentityHashMap<PatternRule, Boolean>());
+
+  /**
+   * @param rules the rules, only {@link PatternRule}s with a suitable first element are used
+   */
+  public PatternRuleAutomaton(final List<? extends Rule> rules) {
+    for (final Rule rule : rules) {
+      if (rule instanceof PatternRule) {
+        add((PatternRule) rule);
+      }
+    }
+  }
+
+  /**
+   * Whether the rule is part of this automaton, i.e. whether {@link Candidates#match(PatternRule)}
+   * is faster than {@link PatternRule#match(AnalyzedSentence)} for it.
+   */
+  public boolean contains(final PatternRule rule) {
+    return rules.contains(rule);
+  }
+
+  /**
+   * The number of rules that are part of this automaton.
+   */
+  public int size() {
+    return rules.size();
+  }
+
+  /**
+   * Scan the sentence once to find the positions where the rules of this automaton may match.
+   */
+  public Candidates scan(final AnalyzedSentence sentence) {
+    final AnalyzedTokenReadings[] tokens = sentence.getTokensWithoutWhitespace();
+    final List<List<String>> words = new ArrayList<>(tokens.length);
+    for (final AnalyzedTokenReadings token : tokens) {
+      words.add(getWords(token));
+    }
+    final Map<PatternRule, BitSet> startPositions = new IdentityHashMap<>();
+    for (int i = 0; i < tokens.length; i++) {
+      scan(root, words, i, i, startPositions);
+    }
+    return new Candidates(sentence, startPositions);
+  }
+
+  private void scan(final Node node, final List<List<String>> words, final int startPos, final int pos,
+                    final Map<PatternRule, BitSet> startPositions) {
+    if (pos >= words.size() || node.children == null) {
+      return;
+    }
+    for (final String word : words.get(pos)) {
+      final Node child = node.children.get(word);
+      if (child != null) {
+        if (child.rules != null) {
+          for (final PatternRule rule : child.rules) {
+            BitSet positions = startPositions.get(rule);
+            if (positions == null) {
+              positions = new BitSet();
+              startPositions.put(rule, positions);
+            }
+            positions.set(startPos);
+          }
+        }
+        scan(child, words, startPos, pos + 1, startPositions);
+      }
+    }
+  }
+
+  // the distinct normalized tokens and lemmas of all readings:
+  private List<String> getWords(final AnalyzedTokenReadings token) {
+    final List<String> words = new ArrayList<>(2);
+    words.add(TokenSet.normalize(token.getToken()));
+    for (final AnalyzedToken reading : token) {
+      addWord(words, reading.getToken());
+      addWord(words, reading.getTokenInflected());
+    }
+    return words;
+  }
+
+  private void addWord(final List<String> words, final String word) {
+    if (word != null) {
+      final String normalized = TokenSet.normalize(word);
+      if (!words.contains(normalized)) {
+        words.add(normalized);
+      }
+    }
+  }
+
+  // A pattern's element k can only match the token at the start position plus k if
+  // all elements before it match exactly one token and don't allow skipping:
+  private void add(final PatternRule rule) {
+    List<Node> nodes = Collections.singletonList(root);
+    for (final Element element : rule.getPatternElements()) {
+      final Set<String> words = element.getMinOccurrence() >= 1 ? TokenRequirement.getWords(element) : null;
+      if (words == null || nodes.size() * words.size() > MAX_PATHS) {
+        break;
+      }
+      final List<Node> children = new ArrayList<>(nodes.size() * words.size());
+      for (final Node node : nodes) {
+        for (final String word : words) {
+          children.add(node.getOrAddChild(word));
+        }
+      }
+      nodes = children;
+      if (element.getSkipNext() != 0 || element.getMaxOccurrence() != 1) {
+        break;
+      }
+    }
+    if (nodes.get(0) == root) {
+      // the first element can't be used, so the rule may match anywhere
+      return;
+    }
+    for (final Node node : nodes) {
+      node.addRule(rule);
+    }
+    rules.add(rule);
+  }
+
+  /**
+   * The positions at which the rules of the automaton may match one sentence.
+   */
+  public static final class Candidates {
+
+    private final AnalyzedSentence sentence;
+    private final Map<PatternRule, BitSet> startPositions;
+
+    private Candidates(final AnalyzedSentence sentence, final Map<PatternRule, BitSet> startPositions) {
+      this.sentence = sentence;
+      this.startPositions = startPositions;
+    }
+
+    /**
+     * Match the rule against the sentence, only trying the positions found by the scan.
+     * The rule must be part of the automaton that created this object.
+     */
+    public RuleMatch[] match(final PatternRule rule) throws IOException {
+      final BitSet positions = startPositions.get(rule);
+      if (positions == null) {
+        return new RuleMatch[0];
+      }
+      return rule.match(sentence, positions);
+    }
+
+  }
+
+  private static class Node {
+
+    private Map<String, Node> children;
+    private List<PatternRule> rules;
+
+    private Node getOrAddChild(final String word) {
+      if (children == null) {
+        children = new HashMap<>();
+      }
+      Node child = children.get(word);
+      if (child == null) {
+        child = new Node();
+        children.put(word, child);
+      }
+      return child;
+    }
+
+    private void addRule(final PatternRule rule) {
+      if (rules == null) {
+        rules = new ArrayList<>(1);
+      }
+      rules.add(rule);
+    }
+
+  }
+
+}
@@ -0,0 +1,191 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.AnalyzedSentence;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of pattern rules by the words, lemmas and POS tags that a sentence needs to
+ * contain so that they can match it (see {@link PatternRule#canMatch(TokenSet)}). It's used
+ * to apply rules that change the sentence, like disambiguation rules, in their order
+ * while skipping the rules that cannot match. When a rule has changed the sentence, only the
+ * rules that depend on the words and tags that appeared or disappeared are looked at again.
+ *
+ * <p>Instances are immutable after construction and can be shared between threads.
+ *
+ * @since 2.4
+ */
+public final class PatternRuleIndex<T extends AbstractPatternRule> {
+
+  private final List<T> rules;
+  private final TokenRequirement[] requirements;
+  private final BitSet rulesWithoutRequirement = new BitSet();
+  private final Map<String, BitSet> rulesByWord = new HashMap<>();
+  private final Map<String, BitSet> rulesByPosTag = new HashMap<>();
+  private final Map<String, BitSet> rulesByPosTagPrefix = new HashMap<>();
+
+  public PatternRuleIndex(final List<T> rules) {
+    this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+    requirements = new TokenRequirement[rules.size()];
+    for (int i = 0; i < requirements.length; i++) {
+      final TokenRequirement requirement = rules.get(i).getTokenRequirement();
+      requirements[i] = requirement;
+      if (requirement == TokenRequirement.NONE) {
+        rulesWithoutRequirement.set(i);
+      } else if (requirement.getRequiredWords() != null) {
+        add(rulesByWord, requirement.getRequiredWords(), i);
+      } else {
+        add(rulesByPosTag, requirement.getRequiredPosTags(), i);
+        add(rulesByPosTagPrefix, requirement.getRequiredPosTagPrefixes(), i);
+      }
+    }
+  }
+
+  private static void add(final Map<String, BitSet> index, final Iterable<String> keys, final int rule) {
+    for (final String key : keys) {
+      BitSet ruleSet = index.get(key);
+      if (ruleSet == null) {
+        ruleSet = new BitSet();
+        index.put(key, ruleSet);
+      }
+      ruleSet.set(rule);
+    }
+  }
+
+  /**
+   * The rules in their original order.
+   */
+  public List<T> getRules() {
+    return rules;
+  }
+
+  /**
+   * Find the rules that may match the sentence.
+   */
+  public Candidates getCandidates(final AnalyzedSentence sentence) {
+    return new Candidates(sentence);
+  }
+
+  /**
+   * The rules that may match a sentence, updated with {@link #update(AnalyzedSentence)}
+   * when the sentence changes. Not thread-safe.
+   */
+  public final class Candidates {
+
+    private final BitSet candidates;
+    private TokenSet tokenSet;
+
+    private Candidates(final AnalyzedSentence sentence) {
+      tokenSet = new TokenSet(sentence);
+      candidates = (BitSet) rulesWithoutRequirement.clone();
+      for (final String word : tokenSet.getWords()) {
+        or(rulesByWord.get(word));
+      }
+      for (final String posTag : tokenSet.getPosTags()) {
+        or(rulesByPosTag.get(posTag));
+      }
+      for (final Map.Entry<String, BitSet> entry : rulesByPosTagPrefix.entrySet()) {
+        if (tokenSet.containsPosTagPrefix(entry.getKey())) {
+          candidates.or(entry.getValue());
+        }
+      }
+    }
+
+    /**
+     * @return the index of the first rule at or after {@code fromIndex} in {@link #getRules()}
+     *   that may match the sentence, or -1 if there is none
+     */
+    public int next(final int fromIndex) {
+      return candidates.nextSetBit(fromIndex);
+    }
+
+    /**
+     * Call this when the sentence has been changed, e.g. by a disambiguation rule.
+     * @param sentence the changed sentence
+     */
+    public void update(final AnalyzedSentence sentence) {
+      final TokenSet oldTokenSet = tokenSet;
+      tokenSet = new TokenSet(sentence);
+      final BitSet toCheck = new BitSet();
+      updateKeys(oldTokenSet.getWords(), tokenSet.getWords(), rulesByWord, toCheck);
+      updateKeys(oldTokenSet.getPosTags(), tokenSet.getPosTags(), rulesByPosTag, toCheck);
+      if (!rulesByPosTagPrefix.isEmpty()) {
+        for (final String posTag : tokenSet.getPosTags()) {
+          if (!oldTokenSet.containsPosTag(posTag)) {
+            updatePrefixes(posTag, toCheck, false);
+          }
+        }
+        for (final String posTag : oldTokenSet.getPosTags()) {
+          if (!tokenSet.containsPosTag(posTag)) {
+            updatePrefixes(posTag, toCheck, true);
+          }
+        }
+      }
+      // rules whose word or tag disappeared may still be satisfied by another one:
+      for (int i = toCheck.nextSetBit(0); i >= 0; i = toCheck.nextSetBit(i + 1)) {
+        candidates.set(i, requirements[i].isSatisfiedBy(tokenSet));
+      }
+    }
+
+    private void updateKeys(final Set<String> oldKeys, final Set<String> newKeys, final Map<String, BitSet> index,
+                            final BitSet toCheck) {
+      for (final String key : newKeys) {
+        if (!oldKeys.contains(key)) {
+          or(index.get(key));
+        }
+      }
+      for (final String key : oldKeys) {
+        if (!newKeys.contains(key)) {
+          final BitSet ruleSet = index.get(key);
+          if (ruleSet != null) {
+            toCheck.or(ruleSet);
+          }
+        }
+      }
+    }
+
+    private void updatePrefixes(final String posTag, final BitSet toCheck, final boolean removed) {
+      for (final Map.Entry<String, BitSet> entry : rulesByPosTagPrefix.entrySet()) {
+        if (posTag.startsWith(entry.getKey())) {
+          if (removed) {
+            toCheck.or(entry.getValue());
+          } else {
+            candidates.or(entry.getValue());
+          }
+        }
+      }
+    }
+
+    private void or(final BitSet ruleSet) {
+      if (ruleSet != null) {
+        candidates.or(ruleSet);
+      }
+    }
+
+  }
+
+}
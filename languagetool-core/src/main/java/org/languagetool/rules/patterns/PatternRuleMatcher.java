@@ -21,6 +21,7 @@ package org.languagetool.rules.patterns;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 import org.languagetool.AnalyzedSentence;
@@ -37,20 +38,40 @@ class PatternRuleMatcher extends AbstractPatternRulePerformer {
   private static final String SUGGESTION_START_TAG = "<suggestion>";
   private static final String SUGGESTION_END_TAG = "</suggestion>";
   private static final String MISTAKE = "<mistake/>";
+  private static final RuleMatch[] NO_MATCHES = new RuleMatch[0];
   
   private final boolean useList;
+  // reused by all calls of match(), so that nothing needs to be allocated if there's no match:
+  private final List<ElementMatcher> elementMatchers;
+  private int[] tokenPositions = new int[0];
 
+  /**
+   * The matcher keeps state between calls of {@link #match(AnalyzedSentence)}, so it
+   * must not be used by more than one thread at a time.
+   */
   PatternRuleMatcher(PatternRule rule, boolean useList) {
     super(rule, rule.getLanguage().getUnifier());
     this.useList = useList;
+    this.elementMatchers = createElementMatchers();
   }
 
   final RuleMatch[] match(final AnalyzedSentence text) throws IOException {
-    final List<ElementMatcher> elementMatchers = createElementMatchers();
-    final List<RuleMatch> ruleMatches = new ArrayList<>();
-    final AnalyzedTokenReadings[] tokens = text.getTokensWithoutWhitespace();
-    final int[] tokenPositions = new int[tokens.length + 1];
+    return match(text, null);
+  }
+
+  /**
+   * @param startPositions if not {@code null}, the only token positions at which a match may start,
+   *   i.e. the first element of the pattern must be known not to match at any other position
+   */
+  final RuleMatch[] match(final AnalyzedSentence text, final BitSet startPositions) throws IOException {
+    List<RuleMatch> ruleMatches = null;
+    final AnalyzedTokenReadings[] tokens = text.getTokensWithoutWhitespaceReadOnly();
+    final int[] tokenPositions = getTokenPositions(tokens.length + 1);
     final int patternSize = elementMatchers.size();
+    for (int k = 0; k < patternSize; k++) {
+      elementMatchers.get(k).reset();
+    }
+    prevMatched = false;
 
     /*for (ElementMatcher elementMatcher : elementMatchers) {
       System.out.println(elementMatcher.getElement() + " > " +  elementMatcher.getElement().isInsideMarker() + " "
@@ -63,6 +84,12 @@ class PatternRuleMatcher extends AbstractPatternRulePerformer {
     int i = 0;
     int minOccurCorrection = getMinOccurrenceCorrection();
     while (i < limit + minOccurCorrection && !(rule.sentStart && i > 0)) {
+      if (startPositions != null && !startPositions.get(i)) {
+        // leave the state as an attempt that fails at the first element would:
+        elem = elementMatchers.get(0);
+        i++;
+        continue;
+      }
       int skipShiftTotal = 0;
       boolean allElementsMatch = false;
       int firstMatchToken = -1;
@@ -139,18 +166,34 @@ class PatternRuleMatcher extends AbstractPatternRulePerformer {
         final RuleMatch ruleMatch = createRuleMatch(tokenPositions, tokens,
             firstMatchToken, lastMatchToken, firstMarkerMatchToken, lastMarkerMatchToken);
         if (ruleMatch != null) {
+          if (ruleMatches == null) {
+            ruleMatches = new ArrayList<>();
+          }
           ruleMatches.add(ruleMatch);
         }
       }
       i++;
     }
+    if (ruleMatches == null) {
+      return NO_MATCHES;
+    }
     return ruleMatches.toArray(new RuleMatch[ruleMatches.size()]);
   }
 
+  // a zero-filled array of at least the given size:
+  private int[] getTokenPositions(final int size) {
+    if (tokenPositions.length < size) {
+      tokenPositions = new int[size];
+    } else {
+      Arrays.fill(tokenPositions, 0);
+    }
+    return tokenPositions;
+  }
+
   private int getMinOccurrenceCorrection() {
     int minOccurCorrection = 0;
-    for (Element element : rule.getPatternElements()) {
-      if (element.getMinOccurrence() == 0) {
+    for (int k = 0; k < elementMatchers.size(); k++) {
+      if (elementMatchers.get(k).getElement().getMinOccurrence() == 0) {
         minOccurCorrection++;
       }
     }
@@ -275,7 +318,9 @@ class PatternRuleMatcher extends AbstractPatternRulePerformer {
    */
   private String formatMatches(final AnalyzedTokenReadings[] tokenReadings,
       final int[] positions, final int firstMatchTok, final String errorMsg,
-      final List<Match> suggestionMatches) throws IOException {
+      final List<Match> ruleSuggestionMatches) throws IOException {
+    // the rule is shared between threads, so work on a copy of its matches:
+    final List<Match> suggestionMatches = ruleSuggestionMatches != null ? new ArrayList<>(ruleSuggestionMatches) : null;
     String errorMessage = errorMsg;
     int matchCounter = 0;
     final int[] numbersToMatches = new int[errorMsg.length()];
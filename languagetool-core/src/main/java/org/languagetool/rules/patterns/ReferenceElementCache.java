@@ -0,0 +1,140 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+import org.languagetool.synthesis.Synthesizer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of elements compiled with {@link Element#compile(AnalyzedTokenReadings, Synthesizer)},
+ * so that the regular expressions of elements that refer to another token (and the synthesizer
+ * calls needed for them) are not created again each time the same word is referred to.
+ * The result of compiling only depends on the element and on the text, lemmas and POS tags of
+ * the referenced token, so these are used as the key. The least recently used entries are
+ * removed when the cache is full.
+ *
+ * <p><b>Thread-safety:</b> this class is thread-safe. The cached elements are shared
+ * and must not be modified.
+ */
+final class ReferenceElementCache {
+
+  private final Map<Key, Element> entries;
+
+  private long hitCount;
+  private long missCount;
+
+  ReferenceElementCache(final int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be > 0: " + maxSize);
+    }
+    entries = new LinkedHashMap<Key, Element>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Element> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Get the element compiled for the given token, compiling it if it's not in the cache.
+   */
+  Element getCompiled(final Element element, final AnalyzedTokenReadings token, final Synthesizer synth)
+          throws IOException {
+    final Key key = new Key(element, token, synth);
+    synchronized (this) {
+      final Element compiled = entries.get(key);
+      if (compiled != null) {
+        hitCount++;
+        return compiled;
+      }
+      missCount++;
+    }
+    // compile outside of the lock, if two threads do this at the same time the results are equal anyway:
+    final Element compiled = element.compile(token, synth);
+    synchronized (this) {
+      entries.put(key, compiled);
+    }
+    return compiled;
+  }
+
+  synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  synchronized long getMissCount() {
+    return missCount;
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  private static final class Key {
+
+    private final Element element;
+    private final Synthesizer synth;
+    private final String token;
+    private final String[] lemmasAndTags;
+    private final int hashCode;
+
+    private Key(final Element element, final AnalyzedTokenReadings token, final Synthesizer synth) {
+      this.element = element;
+      this.synth = synth;
+      this.token = token.getToken();
+      final int readingsLength = token.getReadingsLength();
+      lemmasAndTags = new String[readingsLength * 2];
+      for (int i = 0; i < readingsLength; i++) {
+        final AnalyzedToken reading = token.getAnalyzedToken(i);
+        lemmasAndTags[i * 2] = reading.getLemma();
+        lemmasAndTags[i * 2 + 1] = reading.getPOSTag();
+      }
+      hashCode = 31 * (31 * System.identityHashCode(element) + this.token.hashCode()) + Arrays.hashCode(lemmasAndTags);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) o;
+      // elements and synthesizers are compared by identity, each rule has its own elements:
+      return element == other.element && synth == other.synth && hashCode == other.hashCode
+              && token.equals(other.token) && Arrays.equals(lemmasAndTags, other.lemmasAndTags);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+}
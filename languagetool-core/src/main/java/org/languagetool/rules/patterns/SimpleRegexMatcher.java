@@ -0,0 +1,435 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A replacement for {@link java.util.regex.Pattern#matcher(CharSequence)}{@code .matches()}
+ * for the simple regular expressions that most rules use. Expressions that match only a
+ * limited number of strings, like {@code a|an|the}, {@code feux?} or {@code [Dd](ie|er|en)},
+ * are expanded to these strings, which are then looked up in a hash table. Expressions with
+ * {@code .*} or {@code .+}, like {@code NN.*} or {@code V.* 3 s}, are matched like wildcard
+ * patterns if there aren't too many of them. No {@link java.util.regex.Matcher} needs to be
+ * created, and the result is always the same as that of the regular expression. Only strings
+ * with characters outside the Basic Multilingual Plane may need the regular expression,
+ * as its {@code .} matches a pair of surrogate characters.
+ *
+ * <p><b>Thread-safety:</b> this class is immutable and thread-safe.
+ */
+final class SimpleRegexMatcher implements Serializable {
+
+  // the maximum number of strings an expression may be expanded to:
+  private static final int MAX_VARIANTS = 1000;
+  // the maximum number of wildcard patterns, as they need to be tested one after the other:
+  private static final int MAX_WILDCARD_VARIANTS = 8;
+
+  // special values in variants, all other values are characters:
+  private static final int ANY = -1;           // .
+  private static final int ANY_REPEATED = -2;  // .*
+
+  /** Literals in an open addressing hash table, case-folded if not case-sensitive. */
+  private final String[] literals;
+  private final int mask;
+  private final int[][] wildcardVariants;
+  private final boolean caseSensitive;
+  private final String regex;
+
+  private transient volatile Pattern pattern;
+
+  private SimpleRegexMatcher(final String regex, final List<int[]> variants, final boolean caseSensitive) {
+    this.regex = regex;
+    this.caseSensitive = caseSensitive;
+    final Set<String> literalSet = new LinkedHashSet<>();
+    final List<int[]> wildcards = new ArrayList<>();
+    for (int[] variant : variants) {
+      if (hasWildcard(variant)) {
+        wildcards.add(variant);
+      } else {
+        final StringBuilder sb = new StringBuilder(variant.length);
+        for (int c : variant) {
+          sb.append((char) c);
+        }
+        literalSet.add(sb.toString());
+      }
+    }
+    int tableSize = 2;
+    while (tableSize < literalSet.size() * 2) {
+      tableSize *= 2;
+    }
+    mask = tableSize - 1;
+    literals = literalSet.isEmpty() ? null : new String[tableSize];
+    for (String literal : literalSet) {
+      int i = literal.hashCode() & mask;
+      while (literals[i] != null) {
+        i = (i + 1) & mask;
+      }
+      literals[i] = literal;
+    }
+    wildcardVariants = wildcards.toArray(new int[wildcards.size()][]);
+  }
+
+  /**
+   * Create a matcher for the given regular expression, with the flags {@code (?iu)} if
+   * {@code caseSensitive} is false.
+   * @return a matcher, or {@code null} if the regular expression is not simple enough
+   */
+  static SimpleRegexMatcher create(final String regex, final boolean caseSensitive) {
+    final Parser parser = new Parser(regex, caseSensitive);
+    final List<int[]> variants = parser.parseAlternatives();
+    if (variants == null || parser.pos != regex.length()) {
+      return null;
+    }
+    int wildcardVariantCount = 0;
+    for (int[] variant : variants) {
+      if (hasWildcard(variant)) {
+        wildcardVariantCount++;
+      }
+    }
+    if (wildcardVariantCount > MAX_WILDCARD_VARIANTS) {
+      return null;
+    }
+    return new SimpleRegexMatcher(regex, variants, caseSensitive);
+  }
+
+  private static boolean hasWildcard(final int[] variant) {
+    for (int c : variant) {
+      if (c < 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether the complete string is matched, like {@link java.util.regex.Matcher#matches()}.
+   */
+  boolean matches(final String s) {
+    if (literals != null && containsLiteral(s)) {
+      return true;
+    }
+    if (wildcardVariants.length > 0) {
+      for (int i = 0; i < s.length(); i++) {
+        final char c = s.charAt(i);
+        if (isLineTerminator(c)) {
+          // not matched by '.' nor by any literal
+          return false;
+        }
+        if (Character.isSurrogate(c)) {
+          return getPattern().matcher(s).matches();
+        }
+      }
+      for (int[] variant : wildcardVariants) {
+        if (matchesWildcardVariant(s, variant)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean containsLiteral(final String s) {
+    // same as String.hashCode() of the folded string, but without creating that string:
+    int hash = 0;
+    for (int i = 0; i < s.length(); i++) {
+      hash = 31 * hash + fold(s.charAt(i));
+    }
+    int i = hash & mask;
+    String literal;
+    while ((literal = literals[i]) != null) {
+      if (literal.length() == s.length() && regionMatches(s, literal)) {
+        return true;
+      }
+      i = (i + 1) & mask;
+    }
+    return false;
+  }
+
+  private boolean regionMatches(final String s, final String foldedLiteral) {
+    for (int i = 0; i < foldedLiteral.length(); i++) {
+      if (fold(s.charAt(i)) != foldedLiteral.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // the usual wildcard matching, backtracking to the last '.*' only:
+  private boolean matchesWildcardVariant(final String s, final int[] variant) {
+    int i = 0;
+    int v = 0;
+    int repeatedPos = -1;
+    int repeatedMatchEnd = 0;
+    while (i < s.length()) {
+      if (v < variant.length && (variant[v] == ANY || variant[v] == fold(s.charAt(i)))) {
+        i++;
+        v++;
+      } else if (v < variant.length && variant[v] == ANY_REPEATED) {
+        repeatedPos = v++;
+        repeatedMatchEnd = i;
+      } else if (repeatedPos >= 0) {
+        v = repeatedPos + 1;
+        i = ++repeatedMatchEnd;
+      } else {
+        return false;
+      }
+    }
+    while (v < variant.length && variant[v] == ANY_REPEATED) {
+      v++;
+    }
+    return v == variant.length;
+  }
+
+  private char fold(final char c) {
+    return caseSensitive ? c : CaseFolding.fold(c);
+  }
+
+  private Pattern getPattern() {
+    if (pattern == null) {
+      pattern = Pattern.compile(caseSensitive ? regex : "(?iu)" + regex);
+    }
+    return pattern;
+  }
+
+  private static boolean isLineTerminator(final char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+
+  /**
+   * Expands a regular expression to the strings it matches, or to wildcard patterns.
+   * The parse methods return {@code null} if the expression is not simple enough.
+   */
+  private static final class Parser {
+
+    private final String regex;
+    private final boolean caseSensitive;
+    private int pos;
+
+    private Parser(final String regex, final boolean caseSensitive) {
+      this.regex = regex;
+      this.caseSensitive = caseSensitive;
+    }
+
+    private List<int[]> parseAlternatives() {
+      final List<int[]> result = new ArrayList<>();
+      while (true) {
+        final List<int[]> sequence = parseSequence();
+        if (sequence == null) {
+          return null;
+        }
+        result.addAll(sequence);
+        if (result.size() > MAX_VARIANTS) {
+          return null;
+        }
+        if (pos < regex.length() && regex.charAt(pos) == '|') {
+          pos++;
+        } else {
+          return result;
+        }
+      }
+    }
+
+    private List<int[]> parseSequence() {
+      List<int[]> result = Collections.singletonList(new int[0]);
+      while (pos < regex.length() && regex.charAt(pos) != '|' && regex.charAt(pos) != ')') {
+        List<int[]> atom = parseAtom();
+        if (atom == null) {
+          return null;
+        }
+        if (pos < regex.length()) {
+          final char quantifier = regex.charAt(pos);
+          if (quantifier == '?') {
+            pos++;
+            atom = new ArrayList<>(atom);
+            atom.add(new int[0]);
+          } else if (quantifier == '*' || quantifier == '+') {
+            if (atom.size() != 1 || atom.get(0).length != 1 || atom.get(0)[0] != ANY) {
+              return null;
+            }
+            pos++;
+            atom = Collections.singletonList(quantifier == '*' ? new int[] {ANY_REPEATED} : new int[] {ANY, ANY_REPEATED});
+          } else if (quantifier == '{') {
+            return null;
+          }
+          // lazy and possessive quantifiers:
+          if (pos < regex.length() && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+' || regex.charAt(pos) == '*')) {
+            return null;
+          }
+        }
+        result = concat(result, atom);
+        if (result == null) {
+          return null;
+        }
+      }
+      return result;
+    }
+
+    private List<int[]> parseAtom() {
+      final char c = regex.charAt(pos++);
+      switch (c) {
+        case '(':
+          if (regex.startsWith("?", pos)) {
+            if (!regex.startsWith("?:", pos)) {
+              return null;  // flags, look-arounds etc.
+            }
+            pos += 2;
+          }
+          final List<int[]> group = parseAlternatives();
+          if (group == null || pos >= regex.length() || regex.charAt(pos) != ')') {
+            return null;
+          }
+          pos++;
+          return group;
+        case '[':
+          return parseCharacterClass();
+        case '.':
+          return Collections.singletonList(new int[] {ANY});
+        case '\\':
+          final int escaped = parseEscaped();
+          return escaped < 0 ? null : literal((char) escaped);
+        default:
+          if ("^$*+?{}()[]|".indexOf(c) >= 0) {
+            return null;
+          }
+          return literal(c);
+      }
+    }
+
+    private List<int[]> parseCharacterClass() {
+      final List<int[]> result = new ArrayList<>();
+      if (pos < regex.length() && (regex.charAt(pos) == '^' || regex.charAt(pos) == ']')) {
+        return null;
+      }
+      while (pos < regex.length() && regex.charAt(pos) != ']') {
+        int c = regex.charAt(pos++);
+        if (c == '[' || c == '&') {
+          return null;  // nested classes and intersections
+        }
+        if (c == '\\') {
+          c = parseEscaped();
+          if (c < 0) {
+            return null;
+          }
+        }
+        if (pos + 1 < regex.length() && regex.charAt(pos) == '-' && regex.charAt(pos + 1) != ']') {
+          return null;  // ranges
+        }
+        // Pattern matches characters in classes differently from other characters
+        // if case-insensitive, so we only accept those where there's no difference:
+        if (!caseSensitive && (c >= 128 || "iIkKsS".indexOf(c) >= 0)) {
+          return null;
+        }
+        final List<int[]> member = literal((char) c);
+        if (member == null) {
+          return null;
+        }
+        result.addAll(member);
+      }
+      if (pos >= regex.length()) {
+        return null;
+      }
+      pos++;
+      return result;
+    }
+
+    private int parseEscaped() {
+      if (pos >= regex.length() || Character.isLetterOrDigit(regex.charAt(pos))) {
+        return -1;  // character classes, back references etc.
+      }
+      return regex.charAt(pos++);
+    }
+
+    private List<int[]> literal(final char c) {
+      if (Character.isSurrogate(c) || isLineTerminator(c)) {
+        return null;
+      }
+      if (caseSensitive) {
+        return Collections.singletonList(new int[] {c});
+      }
+      if (!CaseFolding.isSafe(c)) {
+        return null;
+      }
+      return Collections.singletonList(new int[] {CaseFolding.fold(c)});
+    }
+
+    private static List<int[]> concat(final List<int[]> prefixes, final List<int[]> suffixes) {
+      if (prefixes.size() * suffixes.size() > MAX_VARIANTS) {
+        return null;
+      }
+      final List<int[]> result = new ArrayList<>(prefixes.size() * suffixes.size());
+      for (int[] prefix : prefixes) {
+        for (int[] suffix : suffixes) {
+          final int[] variant = new int[prefix.length + suffix.length];
+          System.arraycopy(prefix, 0, variant, 0, prefix.length);
+          System.arraycopy(suffix, 0, variant, prefix.length, suffix.length);
+          result.add(variant);
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Case folding like that of {@link java.util.regex.Pattern} with the flags {@code (?iu)}.
+   * Depending on the expression, {@code Pattern} compares characters with different methods
+   * that may disagree for a few special characters, so an expression is only matched without
+   * {@code Pattern} if all its characters are safe, i.e. if all methods agree for them.
+   */
+  private static final class CaseFolding {
+
+    private static final BitSet FOLDED_MORE_THAN_ONCE = new BitSet(Character.MAX_VALUE + 1);
+
+    static {
+      final BitSet folded = new BitSet(Character.MAX_VALUE + 1);
+      for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+        final char f = fold((char) c);
+        if (folded.get(f)) {
+          FOLDED_MORE_THAN_ONCE.set(f);
+        }
+        folded.set(f);
+      }
+    }
+
+    private CaseFolding() {
+    }
+
+    static char fold(final char c) {
+      return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    static boolean isSafe(final char c) {
+      final char upper = Character.toUpperCase(c);
+      final char lower = Character.toLowerCase(upper);
+      if (upper != lower) {
+        // Pattern compares the folded characters, or tests for the lower case character first:
+        return fold(lower) == lower;
+      }
+      // Pattern compares characters without case exactly, or by their folded form:
+      return fold(c) == c && !FOLDED_MORE_THAN_ONCE.get(c);
+    }
+  }
+
+}
@@ -0,0 +1,204 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2005 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What a sentence needs to contain so that a pattern can match it: one of some words
+ * or lemmas, or one of some POS tags or POS tag prefixes. Taken from the one element
+ * of the pattern that needs to match and allows the fewest alternatives.
+ * @since 2.4
+ */
+final class TokenRequirement {
+
+  // characters with a special meaning in regular expressions, except '|':
+  private static final String REGEX_SPECIAL_CHARS = "\\[](){}.*+?^$";
+
+  /** Used for patterns without a requirement, satisfied by all sentences. */
+  static final TokenRequirement NONE = new TokenRequirement(null, null, null);
+
+  private final Set<String> words;
+  private final Set<String> posTags;
+  private final List<String> posTagPrefixes;
+
+  private TokenRequirement(Set<String> words, Set<String> posTags, List<String> posTagPrefixes) {
+    this.words = words;
+    this.posTags = posTags;
+    this.posTagPrefixes = posTagPrefixes;
+  }
+
+  /**
+   * @return the requirement of the pattern, or {@link #NONE} if none could be found
+   */
+  static TokenRequirement create(final List<Element> elements) {
+    TokenRequirement best = null;
+    for (final Element element : elements) {
+      if (element.getMinOccurrence() < 1) {
+        continue;
+      }
+      final TokenRequirement requirement = createForElement(element);
+      if (requirement != null && (best == null || requirement.isMoreSelectiveThan(best))) {
+        best = requirement;
+      }
+    }
+    return best != null ? best : NONE;
+  }
+
+  /** The normalized words one of which is required, or {@code null} if POS tags are required. */
+  Set<String> getRequiredWords() {
+    return words;
+  }
+
+  /** The POS tags one of which is required, unless a POS tag prefix is found, or {@code null} if words are required. */
+  Set<String> getRequiredPosTags() {
+    return posTags;
+  }
+
+  /** The prefixes of POS tags one of which is required, unless a POS tag is found, or {@code null} if words are required. */
+  List<String> getRequiredPosTagPrefixes() {
+    return posTagPrefixes;
+  }
+
+  boolean isSatisfiedBy(final TokenSet tokenSet) {
+    if (this == NONE) {
+      return true;
+    }
+    if (words != null) {
+      for (final String word : words) {
+        if (tokenSet.containsWord(word)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    for (final String posTag : posTags) {
+      if (tokenSet.containsPosTag(posTag)) {
+        return true;
+      }
+    }
+    for (final String prefix : posTagPrefixes) {
+      if (tokenSet.containsPosTagPrefix(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    if (this == NONE) {
+      return "none";
+    }
+    return words != null ? "words:" + words : "posTags:" + posTags + ",posTagPrefixes:" + posTagPrefixes;
+  }
+
+  private boolean isMoreSelectiveThan(final TokenRequirement other) {
+    if (words != null && other.words != null) {
+      return words.size() < other.words.size();
+    }
+    if (words != null || other.words != null) {
+      // words are much more selective than POS tags:
+      return words != null;
+    }
+    return posTags.size() + posTagPrefixes.size() < other.posTags.size() + other.posTagPrefixes.size();
+  }
+
+  // Note that OR groups are not considered: the loader creates one rule for each
+  // element of an OR group, and only the element itself is used for matching.
+  private static TokenRequirement createForElement(final Element element) {
+    final Set<String> words = getWords(element);
+    if (words != null) {
+      return new TokenRequirement(words, null, null);
+    }
+    final Set<String> posTags = new HashSet<>();
+    final List<String> posTagPrefixes = new ArrayList<>();
+    if (!addPosTags(element, posTags, posTagPrefixes)) {
+      return null;
+    }
+    return new TokenRequirement(null, posTags, posTagPrefixes);
+  }
+
+  /**
+   * Get the words one of which a token needs to be, ignoring case, to be matched by
+   * the element. Words are normalized with {@link TokenSet#normalize(String)}.
+   * @return the words, or {@code null} if the element doesn't only match a list of words
+   */
+  static Set<String> getWords(final Element element) {
+    final String string = element.getString();
+    if (string == null || string.isEmpty() || element.getNegation() || element.isReferenceElement()) {
+      return null;
+    }
+    final Set<String> words = new HashSet<>();
+    if (!element.isRegularExpression()) {
+      words.add(TokenSet.normalize(string));
+      return words;
+    }
+    // only a list of alternative words like "foo|bar" can be used:
+    for (final String part : string.split("\\|", -1)) {
+      if (part.isEmpty() || containsRegexSpecialChars(part)) {
+        return null;
+      }
+      words.add(TokenSet.normalize(part));
+    }
+    return words;
+  }
+
+  private static boolean addPosTags(final Element element, final Set<String> posTags, final List<String> posTagPrefixes) {
+    final String posTag = element.getPOStag();
+    if (posTag == null || posTag.isEmpty() || element.getPOSNegation() || element.getNegation()
+        || Element.UNKNOWN_TAG.equals(posTag)) {
+      return false;
+    }
+    if (!element.isPOStagRegularExpression()) {
+      posTags.add(posTag);
+      return true;
+    }
+    // only lists like "NN|VB.*" of tags and tag prefixes can be used:
+    final String[] parts = posTag.split("\\|", -1);
+    for (final String part : parts) {
+      final String literal = part.endsWith(".*") ? part.substring(0, part.length() - 2) : part;
+      // tokens without a POS tag can match UNKNOWN, but we only know the tags that exist:
+      if (literal.isEmpty() || containsRegexSpecialChars(literal) || Element.UNKNOWN_TAG.startsWith(literal)) {
+        return false;
+      }
+    }
+    for (final String part : parts) {
+      if (part.endsWith(".*")) {
+        posTagPrefixes.add(part.substring(0, part.length() - 2));
+      } else {
+        posTags.add(part);
+      }
+    }
+    return true;
+  }
+
+  private static boolean containsRegexSpecialChars(final String s) {
+    for (int i = 0; i < s.length(); i++) {
+      if (REGEX_SPECIAL_CHARS.indexOf(s.charAt(i)) != -1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
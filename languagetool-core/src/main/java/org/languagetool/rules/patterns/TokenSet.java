@@ -0,0 +1,94 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2005 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The words, lemmas and POS tags of a sentence, used to quickly find out
+ * which pattern rules cannot match the sentence, see {@link PatternRule#canMatch(TokenSet)}.
+ * @since 2.4
+ */
+public final class TokenSet {
+
+  private final Set<String> words = new HashSet<>();
+  private final Set<String> posTags = new HashSet<>();
+
+  public TokenSet(final AnalyzedSentence sentence) {
+    for (final AnalyzedTokenReadings tokenReadings : sentence.getTokensWithoutWhitespace()) {
+      words.add(normalize(tokenReadings.getToken()));
+      for (final AnalyzedToken token : tokenReadings) {
+        final String tokenString = token.getToken();
+        if (tokenString != null && !tokenString.equals(tokenReadings.getToken())) {
+          words.add(normalize(tokenString));
+        }
+        final String lemma = token.getTokenInflected();
+        if (lemma != null && !lemma.equals(tokenString)) {
+          words.add(normalize(lemma));
+        }
+        if (token.getPOSTag() != null) {
+          posTags.add(token.getPOSTag());
+        }
+      }
+    }
+  }
+
+  /**
+   * Brings a word to a form in which all words that are equal ignoring case are equal,
+   * in the sense of {@link String#equalsIgnoreCase(String)}.
+   */
+  static String normalize(final String word) {
+    final char[] chars = new char[word.length()];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = Character.toLowerCase(Character.toUpperCase(word.charAt(i)));
+    }
+    return new String(chars);
+  }
+
+  Set<String> getWords() {
+    return words;
+  }
+
+  Set<String> getPosTags() {
+    return posTags;
+  }
+
+  boolean containsWord(final String normalizedWord) {
+    return words.contains(normalizedWord);
+  }
+
+  boolean containsPosTag(final String posTag) {
+    return posTags.contains(posTag);
+  }
+
+  boolean containsPosTagPrefix(final String prefix) {
+    for (final String posTag : posTags) {
+      if (posTag.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -0,0 +1,202 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.spelling;
+
+import org.languagetool.tools.LruCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which words are misspelled and the suggestions for them, so that
+ * repeated words don't need to be looked up in the spelling dictionary again.
+ * There's one cache per dictionary, shared by all rules and threads using it,
+ * see {@link #getInstance(String)}. The cache is limited in size and removes the
+ * least recently used words first.
+ *
+ * <p><b>Thread-safety:</b> this class is thread-safe.
+ *
+ * @since 2.4
+ */
+public final class SpellingCache {
+
+  private static final int MISSPELLED_CACHE_SIZE = 10_000;
+  private static final int SUGGESTION_CACHE_SIZE = 1_000;
+
+  private static final ConcurrentMap<String, SpellingCache> instances = new ConcurrentHashMap<>();
+
+  private final String name;
+  private final LruCache<String, Boolean> misspelledCache = new LruCache<>(MISSPELLED_CACHE_SIZE);
+  private final LruCache<String, List<String>> suggestionCache = new LruCache<>(SUGGESTION_CACHE_SIZE);
+
+  private final AtomicLong misspelledHits = new AtomicLong();
+  private final AtomicLong misspelledMisses = new AtomicLong();
+  private final AtomicLong suggestionHits = new AtomicLong();
+  private final AtomicLong suggestionMisses = new AtomicLong();
+
+  private long version;  // guarded by this
+
+  /**
+   * Get the cache for a dictionary, creating it if it doesn't exist yet.
+   * @param name identifies the dictionary and everything else the results depend on,
+   *   e.g. the dictionary file and the locale used for converting to lowercase
+   */
+  public static SpellingCache getInstance(final String name) {
+    SpellingCache cache = instances.get(name);
+    if (cache == null) {
+      final SpellingCache newCache = new SpellingCache(name);
+      cache = instances.putIfAbsent(name, newCache);
+      if (cache == null) {
+        cache = newCache;
+      }
+    }
+    return cache;
+  }
+
+  private SpellingCache(final String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return whether the word is misspelled, or {@code null} if that's not known yet
+   */
+  public Boolean isMisspelled(final String word) {
+    final Boolean misspelled = misspelledCache.get(word);
+    if (misspelled == null) {
+      misspelledMisses.incrementAndGet();
+    } else {
+      misspelledHits.incrementAndGet();
+    }
+    return misspelled;
+  }
+
+  public void setMisspelled(final String word, final boolean misspelled) {
+    misspelledCache.put(word, misspelled);
+  }
+
+  /**
+   * @return a copy of the suggestions for the word that may be modified,
+   *   or {@code null} if they are not known yet
+   */
+  public List<String> getSuggestions(final String word) {
+    final List<String> suggestions = suggestionCache.get(word);
+    if (suggestions == null) {
+      suggestionMisses.incrementAndGet();
+      return null;
+    }
+    suggestionHits.incrementAndGet();
+    return new ArrayList<>(suggestions);
+  }
+
+  /**
+   * Remember the suggestions for a word. The list is copied, so the caller may
+   * still modify it.
+   */
+  public void setSuggestions(final String word, final List<String> suggestions) {
+    suggestionCache.put(word, Collections.unmodifiableList(new ArrayList<>(suggestions)));
+  }
+
+  /**
+   * Like {@link #getSuggestions(String)}, for caches whose results depend on a dictionary
+   * that may be modified while they are in use. All words are forgotten first if they
+   * have been stored for an older version of the dictionary.
+   * @param version the current version of the dictionary, versions must increase with each modification
+   */
+  public synchronized List<String> getSuggestions(final String word, final long version) {
+    if (version > this.version) {
+      clear();
+      this.version = version;
+    }
+    return getSuggestions(word);
+  }
+
+  /**
+   * Like {@link #setSuggestions(String, List)}, but the suggestions are not stored if
+   * the dictionary has been modified since they were created.
+   * @param version the version of the dictionary that the suggestions have been created with
+   * @see #getSuggestions(String, long)
+   */
+  public synchronized void setSuggestions(final String word, final List<String> suggestions, final long version) {
+    if (version > this.version) {
+      clear();
+      this.version = version;
+    }
+    if (version == this.version) {
+      setSuggestions(word, suggestions);
+    }
+  }
+
+  /**
+   * Forget all words, e.g. because the dictionary has been modified. This doesn't reset the statistics.
+   */
+  public void clear() {
+    misspelledCache.clear();
+    suggestionCache.clear();
+  }
+
+  public long getMisspelledHitCount() {
+    return misspelledHits.get();
+  }
+
+  public long getMisspelledMissCount() {
+    return misspelledMisses.get();
+  }
+
+  public long getSuggestionHitCount() {
+    return suggestionHits.get();
+  }
+
+  public long getSuggestionMissCount() {
+    return suggestionMisses.get();
+  }
+
+  /**
+   * @return the share of {@link #isMisspelled(String)} calls that found the word, between 0 and 1
+   */
+  public double getMisspelledHitRate() {
+    return getHitRate(misspelledHits.get(), misspelledMisses.get());
+  }
+
+  /**
+   * @return the share of {@link #getSuggestions(String)} calls that found the word, between 0 and 1
+   */
+  public double getSuggestionHitRate() {
+    return getHitRate(suggestionHits.get(), suggestionMisses.get());
+  }
+
+  private static double getHitRate(final long hits, final long misses) {
+    final long total = hits + misses;
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  @Override
+  public String toString() {
+    return name + ": misspelled hit rate " + getMisspelledHitRate()
+            + ", suggestion hit rate " + getSuggestionHitRate();
+  }
+
+}
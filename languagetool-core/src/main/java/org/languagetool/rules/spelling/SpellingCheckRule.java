@@ -56,6 +56,7 @@ public abstract class SpellingCheckRule extends Rule {
 
   private boolean wordsWithDotsPresent = false;
   private boolean considerIgnoreWords = true;
+  private volatile long configurationVersion;
 
   public SpellingCheckRule(final ResourceBundle messages, final Language language) {
     super(messages);
@@ -86,6 +87,7 @@ public abstract class SpellingCheckRule extends Rule {
    */
   public void addIgnoreTokens(List<String> tokens) {
     wordsToBeIgnored.addAll(tokens);
+    configurationChanged();
   }
 
   /**
@@ -93,6 +95,7 @@ public abstract class SpellingCheckRule extends Rule {
    */
   public void setConsiderIgnoreWords(boolean considerIgnoreWords) {
     this.considerIgnoreWords = considerIgnoreWords;
+    configurationChanged();
   }
 
   /**
@@ -105,6 +108,21 @@ public abstract class SpellingCheckRule extends Rule {
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
+    configurationChanged();
+  }
+
+  @Override
+  public long getConfigurationVersion() {
+    return configurationVersion;
+  }
+
+  /**
+   * To be called by subclasses when a setting changes that affects the matches,
+   * so that matches cached for the old setting are not used anymore.
+   * @since 2.4
+   */
+  protected void configurationChanged() {
+    configurationVersion++;
   }
 
   protected boolean ignoreToken(AnalyzedTokenReadings[] tokens, int idx) throws IOException {
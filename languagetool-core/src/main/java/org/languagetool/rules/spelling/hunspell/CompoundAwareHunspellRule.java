@@ -19,6 +19,7 @@
 package org.languagetool.rules.spelling.hunspell;
 
 import org.languagetool.Language;
+import org.languagetool.rules.spelling.SpellingCache;
 import org.languagetool.rules.spelling.morfologik.MorfologikSpeller;
 import org.languagetool.tokenizers.CompoundWordTokenizer;
 import org.languagetool.tools.StringTools;
@@ -37,6 +38,8 @@ public abstract class CompoundAwareHunspellRule extends HunspellRule {
   
   private final CompoundWordTokenizer wordSplitter;
   private final MorfologikSpeller morfoSpeller;
+
+  private volatile SpellingCache suggestionCache;
   
   public CompoundAwareHunspellRule(ResourceBundle messages, Language language, CompoundWordTokenizer wordSplitter, MorfologikSpeller morfoSpeller) {
     super(messages, language);
@@ -55,6 +58,57 @@ public abstract class CompoundAwareHunspellRule extends HunspellRule {
     if (needsInit) {
       init();
     }
+    final SpellingCache cache = getSuggestionCache();
+    // words may be added to the dictionary at any time, see Hunspell.Dictionary#addWord():
+    final long version = dictionary.getVersion();
+    List<String> suggestions = cache.getSuggestions(word, version);
+    if (suggestions == null) {
+      suggestions = findSuggestions(word);
+      cache.setSuggestions(word, suggestions, version);
+    }
+    return suggestions;
+  }
+
+  /**
+   * The cache of the suggestions of this rule, shared by all instances of the rule
+   * for the same language, e.g. to get its hit rate.
+   * @since 2.4
+   */
+  public SpellingCache getSuggestionCache() {
+    if (suggestionCache == null) {
+      suggestionCache = SpellingCache.getInstance("compound:" + getId() + ":" + language.getShortNameWithCountryAndVariant());
+    }
+    return suggestionCache;
+  }
+
+  /**
+   * Creates the candidates in ranked order, one group at a time, and stops as soon as
+   * there are enough correct ones, so that long compounds often don't need to be split.
+   */
+  private List<String> findSuggestions(String word) throws IOException {
+    final Set<String> seen = new HashSet<>();
+    final List<String> suggestions = new ArrayList<>();
+    addCorrectWords(getNoSplitCandidates(word), seen, suggestions);
+    if (suggestions.size() < MAX_SUGGESTIONS) {
+      final List<String> parts = new ArrayList<>(wordSplitter.tokenize(word));
+      final boolean[] misspelledParts = dictionary.misspelled(parts);
+      for (int partCount = 0; partCount < parts.size() && suggestions.size() < MAX_SUGGESTIONS; partCount++) {
+        if (misspelledParts[partCount]) {
+          addCorrectWords(getPartCandidates(parts, partCount), seen, suggestions);
+        }
+        // TODO: what if there's no misspelled parts like for Arbeitamt = Arbeit+Amt ??
+        // -> morfologik must be extended to return similar words even for known words
+      }
+    }
+    final List<String> sortedSuggestions = sortSuggestionByQuality(word, suggestions);
+    return sortedSuggestions.subList(0, Math.min(MAX_SUGGESTIONS, sortedSuggestions.size()));
+  }
+
+  protected List<String> sortSuggestionByQuality(String misspelling, List<String> suggestions) {
+    return suggestions;
+  }
+
+  private List<String> getNoSplitCandidates(String word) {
     final List<String> candidates = new ArrayList<>();
     
     final List<String> noSplitSuggestions = morfoSpeller.getSuggestions(word);
@@ -71,64 +125,52 @@ public abstract class CompoundAwareHunspellRule extends HunspellRule {
         pos = Math.min(pos + 2, candidates.size());
       }
     }
-
-    final Collection<String> parts = wordSplitter.tokenize(word);
-    int partCount = 0;
-    for (String part : parts) {
-      if (dictionary.misspelled(part)) {
-        List<String> suggestions = morfoSpeller.getSuggestions(part);
-        if (suggestions.size() == 0) {
-          suggestions = morfoSpeller.getSuggestions(StringTools.uppercaseFirstChar(part));
-        }
-        for (String suggestion : suggestions) {
-          final List<String> partsCopy = new ArrayList<>(parts);
-          partsCopy.set(partCount, suggestion);
-          candidates.add(StringTools.listToString(partsCopy, ""));
-        }
-      }
-      // TODO: what if there's no misspelled parts like for Arbeitamt = Arbeit+Amt ??
-      // -> morfologik must be extended to return similar words even for known words
-      partCount++;
-    }
-    filterDupes(candidates);
-    final List<String> suggestions = getCorrectWords(candidates);
-    final List<String> sortedSuggestions = sortSuggestionByQuality(word, suggestions);
-    return sortedSuggestions.subList(0, Math.min(MAX_SUGGESTIONS, sortedSuggestions.size()));
+    return candidates;
   }
 
-  protected List<String> sortSuggestionByQuality(String misspelling, List<String> suggestions) {
-    return suggestions;
+  private List<String> getPartCandidates(List<String> parts, int partCount) {
+    final String part = parts.get(partCount);
+    List<String> suggestions = morfoSpeller.getSuggestions(part);
+    if (suggestions.size() == 0) {
+      suggestions = morfoSpeller.getSuggestions(StringTools.uppercaseFirstChar(part));
+    }
+    final List<String> candidates = new ArrayList<>();
+    for (String suggestion : suggestions) {
+      final List<String> partsCopy = new ArrayList<>(parts);
+      partsCopy.set(partCount, suggestion);
+      candidates.add(StringTools.listToString(partsCopy, ""));
+    }
+    return candidates;
   }
 
-  private void filterDupes(List<String> words) {
-    final Set<String> seen = new HashSet<>();
-    final Iterator<String> iterator = words.iterator();
-    while (iterator.hasNext()) {
-      final String word = iterator.next();
-      if (seen.contains(word)) {
-        iterator.remove();
+  /**
+   * Add those candidates to the result that haven't been seen before and are correct.
+   * All words of the candidates are checked with one call to the dictionary.
+   */
+  private void addCorrectWords(List<String> candidates, Set<String> seen, List<String> result) {
+    final List<String> newCandidates = new ArrayList<>();
+    final List<String[]> candidateWords = new ArrayList<>();
+    final List<String> allWords = new ArrayList<>();
+    for (String candidate : candidates) {
+      if (seen.add(candidate)) {
+        // this might be a phrase like "aufgrund dessen", so it needs to be split: 
+        final String[] words = tokenizeText(candidate);
+        newCandidates.add(candidate);
+        candidateWords.add(words);
+        allWords.addAll(Arrays.asList(words));
       }
-      seen.add(word);
     }
-  }
-  
-  private List<String> getCorrectWords(List<String> wordsOrPhrases) {
-    final List<String> result = new ArrayList<>();
-    for (String wordOrPhrase : wordsOrPhrases) {
-      // this might be a phrase like "aufgrund dessen", so it needs to be split: 
-      final String[] words = tokenizeText(wordOrPhrase);
+    final boolean[] misspelled = dictionary.misspelled(allWords);
+    int wordIndex = 0;
+    for (int i = 0; i < newCandidates.size(); i++) {
       boolean wordIsOkay = true;
-      for (String word : words) {
-        if (dictionary.misspelled(word)) {
-          wordIsOkay = false;
-          break;
-        }
+      for (int j = 0; j < candidateWords.get(i).length; j++) {
+        wordIsOkay &= !misspelled[wordIndex++];
       }
       if (wordIsOkay) {
-        result.add(wordOrPhrase);
+        result.add(newCandidates.get(i));
       }
     }
-    return result;
   }
 
 }
@@ -6,23 +6,35 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.sun.jna.Native;
 import com.sun.jna.Pointer;
 import com.sun.jna.ptr.PointerByReference;
+import org.languagetool.rules.spelling.SpellingCache;
 
 /**
  * The simple hunspell library frontend which takes care of creating
  * and singleton'ing the library instance (no need to load it more than once
  * per process).
  *
+ * This class and its dictionaries are thread-safe: a dictionary is loaded only once
+ * and shared, and the native calls for one dictionary are made by one thread at a time.
+ *
  * The Hunspell java bindings are licensed under the same terms as Hunspell itself (GPL/LGPL/MPL tri-license),
  * see the file COPYING.txt in the root of the distribution for the exact terms.
  *
@@ -36,6 +48,11 @@ public class Hunspell {
      */
     private static Hunspell hunspell = null;
 
+    /**
+     * Creates the versions of the dictionaries, see {@link Dictionary#getVersion()}.
+     */
+    private static final AtomicLong dictionaryVersions = new AtomicLong();
+
     /**
      * The native library instance, created by JNA.
      */
@@ -60,7 +77,7 @@ public class Hunspell {
      *
      * @param libDir Optional absolute directory where the native lib can be found. 
      */
-    public static Hunspell getInstance(String libDir) throws UnsatisfiedLinkError, UnsupportedOperationException { 
+    public static synchronized Hunspell getInstance(String libDir) throws UnsatisfiedLinkError, UnsupportedOperationException { 
         if (hunspell != null) {
             return hunspell;
         }
@@ -198,7 +215,7 @@ public class Hunspell {
     /**
      * This is the cache where we keep the already loaded dictionaries around
      */
-    private HashMap<String, Dictionary> map = new HashMap<>();
+    private final ConcurrentMap<String, Dictionary> map = new ConcurrentHashMap<>();
 
     
     private static CharBuffer ensureCapacity(CharBuffer buffer, int capacity) {
@@ -220,12 +237,17 @@ public class Hunspell {
             throws IOException {
 
         // TODO: Detect if the dictionary files have changed and reload if they have.
-        if (map.containsKey(baseFileName)) {
-            return map.get(baseFileName);
-
-        } else {
-            Dictionary d = new Dictionary(baseFileName);
-            map.put(baseFileName, d);
+        Dictionary d = map.get(baseFileName);
+        if (d != null) {
+            return d;
+        }
+        // lock so that two threads don't load the same native dictionary:
+        synchronized (map) {
+            d = map.get(baseFileName);
+            if (d == null) {
+                d = new Dictionary(baseFileName);
+                map.put(baseFileName, d);
+            }
             return d;
         }
     }   
@@ -237,15 +259,21 @@ public class Hunspell {
      * getDictionary()
      */
     public void destroyDictionary(String baseFileName) {
-        if (map.containsKey(baseFileName)) {
-            map.remove(baseFileName);
-        }
+        map.remove(baseFileName);
     }
 
     /**
      * Class representing a single dictionary.
+     *
+     * The native hunspell object is not thread-safe, so all calls to it are made while
+     * holding the lock of this dictionary. The results of {@link #misspelled(String)} and
+     * {@link #suggest(String)} are cached, so frequent words don't need a native call.
+     * Results are only stored in the cache while holding the lock, like the cache is only
+     * cleared while holding it, so a result from before {@link #addWord(String)} can't be
+     * stored after the cache has been cleared.
      */
     public class Dictionary {
+
         /**
          * The pointer to the hunspell object as returned by the hunspell
          * constructor.
@@ -257,6 +285,22 @@ public class Hunspell {
          */
         private String encoding;
 
+        /**
+         * Encodes words for the native calls, or null if Java doesn't support the
+         * encoding of the dictionary. Guarded by this, like encoderOutput.
+         */
+        private CharsetEncoder encoder;
+        private byte[] encoderOutput = new byte[64];
+
+        private final SpellingCache cache;
+        private volatile long version = dictionaryVersions.incrementAndGet();
+
+        // statistics of the native calls, guarded by this:
+        private long spellCallCount;
+        private long spellCallNanos;
+        private long suggestCallCount;
+        private long suggestCallNanos;
+
         /*
          * the tokenization characters
          */
@@ -287,13 +331,25 @@ public class Hunspell {
                 encoding = "ISCII91";
             }
 
+            try {
+                encoder = Charset.forName(encoding).newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                encoder = null;
+            }
+
             wordChars = getWordCharsFromFile(aff);
+
+            cache = SpellingCache.getInstance("hunspell:" + baseFileName);
+            // words might have been added to a previous instance of this dictionary:
+            cache.clear();
         }
 
         /**
          * Deallocate the dictionary.
          */
-        public void destroy() {
+        public synchronized void destroy() {
             if (hsl != null && hunspellDict != null) {
                 hsl.Hunspell_destroy(hunspellDict);
                 hunspellDict = null;
@@ -315,15 +371,85 @@ public class Hunspell {
          * @param word The word to check.
          */
         public boolean misspelled(String word) {
-            try {
-                final byte[] wordAsBytes = stringToBytes(word);
-                if (wordAsBytes.length == 0 && word.length() > 0) {
-                    return true;
+            final Boolean cached = cache.isMisspelled(word);
+            if (cached != null) {
+                return cached;
+            }
+            synchronized (this) {
+                final boolean misspelled = spell(word);
+                cache.setMisspelled(word, misspelled);
+                return misspelled;
+            }
+        }
+
+        /**
+         * Check if words are spelled correctly. For the words that are not in the cache,
+         * the lock of the dictionary is only acquired once, so this is faster than calling
+         * {@link #misspelled(String)} for each word of a sentence.
+         *
+         * @param words The words to check.
+         * @return for each word, whether it is misspelled
+         * @since 2.4
+         */
+        public boolean[] misspelled(List<String> words) {
+            final boolean[] result = new boolean[words.size()];
+            final Boolean[] cached = new Boolean[result.length];
+            boolean allCached = true;
+            for (int i = 0; i < result.length; i++) {
+                cached[i] = cache.isMisspelled(words.get(i));
+                allCached &= cached[i] != null;
+            }
+            if (!allCached) {
+                synchronized (this) {
+                    for (int i = 0; i < result.length; i++) {
+                        if (cached[i] == null) {
+                            result[i] = spell(words.get(i));
+                            cache.setMisspelled(words.get(i), result[i]);
+                        }
+                    }
                 }
-                return (hsl.Hunspell_spell(hunspellDict, wordAsBytes) == 0);
-            } catch (UnsupportedEncodingException e) {
+            }
+            for (int i = 0; i < result.length; i++) {
+                if (cached[i] != null) {
+                    result[i] = cached[i];
+                }
+            }
+            return result;
+        }
+
+        // Must be called while holding the lock of this dictionary.
+        private boolean spell(String word) {
+            final byte[] wordAsBytes = encode(word);
+            if (wordAsBytes == null) {
                 return true;
             }
+            final long startTime = System.nanoTime();
+            final int result = hsl.Hunspell_spell(hunspellDict, wordAsBytes);
+            spellCallNanos += System.nanoTime() - startTime;
+            spellCallCount++;
+            return result == 0;
+        }
+
+        /**
+         * Encode a word as a zero terminated byte array, like {@link #stringToBytes(String)},
+         * but into an array that is reused for the next word. Must be called while holding
+         * the lock of this dictionary.
+         * @return the array, or null if the encoding of the dictionary is not supported
+         */
+        private byte[] encode(String str) {
+            if (encoder == null) {
+                return null;
+            }
+            final int maxLength = (int) Math.ceil(str.length() * encoder.maxBytesPerChar()) + 1;
+            if (encoderOutput.length < maxLength) {
+                encoderOutput = new byte[Math.max(maxLength, encoderOutput.length * 2)];
+            }
+            final ByteBuffer out = ByteBuffer.wrap(encoderOutput);
+            encoder.reset();
+            encoder.encode(CharBuffer.wrap(str), out, true);
+            encoder.flush(out);
+            encoderOutput[out.position()] = 0;
+            return encoderOutput;
         }
 
         /**
@@ -344,16 +470,31 @@ public class Hunspell {
          * @throws CharacterCodingException 
          */
         public List<String> suggest(String word) throws CharacterCodingException {
+            List<String> res = cache.getSuggestions(word);
+            if (res == null) {
+                synchronized (this) {
+                    res = nativeSuggest(word);
+                    cache.setSuggestions(word, res);
+                }
+            }
+            return res;
+        }
+
+        // Must be called while holding the lock of this dictionary.
+        private List<String> nativeSuggest(String word) {
             List<String> res = new ArrayList<>();
             try {		
                 int suggestionsCount = 0;
                 PointerByReference suggestions = new PointerByReference();
-                final byte[] wordAsBytes = stringToBytes(word);
-                if (wordAsBytes.length == 0 && word.length() > 0) {
+                final byte[] wordAsBytes = encode(word);
+                if (wordAsBytes == null) {
                     return res;
                 }
+                final long startTime = System.nanoTime();
                 suggestionsCount = hsl.Hunspell_suggest(
-                        hunspellDict, suggestions, stringToBytes(word));
+                        hunspellDict, suggestions, wordAsBytes);
+                suggestCallNanos += System.nanoTime() - startTime;
+                suggestCallCount++;
                 if (suggestionsCount == 0) {
                     return res;
                 }
@@ -399,7 +540,65 @@ public class Hunspell {
          * @throws UnsupportedEncodingException
          */
         public void addWord(final String word) throws UnsupportedEncodingException {
-            hsl.Hunspell_add(hunspellDict, stringToBytes(word));
+            synchronized (this) {
+                if (!spell(word)) {
+                    // already known, e.g. added by another rule using the same dictionary
+                    return;
+                }
+                hsl.Hunspell_add(hunspellDict, stringToBytes(word));
+                cache.clear();
+                version = dictionaryVersions.incrementAndGet();
+            }
+        }
+
+        /**
+         * Changes whenever a word is added, and is different for a dictionary that has been
+         * loaded again, so that caches of results that depend on this dictionary can use
+         * {@link SpellingCache#getSuggestions(String, long)} to forget outdated results.
+         * @since 2.4
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * The cache of spelling results of this dictionary, e.g. to get its hit rate.
+         * @since 2.4
+         */
+        public SpellingCache getCache() {
+            return cache;
+        }
+
+        /**
+         * The number of native calls that checked if a word is misspelled.
+         * @since 2.4
+         */
+        public synchronized long getSpellCallCount() {
+            return spellCallCount;
+        }
+
+        /**
+         * The total time of the native calls that checked if a word is misspelled, in nanoseconds.
+         * @since 2.4
+         */
+        public synchronized long getSpellCallNanos() {
+            return spellCallNanos;
+        }
+
+        /**
+         * The number of native calls that created suggestions.
+         * @since 2.4
+         */
+        public synchronized long getSuggestCallCount() {
+            return suggestCallCount;
+        }
+
+        /**
+         * The total time of the native calls that created suggestions, in nanoseconds.
+         * @since 2.4
+         */
+        public synchronized long getSuggestCallNanos() {
+            return suggestCallNanos;
         }
                 
     }
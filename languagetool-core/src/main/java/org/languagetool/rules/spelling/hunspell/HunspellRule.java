@@ -37,6 +37,7 @@ import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.rules.Category;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.SuggestionProvider;
 import org.languagetool.rules.spelling.SpellingCheckRule;
 import org.languagetool.tools.StringTools;
 
@@ -86,27 +87,38 @@ public class HunspellRule extends SpellingCheckRule {
     }
     final String[] tokens = tokenizeText(getSentenceTextWithoutUrls(text));
 
+    // check all words of the sentence with one call, so the dictionary is locked only once:
+    final boolean[] checkable = new boolean[tokens.length];
+    final List<String> wordsToCheck = new ArrayList<>(tokens.length);
+    for (int i = 0; i < tokens.length; i++) {
+      checkable[i] = isCheckable(tokens[i]);
+      if (checkable[i]) {
+        wordsToCheck.add(tokens[i]);
+      }
+    }
+    final boolean[] misspelled = dictionary.misspelled(wordsToCheck);
+
     // starting with the first token to skip the zero-length START_SENT
     int len = text.getTokens()[1].getStartPos();
-    for (final String word : tokens) {
-      if (ignoreWord(word)) {
-        len += word.length() + 1;
-        continue;
-      }
-      boolean isAlphabetic = true;
-      if (word.length() == 1) { // hunspell dictionaries usually do not contain punctuation
-        isAlphabetic = StringTools.isAlphabetic(word.charAt(0));
-      }
-      if (isAlphabetic && !word.equals("--") && dictionary.misspelled(word)) {
-        final RuleMatch ruleMatch = new RuleMatch(this,
-                len, len + word.length(),
-                messages.getString("spelling"),
-                messages.getString("desc_spelling_short"));
-        final List<String> suggestions = getSuggestions(word);
-        if (suggestions != null) {
-          ruleMatch.setSuggestedReplacements(suggestions);
+    int checkedIndex = 0;
+    for (int i = 0; i < tokens.length; i++) {
+      final String word = tokens[i];
+      if (checkable[i]) {
+        if (misspelled[checkedIndex]) {
+          final RuleMatch ruleMatch = new RuleMatch(this,
+                  len, len + word.length(),
+                  messages.getString("spelling"),
+                  messages.getString("desc_spelling_short"));
+          ruleMatch.setLazySuggestedReplacements(new SuggestionProvider() {
+            @Override
+            public List<String> getSuggestions() throws IOException {
+              final List<String> suggestions = HunspellRule.this.getSuggestions(word);
+              return suggestions != null ? suggestions : new ArrayList<String>();
+            }
+          });
+          ruleMatches.add(ruleMatch);
         }
-        ruleMatches.add(ruleMatch);
+        checkedIndex++;
       }
       len += word.length() + 1;
     }
@@ -114,6 +126,16 @@ public class HunspellRule extends SpellingCheckRule {
     return toRuleMatchArray(ruleMatches);
   }
 
+  private boolean isCheckable(String word) throws IOException {
+    if (ignoreWord(word)) {
+      return false;
+    }
+    if (word.length() == 1) { // hunspell dictionaries usually do not contain punctuation
+      return StringTools.isAlphabetic(word.charAt(0));
+    }
+    return !word.equals("--");
+  }
+
   public List<String> getSuggestions(String word) throws IOException {
     if (needsInit) {
       init();
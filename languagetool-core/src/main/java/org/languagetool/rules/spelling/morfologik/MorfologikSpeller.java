@@ -19,25 +19,29 @@
 package org.languagetool.rules.spelling.morfologik;
 
 import morfologik.speller.Speller;
-import morfologik.stemming.Dictionary;
 import org.languagetool.JLanguageTool;
+import org.languagetool.rules.spelling.SpellingCache;
 import org.languagetool.rules.spelling.SpellingCheckRule;
 import org.languagetool.tools.StringTools;
 
 import java.io.IOException;
-import java.net.URL;
 import java.nio.charset.CharacterCodingException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
 /**
- * Morfologik-based spell checker.
+ * Morfologik-based spell checker. The results are cached in a {@link SpellingCache}
+ * that is shared by all spellers using the same dictionary and settings.
+ *
+ * <p><b>Thread-safety:</b> this class is thread-safe. The underlying morfologik speller
+ * is not, so it's only used by one thread at a time.
  */
 public class MorfologikSpeller {
 
   private final Speller speller;
   private final Locale conversionLocale;
+  private final SpellingCache cache;
 
   /**
    * Creates a speller with the given maximum edit distance.
@@ -48,9 +52,9 @@ public class MorfologikSpeller {
     if (maxEditDistance <= 0) {
       throw new RuntimeException("maxEditDistance must be > 0: " + maxEditDistance);
     }
-    final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(filename);
-    speller = new Speller(Dictionary.read(url), maxEditDistance);
+    speller = new Speller(JLanguageTool.getDataBroker().getFromResourceDirAsDictionary(filename), maxEditDistance);
     this.conversionLocale = conversionLocale != null ? conversionLocale : Locale.getDefault();
+    cache = SpellingCache.getInstance("morfologik:" + filename + ":" + this.conversionLocale + ":" + maxEditDistance);
   }
 
   /**
@@ -75,25 +79,55 @@ public class MorfologikSpeller {
     if (word.length() == 1) { // dictionaries usually do not contain punctuation
       isAlphabetic = StringTools.isAlphabetic(word.charAt(0));
     }
-    return word.length() > 0 && isAlphabetic
-            && !containsDigit(word)
-            && !SpellingCheckRule.LANGUAGETOOL.equals(word)
-            && !SpellingCheckRule.LANGUAGETOOL_FX.equals(word)
-            && !speller.isInDictionary(word)
-            && !(!StringTools.isMixedCase(word) 
-                && speller.isInDictionary(word.toLowerCase(conversionLocale)));
+    if (word.length() == 0 || !isAlphabetic
+            || containsDigit(word)
+            || SpellingCheckRule.LANGUAGETOOL.equals(word)
+            || SpellingCheckRule.LANGUAGETOOL_FX.equals(word)) {
+      return false;
+    }
+    final Boolean cached = cache.isMisspelled(word);
+    if (cached != null) {
+      return cached;
+    }
+    final boolean misspelled;
+    synchronized (speller) {
+      misspelled = !speller.isInDictionary(word)
+              && !(!StringTools.isMixedCase(word)
+                  && speller.isInDictionary(word.toLowerCase(conversionLocale)));
+    }
+    cache.setMisspelled(word, misspelled);
+    return misspelled;
   }
 
   public List<String> getSuggestions(String word) {
+    List<String> suggestions = cache.getSuggestions(word);
+    if (suggestions == null) {
+      suggestions = findSuggestions(word);
+      cache.setSuggestions(word, suggestions);
+    }
+    return suggestions;
+  }
+
+  /**
+   * The cache of spelling results used by this speller, e.g. to get its hit rate.
+   * @since 2.4
+   */
+  public SpellingCache getCache() {
+    return cache;
+  }
+
+  private List<String> findSuggestions(String word) {
     final List<String> suggestions = new ArrayList<>();
-    try {
-      suggestions.addAll(speller.findReplacements(word));
-      if (suggestions.isEmpty() && !word.toLowerCase(conversionLocale).equals(word)) {
-        suggestions.addAll(speller.findReplacements(word.toLowerCase(conversionLocale)));
+    synchronized (speller) {
+      try {
+        suggestions.addAll(speller.findReplacements(word));
+        if (suggestions.isEmpty() && !word.toLowerCase(conversionLocale).equals(word)) {
+          suggestions.addAll(speller.findReplacements(word.toLowerCase(conversionLocale)));
+        }
+        suggestions.addAll(speller.replaceRunOnWords(word));
+      } catch (CharacterCodingException e) {
+        throw new RuntimeException(e);
       }
-      suggestions.addAll(speller.replaceRunOnWords(word));
-    } catch (CharacterCodingException e) {
-      throw new RuntimeException(e);
     }
     return suggestions;
   }
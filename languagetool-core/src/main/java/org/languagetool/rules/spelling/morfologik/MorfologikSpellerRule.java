@@ -34,6 +34,7 @@ import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.rules.Category;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.SuggestionProvider;
 import org.languagetool.rules.spelling.SpellingCheckRule;
 
 public abstract class MorfologikSpellerRule extends SpellingCheckRule {
@@ -66,6 +67,7 @@ public abstract class MorfologikSpellerRule extends SpellingCheckRule {
 
   public void setLocale(Locale locale) {
     conversionLocale = locale;
+    configurationChanged();
   }
 
   /**
@@ -74,6 +76,7 @@ public abstract class MorfologikSpellerRule extends SpellingCheckRule {
    */
   public void setIgnoreTaggedWords() {
     ignoreTaggedWords = true;
+    configurationChanged();
   }
 
   @Override
@@ -142,11 +145,17 @@ public abstract class MorfologikSpellerRule extends SpellingCheckRule {
         ruleMatches.add(ruleMatch);
         return ruleMatches;
       }
-      List<String> suggestions = speller.getSuggestions(word);
-      suggestions = getAdditionalSuggestions(suggestions, word);
-      if (!suggestions.isEmpty()) {
-        ruleMatch.setSuggestedReplacements(orderSuggestions(suggestions,word));
-      }
+      ruleMatch.setLazySuggestedReplacements(new SuggestionProvider() {
+        @Override
+        public List<String> getSuggestions() {
+          List<String> suggestions = speller.getSuggestions(word);
+          suggestions = getAdditionalSuggestions(suggestions, word);
+          if (suggestions.isEmpty()) {
+            return suggestions;
+          }
+          return orderSuggestions(suggestions, word);
+        }
+      });
       ruleMatches.add(ruleMatch);
     }
     return ruleMatches;
@@ -19,8 +19,8 @@
 package org.languagetool.synthesis;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -32,14 +32,22 @@ import morfologik.stemming.WordData;
 
 import org.languagetool.AnalyzedToken;
 import org.languagetool.JLanguageTool;
+import org.languagetool.tools.LruCache;
 
 public class BaseSynthesizer implements Synthesizer {
 
+  private static final int FORM_CACHE_SIZE = 10_000;
+
   protected List<String> possibleTags;
 
   private final String tagFileName;
   private final String resourceFileName;
 
+  // DictionaryLookup is not thread-safe, but can be reused by the same thread:
+  private final ThreadLocal<IStemmer> stemmers = new ThreadLocal<>();
+  // the forms that the dictionary has for frequent lemma and tag combinations:
+  private final LruCache<String, String[]> formCache = new LruCache<>(FORM_CACHE_SIZE);
+
   private Dictionary dictionary;
 
   /**
@@ -61,8 +69,7 @@ public class BaseSynthesizer implements Synthesizer {
     if (this.dictionary == null) {
       synchronized (this) {
         if (this.dictionary == null) {
-          final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(resourceFileName);
-          this.dictionary = Dictionary.read(url);
+          this.dictionary = JLanguageTool.getDataBroker().getFromResourceDirAsDictionary(resourceFileName);
         }
       }
     }
@@ -84,6 +91,22 @@ public class BaseSynthesizer implements Synthesizer {
     }   
   }
   
+  /**
+   * Get the {@link IStemmer} of the current thread, which is created with {@link #createStemmer()}
+   * on first use. The result must not be shared among threads. Note that the list returned by
+   * {@link IStemmer#lookup(CharSequence)} is only valid until the next lookup.
+   * 
+   * @since 2.4
+   */
+  protected IStemmer getStemmer() {
+    IStemmer stemmer = stemmers.get();
+    if (stemmer == null) {
+      stemmer = createStemmer();
+      stemmers.set(stemmer);
+    }
+    return stemmer;
+  }
+
   /**
    * Lookup the inflected forms of a lemma defined by a part-of-speech tag.
    * @param lemma the lemma to be inflected.
@@ -91,13 +114,17 @@ public class BaseSynthesizer implements Synthesizer {
    * @param results the list to collect the inflected forms.
    */
   protected void lookup(String lemma, String posTag, List<String> results) {
-    // TODO: add IStemmer to the signature of lookup() so it mustn't be re-created every single lookup.
-    final IStemmer stemmer = createStemmer();
-    final List<WordData> wordForms = stemmer.lookup(lemma + "|" + posTag);
-    
-    for (WordData wd : wordForms) {
-      results.add(wd.getStem().toString());
+    final String key = lemma + "|" + posTag;
+    String[] forms = formCache.get(key);
+    if (forms == null) {
+      final List<WordData> wordForms = getStemmer().lookup(key);
+      forms = new String[wordForms.size()];
+      for (int i = 0; i < forms.length; i++) {
+        forms[i] = wordForms.get(i).getStem().toString();
+      }
+      formCache.put(key, forms);
     }
+    Collections.addAll(results, forms);
   }
   
   /**
@@ -19,7 +19,6 @@
 package org.languagetool.tagging;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -32,6 +31,7 @@ import morfologik.stemming.WordData;
 import org.languagetool.AnalyzedToken;
 import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.JLanguageTool;
+import org.languagetool.tools.LruCache;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -41,11 +41,18 @@ import org.languagetool.tools.StringTools;
  */
 public abstract class BaseTagger implements Tagger {
 
+  private static final int WORD_CACHE_SIZE = 10_000;
+
   protected Locale conversionLocale = Locale.getDefault();
 
   private boolean tagLowercaseWithUppercase = true;
   private Dictionary dictionary;
 
+  // DictionaryLookup is not thread-safe, but can be reused by the same thread:
+  private final ThreadLocal<IStemmer> stemmers = new ThreadLocal<>();
+  // the readings that the dictionary has for frequent words:
+  private final LruCache<String, String[]> wordCache = new LruCache<>(WORD_CACHE_SIZE);
+
   /**
    * Get the filename, e.g., <tt>/resource/fr/french.dict</tt>.
    */
@@ -53,58 +60,43 @@ public abstract class BaseTagger implements Tagger {
 
   public void setLocale(Locale locale) {
     conversionLocale = locale;
+    wordCache.clear();
   }
 
   protected Dictionary getDictionary() throws IOException {
     if (dictionary == null) {
       synchronized (this) {
         if (dictionary == null) {
-          final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(getFileName());
-          dictionary = Dictionary.read(url);
+          dictionary = JLanguageTool.getDataBroker().getFromResourceDirAsDictionary(getFileName());
         }
       }
     }
     return dictionary;
   }
 
+  /**
+   * Get the dictionary lookup of the current thread, which is created on first use.
+   * The result must not be shared among threads. Note that the list returned by
+   * {@link IStemmer#lookup(CharSequence)} is only valid until the next lookup.
+   * @since 2.4
+   */
+  protected IStemmer getStemmer() throws IOException {
+    IStemmer stemmer = stemmers.get();
+    if (stemmer == null) {
+      stemmer = new DictionaryLookup(getDictionary());
+      stemmers.set(stemmer);
+    }
+    return stemmer;
+  }
+
   @Override
   public List<AnalyzedTokenReadings> tag(final List<String> sentenceTokens)
           throws IOException {
-    List<AnalyzedToken> taggerTokens;
-    List<AnalyzedToken> lowerTaggerTokens;
-    List<AnalyzedToken> upperTaggerTokens;
     final List<AnalyzedTokenReadings> tokenReadings = new ArrayList<>();
     int pos = 0;
-    final IStemmer dictLookup = new DictionaryLookup(getDictionary());
 
     for (String word : sentenceTokens) {
-      final List<AnalyzedToken> l = new ArrayList<>();
-      final String lowerWord = word.toLowerCase(conversionLocale);
-      taggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(word));
-      lowerTaggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(lowerWord));
-      final boolean isLowercase = word.equals(lowerWord);
-      final boolean isMixedCase = StringTools.isMixedCase(word);
-
-      //normal case
-      addTokens(taggerTokens, l);
-
-      //tag non-lowercase (alluppercase or startuppercase), but not mixedcase word with lowercase word tags
-      if (!isLowercase && !isMixedCase) {
-        addTokens(lowerTaggerTokens, l);
-      }
-
-      //tag lowercase word with startuppercase word tags
-      if (tagLowercaseWithUppercase) {
-        if (lowerTaggerTokens.isEmpty() && taggerTokens.isEmpty()) {
-          if (isLowercase) {
-            upperTaggerTokens = asAnalyzedTokenList(word,
-                dictLookup.lookup(StringTools.uppercaseFirstChar(word)));
-            if (!upperTaggerTokens.isEmpty()) {
-              addTokens(upperTaggerTokens, l);
-            }
-          }
-        }
-      }
+      final List<AnalyzedToken> l = getDictionaryReadings(word);
 
       // Additional language-dependent-tagging 
       if (l.isEmpty()) {
@@ -123,6 +115,61 @@ public abstract class BaseTagger implements Tagger {
     return tokenReadings;
   }
 
+  // the readings are cached as the token, POS tag and lemma of each reading:
+  private List<AnalyzedToken> getDictionaryReadings(final String word) throws IOException {
+    final String[] cached = wordCache.get(word);
+    if (cached != null) {
+      final List<AnalyzedToken> l = new ArrayList<>(cached.length / 3);
+      for (int i = 0; i < cached.length; i += 3) {
+        l.add(new AnalyzedToken(cached[i], cached[i + 1], cached[i + 2]));
+      }
+      return l;
+    }
+    final List<AnalyzedToken> l = lookupDictionaryReadings(word);
+    final String[] readings = new String[l.size() * 3];
+    for (int i = 0; i < l.size(); i++) {
+      readings[i * 3] = l.get(i).getToken();
+      readings[i * 3 + 1] = l.get(i).getPOSTag();
+      readings[i * 3 + 2] = l.get(i).getLemma();
+    }
+    wordCache.put(word, readings);
+    return l;
+  }
+
+  private List<AnalyzedToken> lookupDictionaryReadings(final String word) throws IOException {
+    final IStemmer dictLookup = getStemmer();
+    final List<AnalyzedToken> l = new ArrayList<>();
+    final String lowerWord = word.toLowerCase(conversionLocale);
+    final List<AnalyzedToken> taggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(word));
+    final boolean isLowercase = word.equals(lowerWord);
+    // the lowercase word is the same for lowercase words, so don't look it up again:
+    final List<AnalyzedToken> lowerTaggerTokens =
+        isLowercase ? taggerTokens : asAnalyzedTokenList(word, dictLookup.lookup(lowerWord));
+    final boolean isMixedCase = StringTools.isMixedCase(word);
+
+    //normal case
+    addTokens(taggerTokens, l);
+
+    //tag non-lowercase (alluppercase or startuppercase), but not mixedcase word with lowercase word tags
+    if (!isLowercase && !isMixedCase) {
+      addTokens(lowerTaggerTokens, l);
+    }
+
+    //tag lowercase word with startuppercase word tags
+    if (tagLowercaseWithUppercase) {
+      if (lowerTaggerTokens.isEmpty() && taggerTokens.isEmpty()) {
+        if (isLowercase) {
+          final List<AnalyzedToken> upperTaggerTokens = asAnalyzedTokenList(word,
+              dictLookup.lookup(StringTools.uppercaseFirstChar(word)));
+          if (!upperTaggerTokens.isEmpty()) {
+            addTokens(upperTaggerTokens, l);
+          }
+        }
+      }
+    }
+    return l;
+  }
+
   protected List<AnalyzedToken> asAnalyzedTokenList(final String word, final List<WordData> wdList) {
     final List<AnalyzedToken> aTokenList = new ArrayList<>();
     for (WordData wd : wdList) {
@@ -158,6 +205,7 @@ public abstract class BaseTagger implements Tagger {
 
   public void dontTagLowercaseWithUppercase() {
     tagLowercaseWithUppercase = false;
+    wordCache.clear();
   }
 
   /*
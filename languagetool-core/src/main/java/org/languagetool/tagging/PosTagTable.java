@@ -0,0 +1,147 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+/**
+ * The part-of-speech tags of all languages, each with a small number as its ID. The taggers
+ * create a new string for each tag of each reading of each word. Using the strings from this
+ * table instead saves a lot of memory, and the ID lets rules remember which tags a regular
+ * expression matches (see {@link org.languagetool.rules.patterns.Element}).
+ *
+ * <p>The table is shared by all languages and never emptied, so it's limited: it takes at most
+ * {@value #MAX_SIZE} tags of up to {@value #MAX_TAG_LENGTH} characters, i.e. about 10 MB at most. Other tags
+ * get no ID and still work, they are just not shared and rules match them without caching.
+ * So tags that don't come from the tag set of a language (e.g. from user input) can't make
+ * the table grow without limit, they can only make newer tags a bit slower once it's full.
+ *
+ * <p><b>Thread-safety:</b> this class is thread-safe.
+ *
+ * @since 2.4
+ */
+public final class PosTagTable {
+
+  /** The ID of tags that are not in the table. */
+  public static final int NO_ID = -1;
+
+  /** The maximum number of tags, more than the tag sets of all languages together. */
+  public static final int MAX_SIZE = 30_000;
+
+  /** The maximum length of a tag that gets an ID, real tags are much shorter. */
+  public static final int MAX_TAG_LENGTH = 128;
+
+  private static final Logger LOGGER = Logger.getLogger(PosTagTable.class.getName());
+
+  private static final ConcurrentMap<String, Tag> TAGS = new ConcurrentHashMap<>();
+
+  private static volatile String[] tagsById = new String[256];
+  private static volatile int size;
+
+  private PosTagTable() {
+  }
+
+  /**
+   * The string from the table that is equal to the given tag, or the given tag itself if it
+   * can't be added to the table.
+   * @param posTag a POS tag, or {@code null}
+   */
+  public static String intern(final String posTag) {
+    if (posTag == null) {
+      return null;
+    }
+    final Tag tag = get(posTag);
+    return tag != null ? tag.tag : posTag;
+  }
+
+  /**
+   * The ID of the given tag, adding it to the table if needed.
+   * @param posTag a POS tag, or {@code null}
+   * @return the ID, or {@link #NO_ID} for {@code null}, for tags longer than {@link #MAX_TAG_LENGTH}
+   *   or if the table is full
+   */
+  public static int getId(final String posTag) {
+    if (posTag == null) {
+      return NO_ID;
+    }
+    final Tag tag = get(posTag);
+    return tag != null ? tag.id : NO_ID;
+  }
+
+  /**
+   * The tag with the given ID.
+   * @throws IllegalArgumentException if there's no tag with the ID
+   */
+  public static String getTag(final int id) {
+    final String[] tags = tagsById;
+    if (id < 0 || id >= tags.length || tags[id] == null) {
+      throw new IllegalArgumentException("No POS tag with ID " + id);
+    }
+    return tags[id];
+  }
+
+  /**
+   * The number of tags in the table, all IDs are smaller than this.
+   */
+  public static int size() {
+    return size;
+  }
+
+  private static Tag get(final String posTag) {
+    final Tag tag = TAGS.get(posTag);
+    if (tag != null || size >= MAX_SIZE || posTag.length() > MAX_TAG_LENGTH) {
+      return tag;
+    }
+    return add(posTag);
+  }
+
+  private static synchronized Tag add(final String posTag) {
+    Tag tag = TAGS.get(posTag);
+    if (tag == null && size < MAX_SIZE) {
+      if (size == tagsById.length) {
+        tagsById = Arrays.copyOf(tagsById, size * 2);
+      }
+      tag = new Tag(posTag, size);
+      // the tag must be in the array before other threads can get its ID:
+      final String[] tags = tagsById;
+      tags[size] = posTag;
+      tagsById = tags;
+      size++;
+      TAGS.put(posTag, tag);
+      if (size == MAX_SIZE) {
+        LOGGER.warning("The table of POS tags is full with " + MAX_SIZE + " tags, newer tags"
+                + " will be matched more slowly. Last tag: " + posTag);
+      }
+    }
+    return tag;
+  }
+
+  private static final class Tag {
+    private final String tag;
+    private final int id;
+    private Tag(final String tag, final int id) {
+      this.tag = tag;
+      this.id = id;
+    }
+  }
+
+}
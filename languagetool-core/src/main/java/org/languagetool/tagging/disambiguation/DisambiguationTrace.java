@@ -0,0 +1,185 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging.disambiguation;
+
+import org.apache.commons.lang.StringUtils;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+import org.languagetool.chunking.ChunkTag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The log of the changes the disambiguator made to the readings of a token. It's only
+ * kept for tokens whose tracing has been enabled, e.g. with
+ * {@link org.languagetool.JLanguageTool#setTraceDisambiguation(boolean)}, and it's only
+ * turned into text by {@link #toString()}. Instances are immutable, so a token that replaces
+ * another token can continue the other token's log.
+ * @since 2.4
+ */
+public final class DisambiguationTrace {
+
+  private static final DisambiguationTrace EMPTY = new DisambiguationTrace(null, "", null, null, null, null);
+
+  private final DisambiguationTrace previous;
+  private final String annotations;
+  private final String ruleId;
+  private final String subId;
+  private final Readings before;
+  private final Readings after;
+
+  private DisambiguationTrace(DisambiguationTrace previous, String annotations, String ruleId, String subId,
+                              Readings before, Readings after) {
+    this.previous = previous;
+    this.annotations = annotations;
+    this.ruleId = ruleId;
+    this.subId = subId;
+    this.before = before;
+    this.after = after;
+  }
+
+  /**
+   * An empty log.
+   */
+  public static DisambiguationTrace start() {
+    return EMPTY;
+  }
+
+  /**
+   * A log that starts with the given text.
+   */
+  public static DisambiguationTrace start(String annotations) {
+    if (annotations == null || annotations.isEmpty()) {
+      return EMPTY;
+    }
+    return new DisambiguationTrace(null, annotations, null, null, null, null);
+  }
+
+  /**
+   * Call before the readings of {@code token} get changed.
+   * @return the change to finish with {@link Change#end(AnalyzedTokenReadings, String, String)}
+   *   once the readings have been changed, or {@code null} if the token isn't traced
+   */
+  public static Change begin(AnalyzedTokenReadings token) {
+    final DisambiguationTrace trace = token.getDisambiguationTrace();
+    if (trace == null) {
+      return null;
+    }
+    return new Change(trace, new Readings(token));
+  }
+
+  /**
+   * Renders the log in the format of {@link AnalyzedTokenReadings#getHistoricalAnnotations()},
+   * i.e. one line per change, each line starting with a newline.
+   */
+  @Override
+  public String toString() {
+    final List<DisambiguationTrace> changes = new ArrayList<>();
+    DisambiguationTrace trace = this;
+    while (trace.previous != null) {
+      changes.add(trace);
+      trace = trace.previous;
+    }
+    final StringBuilder sb = new StringBuilder(trace.annotations);
+    for (int i = changes.size() - 1; i >= 0; i--) {
+      final DisambiguationTrace change = changes.get(i);
+      sb.append('\n');
+      sb.append(change.ruleId);
+      sb.append(':');
+      if (change.subId != null) {
+        sb.append(change.subId);
+      }
+      sb.append(' ');
+      change.before.appendTo(sb);
+      sb.append(" -> ");
+      change.after.appendTo(sb);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * A change of the readings of a token that has been started with
+   * {@link DisambiguationTrace#begin(AnalyzedTokenReadings)}.
+   */
+  public static final class Change {
+
+    private final DisambiguationTrace trace;
+    private final Readings before;
+
+    private Change(DisambiguationTrace trace, Readings before) {
+      this.trace = trace;
+      this.before = before;
+    }
+
+    /**
+     * Adds the change to the log of {@code changed}, which is either the token that
+     * has been passed to {@code begin()} or the token that replaces it.
+     * @param ruleId the ID of the rule that made the change
+     * @param subId the sub ID of the rule, or {@code null}
+     */
+    public void end(AnalyzedTokenReadings changed, String ruleId, String subId) {
+      changed.setDisambiguationTrace(new DisambiguationTrace(trace, null, ruleId, subId, before, new Readings(changed)));
+    }
+  }
+
+  /**
+   * A copy of the parts of {@link AnalyzedTokenReadings} that its {@code toString()} shows,
+   * as the disambiguator changes some of them in place.
+   */
+  private static final class Readings {
+
+    private final String token;
+    private final AnalyzedToken[] readings;
+    private final boolean[] whitespaceBefore;
+    private final List<ChunkTag> chunkTags;
+
+    Readings(AnalyzedTokenReadings tokenReadings) {
+      token = tokenReadings.getToken();
+      readings = tokenReadings.getReadings().toArray(new AnalyzedToken[tokenReadings.getReadingsLength()]);
+      whitespaceBefore = new boolean[readings.length];
+      for (int i = 0; i < readings.length; i++) {
+        whitespaceBefore[i] = readings[i].isWhitespaceBefore();
+      }
+      final List<ChunkTag> tags = tokenReadings.getChunkTags();
+      chunkTags = tags.isEmpty() ? Collections.<ChunkTag>emptyList() : new ArrayList<>(tags);
+    }
+
+    // same format as AnalyzedTokenReadings.toString():
+    void appendTo(StringBuilder sb) {
+      sb.append(token);
+      sb.append('[');
+      for (int i = 0; i < readings.length; i++) {
+        sb.append(readings[i]);
+        if (!whitespaceBefore[i]) {
+          sb.append('*');
+        }
+        sb.append(',');
+      }
+      sb.deleteCharAt(sb.length() - 1);
+      if (chunkTags.size() > 0) {
+        sb.append(',');
+        sb.append(StringUtils.join(chunkTags, "|"));
+      }
+      sb.append(']');
+    }
+  }
+
+}
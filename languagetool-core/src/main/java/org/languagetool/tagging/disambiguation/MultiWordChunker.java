@@ -170,26 +170,16 @@ public class MultiWordChunker implements Disambiguator {
   }
 
   private AnalyzedTokenReadings setAndAnnotate(final AnalyzedTokenReadings oldReading, final AnalyzedToken newReading) {
-    final String old = oldReading.toString();
-    final String prevAnot = oldReading.getHistoricalAnnotations();
+    final DisambiguationTrace.Change change = DisambiguationTrace.begin(oldReading);
     final AnalyzedTokenReadings newAtr = new AnalyzedTokenReadings(oldReading.getReadings(),
             oldReading.getStartPos());
     newAtr.setWhitespaceBefore(oldReading.isWhitespaceBefore());
     newAtr.addReading(newReading);
-    newAtr.setHistoricalAnnotations(
-            annotateToken(prevAnot, old, newAtr.toString()));
+    if (change != null) {
+      change.end(newAtr, "MULTIWORD_CHUNKER", null);
+    }
     return newAtr;
   }
-  
-  private String annotateToken(final String prevAnot, final String oldReading, final String newReading) {
-    final StringBuilder sb = new StringBuilder();
-    sb.append(prevAnot);
-    sb.append("\nMULTIWORD_CHUNKER: ");
-    sb.append(oldReading);
-    sb.append(" -> ");
-    sb.append(newReading);
-    return sb.toString();
-  }
 
   private List<String> loadWords(final InputStream stream) {
     final List<String> lines = new ArrayList<>();
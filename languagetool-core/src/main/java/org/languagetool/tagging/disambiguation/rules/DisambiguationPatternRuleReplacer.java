@@ -31,6 +31,7 @@ import org.languagetool.rules.patterns.Element;
 import org.languagetool.rules.patterns.ElementMatcher;
 import org.languagetool.rules.patterns.Match;
 import org.languagetool.rules.patterns.MatchState;
+import org.languagetool.tagging.disambiguation.DisambiguationTrace;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -146,10 +147,9 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
             for (int i = 0; i < unifiedTokens.length; i++) {
               final int position = text.getOriginalPosition(firstMatchToken+ correctedStPos + i);
               unifiedTokens[i].setStartPos(whTokens[position].getStartPos());
-              final String prevValue = whTokens[position].toString();
-              final String prevAnot = whTokens[position].getHistoricalAnnotations();
+              final DisambiguationTrace.Change change = DisambiguationTrace.begin(whTokens[position]);
               whTokens[position] = unifiedTokens[i];
-              annotateChange(whTokens[position], prevValue, prevAnot);
+              annotateChange(whTokens[position], change);
             }
           }
         }
@@ -160,10 +160,9 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
                   - startPositionCorrection + endPositionCorrection) {
             for (int i = 0; i < newTokenReadings.length; i++) {
               final int position = text.getOriginalPosition(firstMatchToken + correctedStPos + i);
-              final String prevValue = whTokens[position].toString();
-              final String prevAnot = whTokens[position].getHistoricalAnnotations();
+              final DisambiguationTrace.Change change = DisambiguationTrace.begin(whTokens[position]);
               whTokens[position].removeReading(newTokenReadings[i]);
-              annotateChange(whTokens[position], prevValue, prevAnot);
+              annotateChange(whTokens[position], change);
             }
           }
         }
@@ -188,10 +187,9 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
               }
               final AnalyzedToken newTok = new AnalyzedToken(token,
                       newTokenReadings[i].getPOSTag(), lemma);
-              final String prevValue = whTokens[position].toString();
-              final String prevAnot = whTokens[position].getHistoricalAnnotations();
+              final DisambiguationTrace.Change change = DisambiguationTrace.begin(whTokens[position]);
               whTokens[position].addReading(newTok);
-              annotateChange(whTokens[position], prevValue, prevAnot);
+              annotateChange(whTokens[position], change);
             }
           }
         }
@@ -207,10 +205,9 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
                   Match.IncludeRange.NONE);
 
           MatchState matchState = tmpMatchToken.createState(rule.getLanguage().getSynthesizer(), whTokens[position]);
-          final String prevValue = whTokens[position].toString();
-          final String prevAnot = whTokens[position].getHistoricalAnnotations();
+          final DisambiguationTrace.Change change = DisambiguationTrace.begin(whTokens[position]);
           whTokens[position] = matchState.filterReadings();
-          annotateChange(whTokens[position], prevValue, prevAnot);
+          annotateChange(whTokens[position], change);
         }
         break;
       case IMMUNIZE:
@@ -226,10 +223,9 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
                   Match.IncludeRange.NONE);
 
           final MatchState matchState = tmpMatchToken.createState(rule.getLanguage().getSynthesizer(), whTokens[fromPos]);
-          final String prevValue = whTokens[fromPos].toString();
-          final String prevAnot = whTokens[fromPos].getHistoricalAnnotations();
+          final DisambiguationTrace.Change change = DisambiguationTrace.begin(whTokens[fromPos]);
           whTokens[fromPos] = matchState.filterReadings();
-          annotateChange(whTokens[fromPos], prevValue, prevAnot);
+          annotateChange(whTokens[fromPos], change);
           filtered = true;
         }
         //fallthrough
@@ -279,11 +275,10 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
           } else {
             // using the match element
             final MatchState matchElementState = matchElement.createState(rule.getLanguage().getSynthesizer(), whTokens[fromPos]);
-            final String prevValue = whTokens[fromPos].toString();
-            final String prevAnot = whTokens[fromPos].getHistoricalAnnotations();
+            final DisambiguationTrace.Change change = DisambiguationTrace.begin(whTokens[fromPos]);
             whTokens[fromPos] = matchElementState.filterReadings();
             whTokens[fromPos].setWhitespaceBefore(spaceBefore);
-            annotateChange(whTokens[fromPos], prevValue, prevAnot);
+            annotateChange(whTokens[fromPos], change);
           }
         }
 
@@ -291,16 +286,15 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
     return whTokens;
   }
 
-  private void annotateChange(AnalyzedTokenReadings atr,
-                              final String prevValue, String prevAnot) {
-    atr.setHistoricalAnnotations(prevAnot + "\n" + rule.getId() + ":"
-            + rule.getSubId() + " " + prevValue + " -> " + atr.toString());
+  private void annotateChange(AnalyzedTokenReadings atr, final DisambiguationTrace.Change change) {
+    if (change != null) {
+      change.end(atr, rule.getId(), rule.getSubId());
+    }
   }
 
   private AnalyzedTokenReadings replaceTokens(AnalyzedTokenReadings oldAtr,
                                               final AnalyzedTokenReadings newAtr) {
-    final String prevValue = oldAtr.toString();
-    final String prevAnot = oldAtr.getHistoricalAnnotations();
+    final DisambiguationTrace.Change change = DisambiguationTrace.begin(oldAtr);
     final boolean isSentEnd = oldAtr.isSentenceEnd();
     final boolean isParaEnd = oldAtr.isParagraphEnd();
     final boolean spaceBefore = oldAtr.isWhitespaceBefore();
@@ -315,7 +309,7 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
     newAtr.setWhitespaceBefore(spaceBefore);
     newAtr.setStartPos(startPosition);
     newAtr.setChunkTags(chunkTags);
-    annotateChange(newAtr, prevValue, prevAnot);
+    annotateChange(newAtr, change);
     return newAtr;
   }
 }
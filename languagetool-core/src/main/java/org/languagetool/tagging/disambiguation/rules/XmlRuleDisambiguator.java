@@ -28,6 +28,8 @@ import javax.xml.parsers.ParserConfigurationException;
 import org.languagetool.AnalyzedSentence;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
+import org.languagetool.rules.patterns.BinaryRuleCache;
+import org.languagetool.rules.patterns.PatternRuleIndex;
 import org.languagetool.tagging.disambiguation.Disambiguator;
 import org.languagetool.tools.Tools;
 import org.xml.sax.SAXException;
@@ -42,7 +44,7 @@ public class XmlRuleDisambiguator implements Disambiguator {
 
   private static final String DISAMBIGUATION_FILE = "disambiguation.xml";
   
-  private List<DisambiguationPatternRule> disambiguationRules;
+  private volatile PatternRuleIndex<DisambiguationPatternRule> ruleIndex;
   private final Language language;
 
   public XmlRuleDisambiguator(final Language language) {
@@ -52,17 +54,27 @@ public class XmlRuleDisambiguator implements Disambiguator {
   @Override
   public AnalyzedSentence disambiguate(final AnalyzedSentence input) throws IOException {
     AnalyzedSentence sentence = input;
-    if (disambiguationRules == null) {
+    PatternRuleIndex<DisambiguationPatternRule> index = ruleIndex;
+    if (index == null) {
       final String disambiguationFile =
         JLanguageTool.getDataBroker().getResourceDir() + "/" + language.getShortName() + "/" + DISAMBIGUATION_FILE;
       try {
-        disambiguationRules = loadPatternRules(disambiguationFile);
+        index = new PatternRuleIndex<>(loadPatternRules(disambiguationFile));
       } catch (final Exception e) {
         throw new RuntimeException("Problems with loading disambiguation file: " + disambiguationFile, e);
       }
+      ruleIndex = index;
     }
-    for (final DisambiguationPatternRule patternRule : disambiguationRules) {
-      sentence = patternRule.replace(sentence);
+    // the rules need to be applied in order, but only those that may match the
+    // current sentence need to be tried:
+    final List<DisambiguationPatternRule> disambiguationRules = index.getRules();
+    final PatternRuleIndex<DisambiguationPatternRule>.Candidates candidates = index.getCandidates(sentence);
+    for (int i = candidates.next(0); i >= 0; i = candidates.next(i + 1)) {
+      final AnalyzedSentence newSentence = disambiguationRules.get(i).replace(sentence);
+      if (newSentence != sentence) {
+        sentence = newSentence;
+        candidates.update(sentence);
+      }
     }
     return sentence;
   }
@@ -77,8 +89,14 @@ public class XmlRuleDisambiguator implements Disambiguator {
    * @return a List of {@link DisambiguationPatternRule} objects
    */
   protected List<DisambiguationPatternRule> loadPatternRules(final String filename) throws ParserConfigurationException, SAXException, IOException {
+    final List<DisambiguationPatternRule> cachedRules = BinaryRuleCache.read(filename);
+    if (cachedRules != null) {
+      return cachedRules;
+    }
     final DisambiguationRuleLoader ruleLoader = new DisambiguationRuleLoader();
-    return ruleLoader.getRules(Tools.getStream(filename));
+    final List<DisambiguationPatternRule> rules = ruleLoader.getRules(Tools.getStream(filename));
+    BinaryRuleCache.write(filename, rules);
+    return rules;
   }
 
 }
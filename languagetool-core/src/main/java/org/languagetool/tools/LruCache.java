@@ -0,0 +1,116 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tools;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map of limited size that removes the least recently used entries when it is full,
+ * for caching the results of lookups. It's split into segments with a lock each, so that
+ * threads using the cache at the same time don't need to wait for each other much.
+ *
+ * <p><b>Thread-safety:</b> this class is thread-safe. The cached values are shared
+ * between threads, so they should be immutable.
+ *
+ * @since 2.4
+ */
+public final class LruCache<K, V> {
+
+  private static final int SEGMENT_COUNT = 16;
+
+  private final Segment<K, V>[] segments;
+
+  /**
+   * @param maxSize the maximum number of entries - as each segment of the cache has its own
+   *   limit, entries may be removed a bit earlier than necessary
+   */
+  @SuppressWarnings("unchecked")
+  public LruCache(final int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be > 0: " + maxSize);
+    }
+    final int segmentCount = Math.min(SEGMENT_COUNT, maxSize);
+    segments = new Segment[segmentCount];
+    final int segmentSize = maxSize / segmentCount;
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment<>(segmentSize);
+    }
+  }
+
+  /**
+   * @return the value, or {@code null} if the key isn't in the cache
+   */
+  public V get(final K key) {
+    final Segment<K, V> segment = getSegment(key);
+    synchronized (segment) {
+      return segment.get(key);
+    }
+  }
+
+  public void put(final K key, final V value) {
+    final Segment<K, V> segment = getSegment(key);
+    synchronized (segment) {
+      segment.put(key, value);
+    }
+  }
+
+  /**
+   * The number of entries in the cache.
+   */
+  public int size() {
+    int size = 0;
+    for (final Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  public void clear() {
+    for (final Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  private Segment<K, V> getSegment(final K key) {
+    int hash = key.hashCode();
+    hash ^= hash >>> 16;
+    return segments[(hash & Integer.MAX_VALUE) % segments.length];
+  }
+
+  private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+    private final int maxSize;
+
+    private Segment(final int maxSize) {
+      super(16, 0.75f, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+      return size() > maxSize;
+    }
+  }
+
+}
@@ -317,6 +317,26 @@ public final class StringTools {
   public static String ruleMatchesToXML(final List<RuleMatch> ruleMatches,
       final String text, final int contextSize, final XmlPrintMode xmlMode,
       final Language lang, final Language motherTongue) {
+    return ruleMatchesToXML(ruleMatches, text, 0, contextSize, xmlMode, lang, motherTongue);
+  }
+
+  /**
+   * Like {@link #ruleMatchesToXML(List, String, int, XmlPrintMode)}, but for matches whose
+   * positions refer to a larger text of which {@code text} is only a part, as when
+   * a text is checked without keeping it in memory.
+   *
+   * @param text the part of the checked text that contains the matches and their context
+   * @param textOffset the position of {@code text} in the complete text
+   * @since 2.4
+   */
+  public static String ruleMatchesToXML(final List<RuleMatch> ruleMatches,
+      final String text, final int textOffset, final int contextSize, final XmlPrintMode xmlMode) {
+    return ruleMatchesToXML(ruleMatches, text, textOffset, contextSize, xmlMode, null, null);
+  }
+
+  private static String ruleMatchesToXML(final List<RuleMatch> ruleMatches,
+      final String text, final int textOffset, final int contextSize, final XmlPrintMode xmlMode,
+      final Language lang, final Language motherTongue) {
     //
     // IMPORTANT: people rely on this format, don't change it!
     //
@@ -364,7 +384,7 @@ public final class StringTools {
       final String msg = match.getMessage().replaceAll("</?suggestion>", "'");
       xml.append(subId);
       xml.append(" msg=\"").append(escapeXMLForAPIOutput(msg)).append("\"");
-      String context = contextTools.getContext(match.getFromPos(), match.getToPos(), text);
+      String context = contextTools.getContext(match.getFromPos() - textOffset, match.getToPos() - textOffset, text);
       xml.append(" replacements=\"").append(escapeXMLForAPIOutput(listToString(
               match.getSuggestedReplacements(), "#"))).append("\"");
       // get position of error in context and remove artificial marker again:
@@ -266,8 +266,8 @@ public final class Tools {
    */
   public static void selectRules(final JLanguageTool lt, final String[] disabledRules, final String[] enabledRules, boolean useEnabledOnly) {
     // disable rules that are disabled explicitly:
-    for (final String disabledRule : disabledRules) {
-      lt.disableRule(disabledRule);
+    if (disabledRules.length > 0) {
+      lt.disableRules(Arrays.asList(disabledRules));
     }
     // enable rules
     if (enabledRules.length > 0) {
@@ -278,11 +278,13 @@ public final class Tools {
       }
       // disable all rules except those enabled explicitly, if any:
       if (useEnabledOnly) {
+        final List<String> otherRuleIds = new ArrayList<>();
         for (Rule rule : lt.getAllRules()) {
           if (!enabledRuleIDs.contains(rule.getId())) {
-            lt.disableRule(rule.getId());
+            otherRuleIds.add(rule.getId());
           }
         }
+        lt.disableRules(otherRuleIds);
       }
     }
   }
@@ -20,6 +20,12 @@
 package org.languagetool;
 
 import junit.framework.TestCase;
+import org.languagetool.tagging.PosTagTable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 
 public class AnalyzedTokenTest extends TestCase {
 
@@ -45,5 +51,23 @@ public class AnalyzedTokenTest extends TestCase {
     assertTrue(testToken1.matches(new AnalyzedToken("", "POS", "lemma")));
     assertTrue(testToken1.matches(new AnalyzedToken("", null, "lemma")));
   }
-  
+
+  public void testSharedStrings() throws Exception {
+    final AnalyzedToken testToken1 = new AnalyzedToken("word", new String("POS"), new String("word"));
+    final AnalyzedToken testToken2 = new AnalyzedToken("word2", new String("POS"), "lemma");
+    assertSame(testToken1.getPOSTag(), testToken2.getPOSTag());
+    assertSame(testToken1.getToken(), testToken1.getLemma());
+    assertEquals(PosTagTable.getId("POS"), testToken1.getPOSTagId());
+    assertEquals(PosTagTable.NO_ID, new AnalyzedToken("word", null, null).getPOSTagId());
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(testToken1);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      final AnalyzedToken deserialized = (AnalyzedToken) in.readObject();
+      assertEquals(testToken1.getPOSTagId(), deserialized.getPOSTagId());
+    }
+  }
+
 }
@@ -0,0 +1,78 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import junit.framework.TestCase;
+import org.languagetool.chunking.ChunkTag;
+import org.languagetool.language.Demo;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class CompactAnalyzedSentenceTest extends TestCase {
+
+  public void testToAnalyzedSentence() throws IOException {
+    final JLanguageTool tool = new JLanguageTool(new Demo());
+    final AnalyzedSentence sentence = tool.getAnalyzedSentence("This is a test sentence.\n");
+    final AnalyzedTokenReadings[] tokens = sentence.getTokens();
+    tokens[1].setChunkTags(Arrays.asList(new ChunkTag("B-NP"), new ChunkTag("I-NP")));
+    tokens[1].setHistoricalAnnotations("foo");
+    tokens[1].immunize();
+    tokens[3].addReading(new AnalyzedToken("is", "VBZ", "be"));
+    tokens[5].addReading(new AnalyzedToken("a", "CompactAnalyzedSentenceTest:TAG", "a"));
+    tokens[tokens.length - 1].setParagraphEnd();
+
+    final CompactAnalyzedSentence compactSentence = new CompactAnalyzedSentence(sentence);
+    assertEquals(tokens.length, compactSentence.getTokenCount());
+    final AnalyzedSentence restored = compactSentence.toAnalyzedSentence();
+    assertEquals(sentence.toString(), restored.toString());
+    final AnalyzedTokenReadings[] restoredTokens = restored.getTokens();
+    assertEquals(tokens.length, restoredTokens.length);
+    for (int i = 0; i < tokens.length; i++) {
+      assertEquals(tokens[i].getToken(), restoredTokens[i].getToken());
+      assertEquals(tokens[i].getStartPos(), restoredTokens[i].getStartPos());
+      assertEquals(tokens[i].getFlags(), restoredTokens[i].getFlags());
+      assertEquals(tokens[i].getChunkTags(), restoredTokens[i].getChunkTags());
+      assertEquals(tokens[i].getHistoricalAnnotations(), restoredTokens[i].getHistoricalAnnotations());
+      assertEquals(tokens[i].getReadingsLength(), restoredTokens[i].getReadingsLength());
+      for (int j = 0; j < tokens[i].getReadingsLength(); j++) {
+        final AnalyzedToken reading = tokens[i].getAnalyzedToken(j);
+        final AnalyzedToken restoredReading = restoredTokens[i].getAnalyzedToken(j);
+        assertEquals(reading, restoredReading);
+        assertEquals(reading.isWhitespaceBefore(), restoredReading.isWhitespaceBefore());
+        assertEquals(reading.hasNoTag(), restoredReading.hasNoTag());
+      }
+    }
+    assertEquals(Arrays.asList(sentence.getTokensWithoutWhitespace()).toString(),
+            Arrays.asList(restored.getTokensWithoutWhitespace()).toString());
+    assertTrue(restoredTokens[1].isImmunized());
+    assertTrue(restoredTokens[restoredTokens.length - 1].isParagraphEnd());
+  }
+
+  public void testCopiesAreIndependent() throws IOException {
+    final JLanguageTool tool = new JLanguageTool(new Demo());
+    final CompactAnalyzedSentence compactSentence = new CompactAnalyzedSentence(tool.getAnalyzedSentence("A test."));
+    final AnalyzedSentence sentence1 = compactSentence.toAnalyzedSentence();
+    sentence1.getTokens()[1].immunize();
+    final AnalyzedSentence sentence2 = compactSentence.toAnalyzedSentence();
+    assertNotSame(sentence1.getTokens()[1], sentence2.getTokens()[1]);
+    assertFalse(sentence2.getTokens()[1].isImmunized());
+  }
+
+}
@@ -26,6 +26,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -43,6 +45,7 @@ public class MultiThreadedJLanguageToolTest {
     JLanguageTool tool;
     
     tool = new MultiThreadedJLanguageTool(new Demo());    
+    ((MultiThreadedJLanguageTool) tool).setMinTextLengthForParallelCheck(0);
     final List<String> ruleMatchIds1 = getRuleMatchIds(tool);
     assertTrue(ruleMatchIds1.size() >= 10);
     Assert.assertEquals(4, tool.getSentenceCount());
@@ -52,6 +55,30 @@ public class MultiThreadedJLanguageToolTest {
     assertThat(ruleMatchIds1, is(ruleMatchIds2));
     Assert.assertEquals(4, tool.getSentenceCount());
   }
+
+  @Test
+  public void testThreadPools() throws IOException {
+    final List<String> expectedIds = getRuleMatchIds(new JLanguageTool(new Demo()));
+
+    final MultiThreadedJLanguageTool forkJoinTool = new MultiThreadedJLanguageTool(new Demo());
+    forkJoinTool.setUseForkJoinPool(true);
+    forkJoinTool.setMinTextLengthForParallelCheck(0);
+    assertThat(getRuleMatchIds(forkJoinTool), is(expectedIds));
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo(), null, executor);
+      tool.setMinTextLengthForParallelCheck(0);
+      assertThat(getRuleMatchIds(tool), is(expectedIds));
+      Assert.assertFalse(executor.isShutdown());
+    } finally {
+      executor.shutdown();
+    }
+
+    final MultiThreadedJLanguageTool sequentialTool = new MultiThreadedJLanguageTool(new Demo());
+    sequentialTool.setMinTextLengthForParallelCheck(Integer.MAX_VALUE);
+    assertThat(getRuleMatchIds(sequentialTool), is(expectedIds));
+  }
   
   @Test
   public void testConfigurableThreadPoolSize() throws IOException {
@@ -71,6 +98,46 @@ public class MultiThreadedJLanguageToolTest {
     Assert.assertEquals(Runtime.getRuntime().availableProcessors(), tool.getThreadPoolSize());
   }
 
+  @Test
+  public void testPipelined() throws IOException {
+    final List<String> expectedIds = getRuleMatchIds(new JLanguageTool(new Demo()));
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    tool.setPipelined(true);
+    tool.setPipelineSize(1);
+    tool.setMinTextLengthForParallelCheck(0);
+    assertThat(getRuleMatchIds(tool), is(expectedIds));
+    Assert.assertEquals(4, tool.getSentenceCount());
+  }
+
+  @Test
+  public void testDistributeRules() throws IOException {
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    tool.activateDefaultPatternRules();
+    final List<Rule> allRules = tool.getAllRules();
+    final List<List<Rule>> parts = tool.distributeRules(allRules, 4);
+    Assert.assertEquals(4, parts.size());
+    final List<Rule> distributedRules = new ArrayList<>();
+    for (List<Rule> part : parts) {
+      assertTrue(part.size() > 0);
+      distributedRules.addAll(part);
+    }
+    Assert.assertEquals(allRules.size(), distributedRules.size());
+    assertTrue(distributedRules.containsAll(allRules));
+    // rules of the same group must not be split:
+    for (List<Rule> part : parts) {
+      for (List<Rule> otherPart : parts) {
+        if (part != otherPart) {
+          for (Rule rule : part) {
+            for (Rule otherRule : otherPart) {
+              Assert.assertFalse(rule.getId().equals(otherRule.getId()));
+            }
+          }
+        }
+      }
+    }
+    Assert.assertEquals(1, tool.distributeRules(new ArrayList<Rule>(), 4).size());
+  }
+
   private List<String> getRuleMatchIds(JLanguageTool langTool) throws IOException {
     langTool.activateDefaultPatternRules();
     final String input = "A small toast. No error here. Foo go bar. First goes last there, please!";
@@ -0,0 +1,204 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2005 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.SuggestionProvider;
+import org.languagetool.rules.UppercaseSentenceStartRule;
+import org.languagetool.rules.spelling.SpellingCheckRule;
+
+public class ResultCacheTest extends TestCase {
+
+  private static final String TEXT = "This is foo bar. this is foo bar.\n\nThis is foo bar. A sentence.";
+  // its overlapping matches are filtered differently when the rules are split over threads:
+  private static final String OVERLAPPING_RULE = "test_unification_with_negation";
+
+  public void testCache() throws IOException {
+    final JLanguageTool tool = getTool();
+    final ResultCache cache = new ResultCache(100);
+    tool.setResultCache(cache);
+    final List<String> expected = toStrings(getTool().check(TEXT));
+    assertEquals(expected, toStrings(tool.check(TEXT)));
+    final long hitCount = cache.getHitCount();
+    final long missCount = cache.getMissCount();
+    assertEquals(expected, toStrings(tool.check(TEXT)));
+    assertTrue(cache.getHitCount() > hitCount);
+    assertEquals(missCount, cache.getMissCount());
+    assertEquals(0, cache.getEvictionCount());
+    // same sentences at other positions:
+    final String text = "A sentence. " + TEXT;
+    assertEquals(toStrings(getTool().check(text)), toStrings(tool.check(text)));
+  }
+
+  public void testRuleConfigurationChange() throws IOException {
+    final JLanguageTool tool = getTool();
+    tool.setResultCache(new ResultCache(100));
+    assertEquals(3, countMatches(tool.check(TEXT), "DEMO_RULE"));
+    tool.disableRule("DEMO_RULE");
+    assertEquals(0, countMatches(tool.check(TEXT), "DEMO_RULE"));
+    tool.enableRule("DEMO_RULE");
+    assertEquals(3, countMatches(tool.check(TEXT), "DEMO_RULE"));
+  }
+
+  public void testCacheWithMultiThreadedTool() throws IOException {
+    final ResultCache cache = new ResultCache(100);
+    final JLanguageTool expectedTool = getTool();
+    expectedTool.disableRule(OVERLAPPING_RULE);
+    final List<String> expected = toStrings(expectedTool.check(TEXT));
+    final MultiThreadedJLanguageTool tool = getMultiThreadedTool(cache, 2);
+    assertEquals(expected, toStrings(tool.check(TEXT)));
+    final long hitCount = cache.getHitCount();
+    final long missCount = cache.getMissCount();
+    // the rules are distributed differently over the threads, the cached matches are still used:
+    final MultiThreadedJLanguageTool otherTool = getMultiThreadedTool(cache, 3);
+    assertEquals(expected, toStrings(otherTool.check(TEXT)));
+    assertTrue(cache.getHitCount() > hitCount);
+    assertEquals(missCount, cache.getMissCount());
+    // a single-threaded check uses the matches of all threads:
+    final JLanguageTool singleThreadedTool = getTool();
+    singleThreadedTool.disableRule(OVERLAPPING_RULE);
+    singleThreadedTool.setResultCache(cache);
+    assertEquals(expected, toStrings(singleThreadedTool.check(TEXT)));
+    assertEquals(missCount, cache.getMissCount());
+  }
+
+  private MultiThreadedJLanguageTool getMultiThreadedTool(ResultCache cache, int threads) throws IOException {
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    tool.activateDefaultPatternRules();
+    tool.addRule(new UppercaseSentenceStartRule(TestTools.getEnglishMessages(), tool.getLanguage()));
+    tool.disableRule(OVERLAPPING_RULE);
+    tool.setThreadPoolSize(threads);
+    tool.setMinTextLengthForParallelCheck(0);
+    tool.setMinSentencesForParallelCheck(0);
+    tool.setResultCache(cache);
+    return tool;
+  }
+
+  public void testIgnoreTokensChange() throws IOException {
+    final JLanguageTool tool = getTool();
+    final FooSpellingRule rule = new FooSpellingRule(tool.getLanguage());
+    tool.addRule(rule);
+    tool.setResultCache(new ResultCache(100));
+    assertEquals(3, countMatches(tool.check(TEXT), "FOO_SPELLING_RULE"));
+    rule.addIgnoreTokens(Collections.singletonList("foo"));
+    assertEquals(0, countMatches(tool.check(TEXT), "FOO_SPELLING_RULE"));
+    rule.resetIgnoreTokens();
+    assertEquals(3, countMatches(tool.check(TEXT), "FOO_SPELLING_RULE"));
+  }
+
+  public void testLazySuggestionsAreCreatedBeforeCaching() throws IOException {
+    final JLanguageTool tool = getTool();
+    final FooSpellingRule rule = new FooSpellingRule(tool.getLanguage());
+    tool.addRule(rule);
+    final List<RuleMatch> uncachedMatches = tool.check(TEXT);
+    assertEquals(3, countMatches(uncachedMatches, "FOO_SPELLING_RULE"));
+    assertEquals(0, rule.suggestionCalls);
+    tool.setResultCache(new ResultCache(100));
+    final List<RuleMatch> matches = tool.check(TEXT);
+    // the first and the third sentence are the same, so the third one is taken from the cache:
+    assertEquals(2, rule.suggestionCalls);
+    for (RuleMatch match : matches) {
+      if (match.getRule() == rule) {
+        assertEquals(Collections.singletonList("bar"), match.getSuggestedReplacements());
+      }
+    }
+    assertEquals(2, rule.suggestionCalls);
+  }
+
+  private int countMatches(List<RuleMatch> matches, String ruleId) {
+    int count = 0;
+    for (RuleMatch match : matches) {
+      if (match.getRule().getId().equals(ruleId)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  public void testEviction() throws IOException {
+    final JLanguageTool tool = getTool();
+    final ResultCache cache = new ResultCache(2);
+    tool.setResultCache(cache);
+    final List<String> expected = toStrings(getTool().check(TEXT));
+    assertEquals(expected, toStrings(tool.check(TEXT)));
+    assertEquals(expected, toStrings(tool.check(TEXT)));
+    assertEquals(2, cache.size());
+    assertTrue(cache.getEvictionCount() > 0);
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  private JLanguageTool getTool() throws IOException {
+    final JLanguageTool tool = new JLanguageTool(new Demo());
+    tool.activateDefaultPatternRules();
+    tool.addRule(new UppercaseSentenceStartRule(TestTools.getEnglishMessages(), tool.getLanguage()));
+    return tool;
+  }
+
+  private List<String> toStrings(List<RuleMatch> matches) {
+    final List<String> result = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      result.add(match.getRule().getId() + "/" + match.getFromPos() + "-" + match.getToPos()
+              + "/" + match.getLine() + "/" + match.getColumn() + "/" + match.getSuggestedReplacements());
+    }
+    return result;
+  }
+
+  private static class FooSpellingRule extends SpellingCheckRule {
+    private int suggestionCalls;
+    private FooSpellingRule(Language language) {
+      super(TestTools.getEnglishMessages(), language);
+    }
+    @Override
+    public String getId() {
+      return "FOO_SPELLING_RULE";
+    }
+    @Override
+    public String getDescription() {
+      return "Test spelling rule that only knows the word 'foo' as misspelled";
+    }
+    @Override
+    public RuleMatch[] match(AnalyzedSentence sentence) throws IOException {
+      final List<RuleMatch> matches = new ArrayList<>();
+      final AnalyzedTokenReadings[] tokens = sentence.getTokensWithoutWhitespace();
+      for (int i = 0; i < tokens.length; i++) {
+        if ("foo".equals(tokens[i].getToken()) && !ignoreToken(tokens, i)) {
+          final RuleMatch match = new RuleMatch(this, tokens[i].getStartPos(), tokens[i].getStartPos() + 3, "Misspelled");
+          match.setLazySuggestedReplacements(new SuggestionProvider() {
+            @Override
+            public List<String> getSuggestions() {
+              suggestionCalls++;
+              return Collections.singletonList("bar");
+            }
+          });
+          matches.add(match);
+        }
+      }
+      return toRuleMatchArray(matches);
+    }
+  }
+
+}
@@ -0,0 +1,144 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.GenericUnpairedBracketsRule;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+
+public class StreamingCheckTest extends TestCase {
+
+  public void testCheckReader() throws IOException {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      sb.append("This is foo bar (with a bracket.\nline ").append(i).append(" is  here.\n\n");
+      sb.append("A (bracket that is closed) in foo bar. ");
+    }
+    final String text = sb.toString();
+    assertEquals(expectedMatches(new JLanguageTool(new Demo()), text), streamedMatches(new JLanguageTool(new Demo()), text));
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    tool.setPipelined(true);
+    assertEquals(expectedMatches(new JLanguageTool(new Demo()), text), streamedMatches(tool, text));
+  }
+
+  public void testBracketClosedInLaterSentence() throws IOException {
+    final String text = "A (bracket. That is closed) later.\n\nAnother (one.";
+    final List<String> matches = streamedMatches(new JLanguageTool(new Demo()), text);
+    assertEquals(expectedMatches(new JLanguageTool(new Demo()), text), matches);
+    final List<String> bracketMatches = new ArrayList<>();
+    for (String match : matches) {
+      if (match.startsWith("UNPAIRED_BRACKETS/")) {
+        bracketMatches.add(match);
+      }
+    }
+    assertEquals(1, bracketMatches.size());
+    assertTrue(bracketMatches.get(0).startsWith("UNPAIRED_BRACKETS/44-45/2/"));
+  }
+
+  public void testLongTextWithoutSentenceEnd() throws IOException {
+    final StringBuilder sb = new StringBuilder("This is foo bar");
+    while (sb.length() < 3 * JLanguageTool.STREAM_MAX_BUFFER_SIZE) {
+      sb.append(" lorem ipsum");
+    }
+    sb.append(" and foo bar");
+    final String text = sb.toString();
+    final CountingReader reader = new CountingReader(text);
+    final List<Integer> charsReadAtMatch = new ArrayList<>();
+    final List<RuleMatch> matches = new ArrayList<>();
+    final JLanguageTool tool = new JLanguageTool(new Demo());
+    tool.activateDefaultPatternRules();
+    for (Rule rule : tool.getAllRules()) {
+      if (!rule.getId().equals("DEMO_RULE")) {
+        tool.disableRule(rule.getId());
+      }
+    }
+    tool.check(reader, new RuleMatchListener() {
+      @Override
+      public void matchFound(RuleMatch ruleMatch) {
+        matches.add(ruleMatch);
+        charsReadAtMatch.add(reader.charsRead);
+      }
+    });
+    assertEquals(2, matches.size());
+    assertEquals(8, matches.get(0).getFromPos());
+    assertEquals(text.length() - 7, matches.get(1).getFromPos());
+    // the first match is reported before the whole text has been read:
+    assertTrue(charsReadAtMatch.get(0) < text.length() / 2);
+  }
+
+  private List<String> expectedMatches(JLanguageTool tool, String text) throws IOException {
+    init(tool);
+    final List<String> result = toStrings(tool.check(text));
+    result.add("sentences: " + tool.getSentenceCount());
+    return result;
+  }
+
+  private List<String> streamedMatches(JLanguageTool tool, String text) throws IOException {
+    init(tool);
+    final List<RuleMatch> matches = new ArrayList<>();
+    tool.check(new StringReader(text), new RuleMatchListener() {
+      @Override
+      public void matchFound(RuleMatch ruleMatch) {
+        matches.add(ruleMatch);
+      }
+    });
+    Collections.sort(matches);
+    final List<String> result = toStrings(matches);
+    result.add("sentences: " + tool.getSentenceCount());
+    return result;
+  }
+
+  private void init(JLanguageTool tool) throws IOException {
+    tool.activateDefaultPatternRules();
+    tool.addRule(new GenericUnpairedBracketsRule(TestTools.getEnglishMessages(), tool.getLanguage()));
+  }
+
+  private static class CountingReader extends StringReader {
+    private int charsRead;
+    private CountingReader(String s) {
+      super(s);
+    }
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      final int count = super.read(cbuf, off, len);
+      if (count > 0) {
+        charsRead += count;
+      }
+      return count;
+    }
+  }
+
+  private List<String> toStrings(List<RuleMatch> matches) {
+    final List<String> result = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      result.add(match.getRule().getId() + "/" + match.getFromPos() + "-" + match.getToPos()
+              + "/" + match.getLine() + "/" + match.getColumn());
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,115 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.SuggestionProvider;
+
+public class SuggestionLimitTest extends TestCase {
+
+  public void testLazySuggestions() throws Exception {
+    final JLanguageTool tool = new JLanguageTool(new Demo());
+    final FooRule rule = new FooRule();
+    tool.addRule(rule);
+    final List<RuleMatch> matches = tool.check("A foo and another foo.");
+    assertEquals(2, matches.size());
+    assertEquals(0, rule.suggestionCalls);
+    assertEquals(Arrays.asList("bar", "baz", "qux"), matches.get(0).getSuggestedReplacements());
+    assertEquals(Arrays.asList("bar", "baz", "qux"), matches.get(0).getSuggestedReplacements());
+    assertEquals(1, rule.suggestionCalls);
+  }
+
+  public void testMaxSuggestions() throws Exception {
+    final JLanguageTool tool = new JLanguageTool(new Demo());
+    final FooRule rule = new FooRule();
+    tool.addRule(rule);
+    tool.setMaxSuggestions(2);
+    assertEquals(Arrays.asList("bar", "baz"), tool.check("A foo.").get(0).getSuggestedReplacements());
+    tool.setMaxSuggestions(0);
+    assertEquals(0, tool.check("A foo.").get(0).getSuggestedReplacements().size());
+    assertEquals(1, rule.suggestionCalls);
+  }
+
+  public void testMaxSuggestionTime() throws Exception {
+    final JLanguageTool tool = new JLanguageTool(new Demo());
+    final FooRule rule = new FooRule();
+    rule.sleepMillis = 30;
+    tool.addRule(rule);
+    tool.setMaxSuggestionTime(10);
+    final List<RuleMatch> matches = tool.check("A foo and another foo.");
+    assertEquals(3, matches.get(0).getSuggestedReplacements().size());
+    // the time is used up, so the second match doesn't get suggestions:
+    assertEquals(0, matches.get(1).getSuggestedReplacements().size());
+    assertEquals(1, rule.suggestionCalls);
+    // the next check has its own time:
+    assertEquals(3, tool.check("A foo.").get(0).getSuggestedReplacements().size());
+  }
+
+  private static class FooRule extends Rule {
+
+    private int suggestionCalls;
+    private long sleepMillis;
+
+    @Override
+    public String getId() {
+      return "FOO_RULE";
+    }
+
+    @Override
+    public String getDescription() {
+      return "Test rule with lazy suggestions";
+    }
+
+    @Override
+    public RuleMatch[] match(AnalyzedSentence text) {
+      final List<RuleMatch> matches = new ArrayList<>();
+      for (AnalyzedTokenReadings token : text.getTokensWithoutWhitespace()) {
+        if ("foo".equals(token.getToken())) {
+          final RuleMatch match = new RuleMatch(this, token.getStartPos(), token.getStartPos() + 3, "foo");
+          match.setLazySuggestedReplacements(new SuggestionProvider() {
+            @Override
+            public List<String> getSuggestions() {
+              suggestionCalls++;
+              try {
+                Thread.sleep(sleepMillis);
+              } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+              }
+              return Arrays.asList("bar", "baz", "qux");
+            }
+          });
+          matches.add(match);
+        }
+      }
+      return toRuleMatchArray(matches);
+    }
+
+    @Override
+    public void reset() {
+    }
+  }
+
+}
@@ -0,0 +1,172 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.tagging.disambiguation.rules.DisambiguationPatternRule;
+import org.languagetool.tagging.disambiguation.rules.DisambiguationRuleLoader;
+
+public class BinaryRuleCacheTest extends TestCase {
+
+  private static final String RULE_FILE = "/org/languagetool/rules/xx/grammar.xml";
+
+  private File cacheDir;
+
+  @Override
+  protected void setUp() throws Exception {
+    cacheDir = File.createTempFile("languagetool-rulecache", "");
+    assertTrue(cacheDir.delete());
+    BinaryRuleCache.setCacheDir(cacheDir);
+    CompiledPatternRules.clear();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    BinaryRuleCache.setCacheDir(null);
+    final File[] files = cacheDir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    cacheDir.delete();
+    CompiledPatternRules.clear();
+  }
+
+  public void testWriteAndRead() throws Exception {
+    assertNull(BinaryRuleCache.read(RULE_FILE));
+    final PatternRuleLoader loader = new PatternRuleLoader();
+    final List<PatternRule> rules = loader.getRules(JLanguageTool.getDataBroker().getFromRulesDirAsStream("/xx/grammar.xml"), RULE_FILE);
+    BinaryRuleCache.write(RULE_FILE, rules);
+    assertEquals(1, cacheDir.listFiles().length);
+
+    final List<PatternRule> cachedRules = BinaryRuleCache.read(RULE_FILE);
+    assertNotNull(cachedRules);
+    assertEquals(rules.size(), cachedRules.size());
+    for (int i = 0; i < rules.size(); i++) {
+      final PatternRule rule = rules.get(i);
+      final PatternRule cachedRule = cachedRules.get(i);
+      assertEquals(rule.toString(), cachedRule.toString());
+      assertEquals(rule.getMessage(), cachedRule.getMessage());
+      assertEquals(rule.getCategory().getName(), cachedRule.getCategory().getName());
+      assertEquals(rule.getCorrectExamples(), cachedRule.getCorrectExamples());
+      assertEquals(rule.getIncorrectExamples().size(), cachedRule.getIncorrectExamples().size());
+      assertEquals(rule.getUrl(), cachedRule.getUrl());
+      assertEquals(rule.isDefaultOff(), cachedRule.isDefaultOff());
+      assertSame(rule.getLanguage(), cachedRule.getLanguage());
+    }
+    assertNull(BinaryRuleCache.read(RULE_FILE, "other"));
+  }
+
+  public void testCheckWithCachedRules() throws Exception {
+    final String text = "This is foo bar. And this is foo bar, too.";
+    final JLanguageTool langTool1 = new JLanguageTool(new Demo());
+    langTool1.activateDefaultPatternRules();  // writes the cache
+    final List<RuleMatch> matches1 = langTool1.check(text);
+    assertTrue(cacheDir.listFiles().length > 0);
+
+    CompiledPatternRules.clear();
+    final JLanguageTool langTool2 = new JLanguageTool(new Demo());
+    langTool2.activateDefaultPatternRules();  // reads the cache
+    final List<RuleMatch> matches2 = langTool2.check(text);
+    assertTrue(matches1.size() > 0);
+    assertEquals(matches1.size(), matches2.size());
+    for (int i = 0; i < matches1.size(); i++) {
+      assertEquals(matches1.get(i).getRule().getId(), matches2.get(i).getRule().getId());
+      assertEquals(matches1.get(i).getMessage(), matches2.get(i).getMessage());
+    }
+  }
+
+  public void testReadOnlyCacheDir() throws Exception {
+    assertTrue(cacheDir.mkdirs());
+    assertTrue(cacheDir.setWritable(false));
+    try {
+      final PatternRuleLoader loader = new PatternRuleLoader();
+      final List<PatternRule> rules = loader.getRules(JLanguageTool.getDataBroker().getFromRulesDirAsStream("/xx/grammar.xml"), RULE_FILE);
+      BinaryRuleCache.write(RULE_FILE, rules);  // must not throw
+      final JLanguageTool langTool = new JLanguageTool(new Demo());
+      langTool.activateDefaultPatternRules();
+      assertTrue(langTool.check("This is foo bar.").size() > 0);
+      if (!cacheDir.canWrite()) {  // not when running as root
+        assertEquals(0, cacheDir.listFiles().length);
+      }
+    } finally {
+      cacheDir.setWritable(true);
+    }
+  }
+
+  public void testDisambiguationUnificationIsRestored() throws Exception {
+    final String feature = "cachetestnumber";
+    final File ruleFile = new File(cacheDir.getParentFile(), cacheDir.getName() + "-disambiguation.xml");
+    try {
+      try (OutputStream out = new FileOutputStream(ruleFile)) {
+        out.write(("<?xml version='1.0' encoding='utf-8'?>\n" +
+            "<rules lang='xx'>\n" +
+            "  <unification feature='" + feature + "'>\n" +
+            "    <equivalence type='sg'><token postag='.*S' postag_regexp='yes'/></equivalence>\n" +
+            "    <equivalence type='pl'><token postag='.*P' postag_regexp='yes'/></equivalence>\n" +
+            "  </unification>\n" +
+            "  <rule id='UNIFY_TEST' name='unify test'>\n" +
+            "    <pattern>\n" +
+            "      <unify><feature id='" + feature + "'/><token postag='D.*' postag_regexp='yes'/><token postag='N.*' postag_regexp='yes'/></unify>\n" +
+            "    </pattern>\n" +
+            "    <disambig action='filterall'/>\n" +
+            "  </rule>\n" +
+            "</rules>\n").getBytes(StandardCharsets.UTF_8));
+      }
+      final Language language = Language.getLanguageForShortName("xx");
+      final UnifierConfiguration config = language.getDisambiguationUnifierConfiguration();
+      final List<DisambiguationPatternRule> rules;
+      try (InputStream in = new FileInputStream(ruleFile)) {
+        rules = new DisambiguationRuleLoader().getRules(in);
+      }
+      assertTrue(config.getEquivalenceFeatures().containsKey(feature));
+      BinaryRuleCache.write(ruleFile.getPath(), rules);
+
+      // simulate a new start with an empty configuration:
+      config.getEquivalenceFeatures().remove(feature);
+      config.getEquivalenceTypes().remove(new EquivalenceTypeLocator(feature, "sg"));
+      config.getEquivalenceTypes().remove(new EquivalenceTypeLocator(feature, "pl"));
+
+      final List<DisambiguationPatternRule> cachedRules = BinaryRuleCache.read(ruleFile.getPath());
+      assertNotNull(cachedRules);
+      assertEquals(rules.size(), cachedRules.size());
+      assertEquals(2, config.getEquivalenceFeatures().get(feature).size());
+      assertNotNull(config.getEquivalenceTypes().get(new EquivalenceTypeLocator(feature, "sg")));
+      assertNotNull(config.getEquivalenceTypes().get(new EquivalenceTypeLocator(feature, "pl")));
+      assertFalse(language.getUnifierConfiguration().getEquivalenceFeatures().containsKey(feature));
+    } finally {
+      ruleFile.delete();
+    }
+  }
+
+}
@@ -0,0 +1,95 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.MultiThreadedJLanguageTool;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.RuleMatch;
+
+public class CompiledPatternRulesTest extends TestCase {
+
+  public void testRulesAreShared() throws Exception {
+    final List<PatternRule> rules1 = CompiledPatternRules.getRules(new Demo());
+    final List<PatternRule> rules2 = CompiledPatternRules.getRules(new Demo());
+    assertTrue(rules1.size() >= 30);
+    assertSame(rules1, rules2);
+    try {
+      rules1.clear();
+      fail();
+    } catch (UnsupportedOperationException expected) {
+      // expected
+    }
+
+    final JLanguageTool langTool1 = new JLanguageTool(new Demo());
+    langTool1.activateDefaultPatternRules();
+    final JLanguageTool langTool2 = new MultiThreadedJLanguageTool(new Demo());
+    langTool2.activateDefaultPatternRules();
+    assertSame(langTool1.getPatternRulesByIdAndSubId("DEMO_RULE", "1").get(0),
+               langTool2.getPatternRulesByIdAndSubId("DEMO_RULE", "1").get(0));
+  }
+
+  public void testSharedRulesCannotBeChanged() throws Exception {
+    final PatternRule rule = CompiledPatternRules.getRules(new Demo()).get(0);
+    assertTrue(rule.isShared());
+    try {
+      rule.setDefaultOff();
+      fail();
+    } catch (UnsupportedOperationException expected) {
+      // expected
+    }
+    try {
+      rule.setMessage("changed");
+      fail();
+    } catch (UnsupportedOperationException expected) {
+      // expected
+    }
+    // per-instance settings still work:
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    langTool.activateDefaultPatternRules();
+    langTool.disableRule(rule.getId());
+    assertFalse(rule.isDefaultOff());
+  }
+
+  public void testSharedRulesGiveSameResults() throws Exception {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    langTool.activateDefaultPatternRules();
+    final String text = "This is foo bar. And this is foo bar, too.";
+    final List<RuleMatch> matches1 = langTool.check(text);
+    final List<RuleMatch> matches2 = langTool.check(text);
+    assertEquals(matches1.size(), matches2.size());
+    for (int i = 0; i < matches1.size(); i++) {
+      assertEquals(matches1.get(i).getMessage(), matches2.get(i).getMessage());
+      assertEquals(matches1.get(i).getSuggestedReplacements(), matches2.get(i).getSuggestedReplacements());
+    }
+  }
+
+  public void testClear() throws Exception {
+    final List<PatternRule> rules1 = CompiledPatternRules.getRules(new Demo());
+    CompiledPatternRules.clear();
+    final List<PatternRule> rules2 = CompiledPatternRules.getRules(new Demo());
+    assertNotSame(rules1, rules2);
+    assertEquals(rules1.size(), rules2.size());
+  }
+
+}
@@ -43,6 +43,22 @@ public class ElementTest extends TestCase {
     assertFalse(element2.isSentenceStart());
   }
   
+  public void testPosRegExp() {
+    final Element element = new Element("", false, false, false);
+    element.setPosElement("NN.*|VB[DZ]", true, false);
+    final AnalyzedToken nn = new AnalyzedToken("foo", "NNS", null);
+    final AnalyzedToken vb = new AnalyzedToken("foo", "VBG", null);
+    // the second time, the result is remembered for the tag:
+    for (int i = 0; i < 2; i++) {
+      assertTrue(element.isMatched(nn));
+      assertFalse(element.isMatched(vb));
+      assertTrue(element.isMatched(new AnalyzedToken("bar", "VBZ", null)));
+    }
+    element.setPosElement("VB.", true, false);
+    assertFalse(element.isMatched(nn));
+    assertTrue(element.isMatched(vb));
+  }
+
   public void testUnknownTag() {
     final Element element = new Element("", false, false, false);
     element.setPosElement(Element.UNKNOWN_TAG, false, false);
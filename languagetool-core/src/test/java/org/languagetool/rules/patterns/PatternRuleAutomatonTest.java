@@ -0,0 +1,95 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2005 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.junit.Test;
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.JLanguageTool;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PatternRuleAutomatonTest {
+
+  private static final String TEXT = "This is foo bar. A foo chunkbar here. Foo Bar and a d, b d and c d. b f x. "
+          + "Some foo bar foo bar.\n\nAnd a test with nothing.";
+
+  @Test
+  public void testSameResults() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    langTool.activateDefaultPatternRules();
+    final List<String> expected = toStrings(langTool.check(TEXT));
+    langTool.setUsePatternRuleAutomaton(true);
+    assertEquals(expected, toStrings(langTool.check(TEXT)));
+    langTool.setUsePatternRuleAutomaton(false);
+    assertEquals(expected, toStrings(langTool.check(TEXT)));
+  }
+
+  @Test
+  public void testSharedPrefix() throws IOException {
+    final PatternRule fooBar = makeRule("foo", "bar");
+    final PatternRule fooBaz = makeRule("foo", "baz");
+    final Element sentStart = new Element("", false, false, false);
+    sentStart.setPosElement(JLanguageTool.SENTENCE_START_TAGNAME, false, false);
+    final PatternRule atStart = makeRule(sentStart, new Element("foo", false, false, false));
+    final PatternRuleAutomaton automaton = new PatternRuleAutomaton(Arrays.asList(fooBar, fooBaz, atStart));
+    assertTrue(automaton.contains(fooBar));
+    assertTrue(automaton.contains(fooBaz));
+    assertFalse(automaton.contains(atStart));
+    assertEquals(2, automaton.size());
+    final AnalyzedSentence sentence = new JLanguageTool(new Demo()).getAnalyzedSentence("A foo baz and FOO bar.");
+    final PatternRuleAutomaton.Candidates candidates = automaton.scan(sentence);
+    assertEquals(1, candidates.match(fooBar).length);
+    assertEquals(1, candidates.match(fooBaz).length);
+    assertEquals(toStrings(fooBar.match(sentence)), toStrings(candidates.match(fooBar)));
+  }
+
+  private PatternRule makeRule(String... words) {
+    final List<Element> elements = new ArrayList<>();
+    for (String word : words) {
+      elements.add(new Element(word, false, false, false));
+    }
+    return makeRule(elements.toArray(new Element[elements.size()]));
+  }
+
+  private PatternRule makeRule(Element... elements) {
+    return new PatternRule("ID1", new Demo(), Arrays.asList(elements), "desc", "msg", "short msg");
+  }
+
+  private List<String> toStrings(RuleMatch[] matches) {
+    return toStrings(Arrays.asList(matches));
+  }
+
+  private List<String> toStrings(List<RuleMatch> matches) {
+    final List<String> result = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      result.add(match + "/" + match.getLine() + "/" + match.getColumn() + "/" + match.getSuggestedReplacements());
+    }
+    return result;
+  }
+
+}
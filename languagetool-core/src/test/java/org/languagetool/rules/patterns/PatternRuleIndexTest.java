@@ -0,0 +1,101 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.junit.Test;
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+import org.languagetool.language.Demo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PatternRuleIndexTest {
+
+  private final PatternRuleIndex<PatternRule> index = new PatternRuleIndex<>(Arrays.asList(
+          rule(new Element("foo|bar", false, true, false)),
+          rule(new Element("any.*", false, true, false)),
+          rule(posElement("NN")),
+          rule(posElement("VB.*|JJ")),
+          rule(new Element("Bar", true, false, false))));
+
+  @Test
+  public void testGetCandidates() {
+    assertEquals("[1]", getCandidates(index.getCandidates(sentence("a/DT"))));
+    assertEquals("[0, 1, 4]", getCandidates(index.getCandidates(sentence("a/DT", "BAR/XX"))));
+    assertEquals("[1, 2, 3]", getCandidates(index.getCandidates(sentence("a/NN", "b/VBZ"))));
+    assertEquals("[1, 3]", getCandidates(index.getCandidates(sentence("a/JJ"))));
+    final PatternRuleIndex<PatternRule>.Candidates candidates = index.getCandidates(sentence("foo/NN"));
+    assertEquals(0, candidates.next(0));
+    assertEquals(2, candidates.next(2));
+    assertEquals(-1, candidates.next(3));
+  }
+
+  @Test
+  public void testUpdate() {
+    final AnalyzedSentence sentence = sentence("foo/NN", "b/DT");
+    final PatternRuleIndex<PatternRule>.Candidates candidates = index.getCandidates(sentence);
+    assertEquals("[0, 1, 2]", getCandidates(candidates));
+    final AnalyzedTokenReadings[] tokens = sentence.getTokens();
+    tokens[1].addReading(new AnalyzedToken("b", "VBZ", "b"));
+    tokens[0] = new AnalyzedTokenReadings(new AnalyzedToken("x", "NN", "foo"), 0);
+    candidates.update(new AnalyzedSentence(tokens));
+    assertEquals("[0, 1, 2, 3]", getCandidates(candidates));
+    tokens[0] = new AnalyzedTokenReadings(new AnalyzedToken("x", "DT", "x"), 0);
+    candidates.update(new AnalyzedSentence(tokens));
+    assertEquals("[1, 3]", getCandidates(candidates));
+    tokens[1] = new AnalyzedTokenReadings(new AnalyzedToken("b", "DT", "b"), 4);
+    candidates.update(new AnalyzedSentence(tokens));
+    assertEquals("[1]", getCandidates(candidates));
+  }
+
+  private PatternRule rule(Element element) {
+    return new PatternRule("RULE", new Demo(), Collections.singletonList(element), "descr", "message", "short");
+  }
+
+  private Element posElement(String posTag) {
+    final Element element = new Element("", false, false, false);
+    element.setPosElement(posTag, posTag.contains("|"), false);
+    return element;
+  }
+
+  // tokens in the form word/POS
+  private AnalyzedSentence sentence(String... tokens) {
+    final AnalyzedTokenReadings[] readings = new AnalyzedTokenReadings[tokens.length];
+    for (int i = 0; i < tokens.length; i++) {
+      final String[] parts = tokens[i].split("/");
+      readings[i] = new AnalyzedTokenReadings(new AnalyzedToken(parts[0], parts[1], parts[0]), i * 5);
+    }
+    return new AnalyzedSentence(readings);
+  }
+
+  private String getCandidates(PatternRuleIndex<PatternRule>.Candidates candidates) {
+    final List<Integer> result = new ArrayList<>();
+    for (int i = candidates.next(0); i >= 0; i = candidates.next(i + 1)) {
+      result.add(i);
+    }
+    return result.toString();
+  }
+
+}
@@ -383,10 +383,30 @@ public class PatternRuleTest extends TestCase {
     return matches.length > 0;
   }
 
+  private List<String> toStrings(final RuleMatch[] matches) {
+    final List<String> result = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      result.add(match + ":" + match.getSuggestedReplacements());
+    }
+    return result;
+  }
+
   private List<RuleMatch> getMatches(final Rule rule, final String sentence,
       final JLanguageTool languageTool) throws IOException {
     final AnalyzedSentence text = languageTool.getAnalyzedSentence(sentence);
     final RuleMatch[] matches = rule.match(text);
+    if (matches.length > 0 && rule instanceof PatternRule) {
+      assertTrue("Rule matches, but canMatch() returns false for \"" + sentence + "\": " + rule,
+              ((PatternRule) rule).canMatch(new TokenSet(text)));
+    }
+    if (rule instanceof PatternRule) {
+      final PatternRuleAutomaton automaton = new PatternRuleAutomaton(Collections.singletonList(rule));
+      if (automaton.contains((PatternRule) rule)) {
+        final RuleMatch[] automatonMatches = automaton.scan(text).match((PatternRule) rule);
+        assertEquals("Matches found with PatternRuleAutomaton differ for \"" + sentence + "\": " + rule,
+                toStrings(matches), toStrings(automatonMatches));
+      }
+    }
     if (CHECK_WITH_SENTENCE_SPLITTING) {
       // "real check" with sentence splitting:
       for (Rule r : languageTool.getAllActiveRules()) {
@@ -0,0 +1,87 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import junit.framework.TestCase;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+
+public class ReferenceElementCacheTest extends TestCase {
+
+  public void testGetCompiled() throws Exception {
+    final ReferenceElementCache cache = new ReferenceElementCache(10);
+    final Element element = makeReferenceElement();
+
+    final Element compiled1 = cache.getCompiled(element, makeToken("foo", "lemma", "NN"), null);
+    assertTrue(compiled1.isMatched(new AnalyzedToken("foo", null, null)));
+    assertFalse(compiled1.isMatched(new AnalyzedToken("bar", null, null)));
+    assertEquals(0, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+
+    final Element compiled2 = cache.getCompiled(element, makeToken("foo", "lemma", "NN"), null);
+    assertSame(compiled1, compiled2);
+    assertEquals(1, cache.getHitCount());
+
+    // a different reading of the same word is a different entry:
+    final Element compiled3 = cache.getCompiled(element, makeToken("foo", "lemma", "VB"), null);
+    assertNotSame(compiled1, compiled3);
+    final Element compiled4 = cache.getCompiled(element, makeToken("bar", "lemma", "NN"), null);
+    assertTrue(compiled4.isMatched(new AnalyzedToken("bar", null, null)));
+    // so is the same word for a different element:
+    final Element compiled5 = cache.getCompiled(makeReferenceElement(), makeToken("foo", "lemma", "NN"), null);
+    assertNotSame(compiled1, compiled5);
+    assertEquals(1, cache.getHitCount());
+    assertEquals(4, cache.getMissCount());
+    assertEquals(4, cache.size());
+
+    // the original element is not changed:
+    assertEquals("\\0", element.getString());
+  }
+
+  public void testMaxSize() throws Exception {
+    final ReferenceElementCache cache = new ReferenceElementCache(2);
+    final Element element = makeReferenceElement();
+    cache.getCompiled(element, makeToken("a", null, null), null);
+    cache.getCompiled(element, makeToken("b", null, null), null);
+    cache.getCompiled(element, makeToken("a", null, null), null);
+    cache.getCompiled(element, makeToken("c", null, null), null);
+    assertEquals(2, cache.size());
+    // "b" was the least recently used entry:
+    cache.getCompiled(element, makeToken("a", null, null), null);
+    assertEquals(2, cache.getHitCount());
+    cache.getCompiled(element, makeToken("b", null, null), null);
+    assertEquals(2, cache.getHitCount());
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  private Element makeReferenceElement() {
+    final Element element = new Element("\\0", false, false, false);
+    final Match match = new Match(null, null, false, null, null, Match.CaseConversion.NONE, false, false, Match.IncludeRange.NONE);
+    match.setTokenRef(0);
+    match.setInMessageOnly(true);
+    element.setMatch(match);
+    return element;
+  }
+
+  private AnalyzedTokenReadings makeToken(final String word, final String lemma, final String posTag) {
+    return new AnalyzedTokenReadings(new AnalyzedToken(word, posTag, lemma), 0);
+  }
+
+}
@@ -0,0 +1,175 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public class SimpleRegexMatcherTest extends TestCase {
+
+  private static final String[] INPUTS = {"", "a", "A", "an", "An", "AN", "the", "The", "them", "thé", "ThÉ",
+          "NN", "NNS", "NN:UT", "VB", "aNN", "ung", "Zeitung", "ZEITUNG", "Zeit\nung", "NN\n", "a\u2028b", "a.b", "a-b", "aXb",
+          "a|b", "(a)", "straße", "STRAẞE", "strasse", "STRASSE", "ı", "I", "i", "İ", "ſ", "s", "S", "k", "K", "µ", "μ", "Μ"};
+
+  public void testSimpleExpressions() {
+    assertSimple("a|an|the");
+    assertSimple("(a|an|the)");
+    assertSimple("(?:a|an|the)");
+    assertSimple("an?|the");
+    assertSimple("[Aa]n|th[ex.]");
+    assertSimple("[-.]|a[b-]");
+    assertSimple("(a|th(e|é))(m|N.+)?");
+    assertSimple("NN.*");
+    assertSimple("NN.+");
+    assertSimple("NN.*|VB");
+    assertSimple("NN(:UT)?|V.");
+    assertSimple("a.b");
+    assertSimple(".*ung");
+    assertSimple(".+ung");
+    assertSimple(".*");
+    assertSimple(".*N.*");
+    assertSimple("a\\.b|a\\-b|a\\|b|\\(a\\)");
+    assertSimple("a|");
+    assertSimple("thé|strasse");
+    assertSimple("ı|s|k|μ");
+  }
+
+  public void testComplexExpressions() {
+    assertNotSimple("[a-z]n");
+    assertNotSimple("[^a]n");
+    assertNotSimple("[a[b]]");
+    assertNotSimple("a+");
+    assertNotSimple("a*");
+    assertNotSimple("a??");
+    assertNotSimple(".*?");
+    assertNotSimple("\\p{Lu}.*");
+    assertNotSimple("\\d+");
+    assertNotSimple("^a$");
+    assertNotSimple("(?i)a");
+    assertNotSimple("(?!a)b");
+    assertNotSimple("a{2}");
+    assertNotSimple("a\\");
+    assertNotSimple("(a");
+    assertNotSimple("a)");
+    assertNotSimple("a?b?c?d?e?f?g?h?i?j?k?");
+    assertNotSimple("a.*|b.*|c.*|d.*|e.*|f.*|g.*|h.*|i.*");
+    // for these, Pattern matches characters in classes differently if case-insensitive:
+    assertNull(SimpleRegexMatcher.create("[kK]", false));
+    assertNull(SimpleRegexMatcher.create("[äÄ]", false));
+    assertNotNull(SimpleRegexMatcher.create("[äÄ]", true));
+  }
+
+  public void testSurrogates() {
+    final String s = new String(Character.toChars(0x1F600));
+    assertSimple("a.b", "a" + s + "b", "a" + s + s + "b");
+    assertSimple(".+", s, s + "\n");
+  }
+
+  public void testRandomExpressions() {
+    final Random random = new Random(4711);
+    final String[] parts = {"a", "b", "A", "é", "ä", "[ab]", "[aé]", ".", ".*", ".+", "(a|b)", "(a|)", "?", "|", "x"};
+    final String[] inputChars = {"a", "b", "A", "B", "é", "É", "ä", "Ä", "x", "X", "\n"};
+    int simpleCount = 0;
+    for (int i = 0; i < 5000; i++) {
+      final StringBuilder regex = new StringBuilder();
+      final int length = random.nextInt(6) + 1;
+      for (int j = 0; j < length; j++) {
+        regex.append(parts[random.nextInt(parts.length)]);
+      }
+      final Pattern pattern;
+      try {
+        pattern = Pattern.compile(regex.toString());
+      } catch (PatternSyntaxException e) {
+        continue;
+      }
+      final boolean caseSensitive = random.nextBoolean();
+      final SimpleRegexMatcher matcher = SimpleRegexMatcher.create(regex.toString(), caseSensitive);
+      if (matcher != null) {
+        simpleCount++;
+        final Pattern expected = caseSensitive ? pattern : Pattern.compile("(?iu)" + regex);
+        for (int k = 0; k < 30; k++) {
+          final StringBuilder input = new StringBuilder();
+          final int inputLength = random.nextInt(6);
+          for (int l = 0; l < inputLength; l++) {
+            input.append(inputChars[random.nextInt(inputChars.length)]);
+          }
+          assertEquals(regex + " on '" + input + "', case-sensitive: " + caseSensitive,
+                  expected.matcher(input).matches(), matcher.matches(input.toString()));
+        }
+      }
+    }
+    assertTrue(simpleCount > 1000);
+  }
+
+  public void testCaseFolding() {
+    // characters for which Pattern's different case-insensitive comparisons disagree are left to Pattern:
+    // (lower case "ß" is also the folded form of upper case "ẞ", but "ß" on its own doesn't match "ẞ"):
+    assertNull(SimpleRegexMatcher.create("ß", false));
+    assertNull(SimpleRegexMatcher.create("straße", false));
+    assertNotNull(SimpleRegexMatcher.create("straße", true));
+    // all others must work like Pattern:
+    for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+      final String s = String.valueOf((char) c);
+      final SimpleRegexMatcher matcher = SimpleRegexMatcher.create(escape(s), false);
+      if (matcher != null) {
+        final Pattern pattern = Pattern.compile("(?iu)" + escape(s));
+        for (String input : INPUTS) {
+          assertEquals("'" + s + "' (" + c + ") on '" + input + "'",
+                  pattern.matcher(input).matches(), matcher.matches(input));
+        }
+        final String upper = String.valueOf(Character.toUpperCase((char) c));
+        final String lower = String.valueOf(Character.toLowerCase((char) c));
+        assertEquals(pattern.matcher(upper).matches(), matcher.matches(upper));
+        assertEquals(pattern.matcher(lower).matches(), matcher.matches(lower));
+        assertEquals(pattern.matcher(upper + lower).matches(), matcher.matches(upper + lower));
+      }
+    }
+  }
+
+  private String escape(final String s) {
+    final char c = s.charAt(0);
+    return Character.isLetterOrDigit(c) || Character.isSurrogate(c) ? s : "\\" + s;
+  }
+
+  private void assertSimple(final String regex, final String... moreInputs) {
+    for (boolean caseSensitive : new boolean[] {true, false}) {
+      final SimpleRegexMatcher matcher = SimpleRegexMatcher.create(regex, caseSensitive);
+      assertNotNull(regex, matcher);
+      final Pattern pattern = Pattern.compile(caseSensitive ? regex : "(?iu)" + regex);
+      final List<String> inputs = new ArrayList<>(Arrays.asList(INPUTS));
+      inputs.addAll(Arrays.asList(moreInputs));
+      for (String input : inputs) {
+        assertEquals(regex + " on '" + input + "', case-sensitive: " + caseSensitive,
+                pattern.matcher(input).matches(), matcher.matches(input));
+      }
+    }
+  }
+
+  private void assertNotSimple(final String regex) {
+    assertNull(regex, SimpleRegexMatcher.create(regex, true));
+    assertNull(regex, SimpleRegexMatcher.create(regex, false));
+  }
+
+}
@@ -0,0 +1,95 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2005 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.junit.Test;
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+import org.languagetool.JLanguageTool;
+import org.languagetool.language.Demo;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TokenRequirementTest {
+
+  @Test
+  public void testWords() throws IOException {
+    final TokenRequirement requirement = TokenRequirement.create(Arrays.asList(new Element("foo|Bar", false, true, false)));
+    assertTrue(requirement.isSatisfiedBy(getTokenSet("It is FOO.")));
+    assertTrue(requirement.isSatisfiedBy(getTokenSet("A bar.")));
+    assertFalse(requirement.isSatisfiedBy(getTokenSet("That is it.")));
+    // the element with the fewest alternatives is used:
+    final TokenRequirement requirement2 = TokenRequirement.create(Arrays.asList(
+            new Element("foo|Bar", false, true, false), new Element("this", false, false, false)));
+    assertTrue(requirement2.isSatisfiedBy(getTokenSet("This is it.")));
+    assertFalse(requirement2.isSatisfiedBy(getTokenSet("It is foo.")));
+  }
+
+  @Test
+  public void testNoRequirement() throws IOException {
+    final Element optional = new Element("foo", false, false, false);
+    optional.setMinOccurrence(0);
+    final Element negated = new Element("bar", false, false, false);
+    negated.setNegation(true);
+    assertSame(TokenRequirement.NONE, TokenRequirement.create(Arrays.asList(optional, negated,
+            new Element("fo+", false, true, false), new Element("", false, false, false))));
+    assertTrue(TokenRequirement.NONE.isSatisfiedBy(getTokenSet("Anything.")));
+  }
+
+  @Test
+  public void testOrGroup() throws IOException {
+    // the loader creates one rule per element of the OR group, so only the element itself counts:
+    final Element element = new Element("foo", false, false, false);
+    element.setOrGroupElement(new Element("ba.", false, true, false));
+    final TokenRequirement requirement = TokenRequirement.create(Arrays.asList(element));
+    assertTrue(requirement.isSatisfiedBy(getTokenSet("A foo.")));
+    assertFalse(requirement.isSatisfiedBy(getTokenSet("A bar.")));
+  }
+
+  @Test
+  public void testPosTags() {
+    final Element element = new Element("", false, false, false);
+    element.setPosElement("NN|VB.*", true, false);
+    final TokenRequirement requirement = TokenRequirement.create(Arrays.asList(element));
+    assertTrue(requirement.isSatisfiedBy(getTokenSetWithTags("VBZ")));
+    assertTrue(requirement.isSatisfiedBy(getTokenSetWithTags("NN")));
+    assertFalse(requirement.isSatisfiedBy(getTokenSetWithTags("NNS")));
+    element.setPosElement("NN|UNKNOWN", true, false);
+    assertSame(TokenRequirement.NONE, TokenRequirement.create(Arrays.asList(element)));
+  }
+
+  private TokenSet getTokenSet(String sentence) throws IOException {
+    return new TokenSet(new JLanguageTool(new Demo()).getAnalyzedSentence(sentence));
+  }
+
+  private TokenSet getTokenSetWithTags(String... posTags) {
+    final AnalyzedTokenReadings[] tokens = new AnalyzedTokenReadings[posTags.length];
+    for (int i = 0; i < posTags.length; i++) {
+      tokens[i] = new AnalyzedTokenReadings(new AnalyzedToken("word", posTags[i], "word"), i * 5);
+    }
+    return new TokenSet(new AnalyzedSentence(tokens));
+  }
+
+}
@@ -0,0 +1,80 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.spelling;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SpellingCacheTest extends TestCase {
+
+  public void testSharedPerName() {
+    assertSame(SpellingCache.getInstance("test:shared"), SpellingCache.getInstance("test:shared"));
+    assertNotSame(SpellingCache.getInstance("test:shared"), SpellingCache.getInstance("test:other"));
+  }
+
+  public void testMisspelled() {
+    final SpellingCache cache = SpellingCache.getInstance("test:misspelled");
+    assertNull(cache.isMisspelled("foo"));
+    cache.setMisspelled("foo", true);
+    cache.setMisspelled("bar", false);
+    assertTrue(cache.isMisspelled("foo"));
+    assertFalse(cache.isMisspelled("bar"));
+    assertEquals(2, cache.getMisspelledHitCount());
+    assertEquals(1, cache.getMisspelledMissCount());
+    assertEquals(2.0 / 3, cache.getMisspelledHitRate(), 0.0001);
+    cache.clear();
+    assertNull(cache.isMisspelled("foo"));
+  }
+
+  public void testSuggestions() {
+    final SpellingCache cache = SpellingCache.getInstance("test:suggestions");
+    assertEquals(0.0, cache.getSuggestionHitRate());
+    assertNull(cache.getSuggestions("fo"));
+    final List<String> suggestions = new ArrayList<>(Arrays.asList("foo", "for"));
+    cache.setSuggestions("fo", suggestions);
+    suggestions.clear();
+    final List<String> cached = cache.getSuggestions("fo");
+    assertEquals(Arrays.asList("foo", "for"), cached);
+    cached.clear();  // the caller gets a copy
+    assertEquals(Arrays.asList("foo", "for"), cache.getSuggestions("fo"));
+    assertEquals(2, cache.getSuggestionHitCount());
+    assertEquals(1, cache.getSuggestionMissCount());
+  }
+
+  public void testSuggestionsWithVersion() {
+    final SpellingCache cache = SpellingCache.getInstance("test:version");
+    cache.setSuggestions("fo", Arrays.asList("foo"), 1);
+    assertEquals(Arrays.asList("foo"), cache.getSuggestions("fo", 1));
+    // the dictionary has been modified:
+    assertNull(cache.getSuggestions("fo", 2));
+    // suggestions created before the modification are not stored:
+    cache.setSuggestions("fo", Arrays.asList("foo"), 1);
+    assertNull(cache.getSuggestions("fo", 2));
+    cache.setSuggestions("fo", Arrays.asList("foo", "for"), 2);
+    assertEquals(Arrays.asList("foo", "for"), cache.getSuggestions("fo", 2));
+    // a newer version from another thread that hasn't read the cache yet:
+    cache.setSuggestions("ba", Arrays.asList("bar"), 3);
+    assertNull(cache.getSuggestions("fo", 3));
+    assertEquals(Arrays.asList("bar"), cache.getSuggestions("ba", 3));
+  }
+
+}
@@ -0,0 +1,68 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import junit.framework.TestCase;
+
+public class PosTagTableTest extends TestCase {
+
+  public void testTable() {
+    final String tag = new String("PosTagTableTest:TAG");
+    final int id = PosTagTable.getId(tag);
+    assertTrue(id >= 0);
+    assertTrue(id < PosTagTable.size());
+    assertEquals(id, PosTagTable.getId("PosTagTableTest:TAG"));
+    assertSame(tag, PosTagTable.getTag(id));
+    assertSame(tag, PosTagTable.intern(new String("PosTagTableTest:TAG")));
+    assertTrue(PosTagTable.getId("PosTagTableTest:TAG2") != id);
+    assertEquals(PosTagTable.NO_ID, PosTagTable.getId(null));
+    assertNull(PosTagTable.intern(null));
+  }
+
+  public void testManyTags() {
+    for (int i = 0; i < 1000; i++) {
+      final int id = PosTagTable.getId("PosTagTableTest:" + i);
+      assertEquals("PosTagTableTest:" + i, PosTagTable.getTag(id));
+    }
+  }
+
+  public void testLongTag() {
+    final StringBuilder sb = new StringBuilder("PosTagTableTest:");
+    while (sb.length() <= PosTagTable.MAX_TAG_LENGTH) {
+      sb.append("x");
+    }
+    final String tag = sb.toString();
+    final int size = PosTagTable.size();
+    assertEquals(PosTagTable.NO_ID, PosTagTable.getId(tag));
+    assertSame(tag, PosTagTable.intern(tag));
+    assertEquals(size, PosTagTable.size());
+    final String maxLengthTag = tag.substring(0, PosTagTable.MAX_TAG_LENGTH);
+    assertEquals(maxLengthTag, PosTagTable.getTag(PosTagTable.getId(maxLengthTag)));
+  }
+
+  public void testUnknownId() {
+    try {
+      PosTagTable.getTag(-1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+  }
+
+}
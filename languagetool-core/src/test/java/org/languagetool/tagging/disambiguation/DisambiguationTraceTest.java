@@ -0,0 +1,84 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging.disambiguation;
+
+import junit.framework.TestCase;
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+import org.languagetool.JLanguageTool;
+import org.languagetool.chunking.ChunkTag;
+import org.languagetool.language.Demo;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class DisambiguationTraceTest extends TestCase {
+
+  public void testTrace() {
+    final AnalyzedTokenReadings token = new AnalyzedTokenReadings(new AnalyzedToken[] {
+        new AnalyzedToken("walks", "NNS", "walk"), new AnalyzedToken("walks", "VBZ", "walk")}, 0);
+    token.setDisambiguationTrace(DisambiguationTrace.start());
+    assertEquals("", token.getHistoricalAnnotations());
+
+    final String before = token.toString();
+    final DisambiguationTrace.Change change = DisambiguationTrace.begin(token);
+    token.removeReading(new AnalyzedToken("walks", "VBZ", "walk"));
+    change.end(token, "RULE", "1");
+    final String expected = "\nRULE:1 " + before + " -> " + token.toString();
+    assertEquals(expected, token.getHistoricalAnnotations());
+
+    // later changes don't modify the logged readings:
+    final AnalyzedTokenReadings replacement = new AnalyzedTokenReadings(new AnalyzedToken("walks", "NNS", "walk"), 0);
+    replacement.setChunkTags(Arrays.asList(new ChunkTag("B-NP")));
+    final String beforeReplacement = token.toString();
+    final DisambiguationTrace.Change change2 = DisambiguationTrace.begin(token);
+    token.addReading(new AnalyzedToken("walks", "XX", "walk"));
+    change2.end(replacement, "CHUNKER", null);
+    assertEquals(expected, token.getHistoricalAnnotations());
+    assertEquals(expected + "\nCHUNKER: " + beforeReplacement + " -> " + replacement.toString(),
+        replacement.getHistoricalAnnotations());
+  }
+
+  public void testNotTraced() {
+    final AnalyzedTokenReadings token = new AnalyzedTokenReadings(new AnalyzedToken("walks", "NNS", "walk"), 0);
+    assertNull(token.getDisambiguationTrace());
+    assertNull(DisambiguationTrace.begin(token));
+    assertEquals("", token.getHistoricalAnnotations());
+  }
+
+  public void testSetHistoricalAnnotations() {
+    final AnalyzedTokenReadings token = new AnalyzedTokenReadings(new AnalyzedToken("walks", "NNS", "walk"), 0);
+    token.setDisambiguationTrace(DisambiguationTrace.start());
+    token.setHistoricalAnnotations("foo");
+    DisambiguationTrace.begin(token).end(token, "RULE", "2");
+    assertEquals("foo\nRULE:2 walks[walk/NNS*] -> walks[walk/NNS*]", token.getHistoricalAnnotations());
+  }
+
+  public void testJLanguageTool() throws IOException {
+    final JLanguageTool tool = new JLanguageTool(new Demo());
+    assertNull(tool.getAnalyzedSentence("A test.").getTokens()[1].getDisambiguationTrace());
+    tool.setTraceDisambiguation(true);
+    final AnalyzedSentence sentence = tool.getAnalyzedSentence("A test.");
+    for (AnalyzedTokenReadings token : sentence.getTokens()) {
+      assertNotNull(token.getDisambiguationTrace());
+    }
+  }
+
+}
@@ -60,6 +60,7 @@ public class DisambiguationRuleTest extends TestCase {
       System.out.println("Running disambiguation tests for " + lang.getName() + "...");
       final DisambiguationRuleLoader ruleLoader = new DisambiguationRuleLoader();
       final JLanguageTool languageTool = new JLanguageTool(lang);
+      languageTool.setTraceDisambiguation(true);  // for the error messages
       if (!(languageTool.getLanguage().getDisambiguator() instanceof DemoDisambiguator)
           && !(languageTool.getLanguage().getDisambiguator() instanceof TrimDisambiguator)) {
         final String name = JLanguageTool.getDataBroker().getResourceDir() + "/" + lang.getShortName()
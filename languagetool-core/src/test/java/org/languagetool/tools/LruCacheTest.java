@@ -0,0 +1,64 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tools;
+
+import junit.framework.TestCase;
+
+public class LruCacheTest extends TestCase {
+
+  public void testGetAndPut() {
+    final LruCache<String, String> cache = new LruCache<>(100);
+    assertNull(cache.get("a"));
+    cache.put("a", "1");
+    cache.put("b", "2");
+    assertEquals("1", cache.get("a"));
+    assertEquals("2", cache.get("b"));
+    assertEquals(2, cache.size());
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertNull(cache.get("a"));
+  }
+
+  public void testLeastRecentlyUsedAreRemoved() {
+    final LruCache<Integer, Integer> cache = new LruCache<>(1000);
+    for (int i = 0; i < 10_000; i++) {
+      cache.put(i, i);
+      assertEquals(Integer.valueOf(0), cache.get(0));  // keep using entry 0
+    }
+    assertTrue(cache.size() <= 1000);
+    assertTrue(cache.size() > 900);
+    assertEquals(Integer.valueOf(0), cache.get(0));
+    assertEquals(Integer.valueOf(9999), cache.get(9999));
+    assertNull(cache.get(1));
+  }
+
+  public void testSmallCache() {
+    final LruCache<String, String> cache = new LruCache<>(1);
+    cache.put("a", "1");
+    cache.put("b", "2");
+    assertEquals(1, cache.size());
+    assertEquals("2", cache.get("b"));
+    try {
+      new LruCache<String, String>(0);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+}
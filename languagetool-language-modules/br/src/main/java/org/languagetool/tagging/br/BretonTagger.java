@@ -25,7 +25,6 @@ import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import morfologik.stemming.DictionaryLookup;
 import morfologik.stemming.IStemmer;
 
 import org.languagetool.AnalyzedToken;
@@ -76,7 +75,7 @@ public class BretonTagger extends BaseTagger {
     List<AnalyzedToken> upperTaggerTokens;
     final List<AnalyzedTokenReadings> tokenReadings = new ArrayList<>();
     int pos = 0;
-    final IStemmer dictLookup = new DictionaryLookup(getDictionary());
+    final IStemmer dictLookup = getStemmer();
 
     Matcher matcher;
     for (String word : sentenceTokens) {
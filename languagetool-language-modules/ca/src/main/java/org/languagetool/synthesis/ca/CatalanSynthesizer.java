@@ -90,7 +90,7 @@ public class CatalanSynthesizer extends BaseSynthesizer {
       p = Pattern.compile(posTag);
     }
     final ArrayList<String> results = new ArrayList<>();
-    final IStemmer synthesizer = createStemmer();
+    final IStemmer synthesizer = getStemmer();
     
     for (final String tag : possibleTags) {
       final Matcher m = p.matcher(tag);
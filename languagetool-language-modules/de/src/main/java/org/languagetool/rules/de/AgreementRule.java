@@ -239,11 +239,11 @@ public class AgreementRule extends GermanRule {
 
   private boolean isNonPredicativeAdjective(AnalyzedTokenReadings tokensReadings) {
     for (AnalyzedToken reading : tokensReadings.getReadings()) {
-      if (reading instanceof AnalyzedGermanToken) {
-        final AnalyzedGermanToken germanReading = (AnalyzedGermanToken) reading;
-        if (germanReading.getType() == POSType.ADJEKTIV && !germanReading.getPOSTag().contains("PRD")) {
-          return true;
-        }
+      // readings are not always AnalyzedGermanTokens, e.g. if added by the disambiguator:
+      final AnalyzedGermanToken germanReading = reading instanceof AnalyzedGermanToken
+              ? (AnalyzedGermanToken) reading : new AnalyzedGermanToken(reading);
+      if (germanReading.getType() == POSType.ADJEKTIV && !germanReading.getPOSTag().contains("PRD")) {
+        return true;
       }
     }
     return false;
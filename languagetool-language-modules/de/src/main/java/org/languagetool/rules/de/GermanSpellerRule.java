@@ -18,13 +18,12 @@
  */
 package org.languagetool.rules.de;
 
-import de.abelssoft.wordtools.jwordsplitter.AbstractWordSplitter;
-import de.abelssoft.wordtools.jwordsplitter.impl.GermanWordSplitter;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.rules.spelling.hunspell.CompoundAwareHunspellRule;
 import org.languagetool.rules.spelling.morfologik.MorfologikSpeller;
 import org.languagetool.tokenizers.CompoundWordTokenizer;
+import org.languagetool.tokenizers.de.GermanCompoundTokenizer;
 
 import java.io.IOException;
 import java.util.*;
@@ -81,15 +80,8 @@ public class GermanSpellerRule extends CompoundAwareHunspellRule {
   
   private static CompoundWordTokenizer getCompoundSplitter() {
     try {
-      final AbstractWordSplitter wordSplitter = new GermanWordSplitter(false);
-      wordSplitter.setStrictMode(false); // there's a spelling mistake in (at least) one part, so strict mode wouldn't split the word
-      ((GermanWordSplitter)wordSplitter).setMinimumWordLength(3);
-      return new CompoundWordTokenizer() {
-        @Override
-        public List<String> tokenize(String word) {
-          return new ArrayList<>(wordSplitter.splitWord(word));
-        }
-      };
+      // there's a spelling mistake in (at least) one part, so strict mode wouldn't split the word:
+      return new GermanCompoundTokenizer(false);
     } catch (IOException e) {
       throw new RuntimeException("Could not set up German compound splitter", e);
     }
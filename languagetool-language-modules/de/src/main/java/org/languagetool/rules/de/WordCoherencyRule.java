@@ -140,4 +140,9 @@ public class WordCoherencyRule extends GermanRule {
     shouldNotAppearWord = new HashMap<>();
   }
 
+  @Override
+  public boolean dependsOnPreviousSentences() {
+    return true;
+  }
+
 }
@@ -19,7 +19,6 @@
 package org.languagetool.tagging.de;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -56,8 +55,7 @@ public class GermanTagger implements Tagger {
   }
 
   protected void initialize() throws IOException {
-    final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(DICT_FILENAME);
-    dictionary = Dictionary.read(url);
+    dictionary = JLanguageTool.getDataBroker().getFromResourceDirAsDictionary(DICT_FILENAME);
     manualTagger = new ManualTagger(JLanguageTool.getDataBroker().getFromResourceDirAsStream(USER_DICT_FILENAME));
     compoundTokenizer = new GermanCompoundTokenizer();
   }
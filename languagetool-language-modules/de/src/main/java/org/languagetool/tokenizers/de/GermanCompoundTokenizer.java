@@ -19,30 +19,51 @@
 package org.languagetool.tokenizers.de;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-import org.languagetool.tokenizers.Tokenizer;
+import org.languagetool.tokenizers.CompoundWordTokenizer;
+import org.languagetool.tools.LruCache;
 
 import de.abelssoft.wordtools.jwordsplitter.impl.GermanWordSplitter;
 
 /**
- * Split German nouns using the jWordSplitter library.
+ * Split German nouns using the jWordSplitter library. The results for
+ * recently split words are cached.
  * 
  * @author Daniel Naber
  */
-public class GermanCompoundTokenizer implements Tokenizer {
+public class GermanCompoundTokenizer implements CompoundWordTokenizer {
+
+  private static final int CACHE_SIZE = 10_000;
 
   private final GermanWordSplitter wordSplitter;
+  private final LruCache<String, List<String>> cache = new LruCache<>(CACHE_SIZE);
   
   public GermanCompoundTokenizer() throws IOException {
+    this(true); // strict mode is required for now to make minimum length work
+  }
+
+  /**
+   * @param strictMode if false, words are also split if a part is not known,
+   *   e.g. because it is misspelled
+   * @since 2.4
+   */
+  public GermanCompoundTokenizer(boolean strictMode) throws IOException {
     wordSplitter = new GermanWordSplitter(false);
-    wordSplitter.setStrictMode(true); // required for now to make minimum length work
+    wordSplitter.setStrictMode(strictMode);
     wordSplitter.setMinimumWordLength(3);
   }
 
   @Override
   public List<String> tokenize(String word) {
-    return (List<String>) wordSplitter.splitWord(word);
+    List<String> parts = cache.get(word);
+    if (parts == null) {
+      parts = Collections.unmodifiableList(new ArrayList<>(wordSplitter.splitWord(word)));
+      cache.put(word, parts);
+    }
+    return new ArrayList<>(parts);
   }
 
   public static void main(String[] args) throws IOException {
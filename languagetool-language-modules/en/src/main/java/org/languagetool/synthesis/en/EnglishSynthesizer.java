@@ -80,7 +80,7 @@ public class EnglishSynthesizer extends BaseSynthesizer {
       final AvsAnRule rule = new AvsAnRule(null);
       return new String[] { rule.suggestAorAn(token.getToken()) };
     } else {
-      final IStemmer synthesizer = createStemmer();
+      final IStemmer synthesizer = getStemmer();
       final List<WordData> wordData = synthesizer.lookup(token.getLemma() + "|" + posTag);
       final List<String> wordForms = new ArrayList<>();
       for (WordData wd : wordData) {
@@ -80,6 +80,7 @@ public class FrenchRuleDisambiguatorTest extends TestCase {
   }
 
   public void testAnnotations() throws IOException {
+     lt.setTraceDisambiguation(true);
      final AnalyzedSentence sent = lt.getAnalyzedSentence("Les avions");
      assertEquals(sent.getAnnotations(), "Disambiguator log: \n\n" +
         "RP-D_N_AMBIG:1 Les[le/D e p*,les/R pers obj 3 p*] -> Les[le/D e p*]"+
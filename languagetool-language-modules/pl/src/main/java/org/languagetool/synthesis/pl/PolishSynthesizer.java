@@ -19,7 +19,6 @@
 package org.languagetool.synthesis.pl;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -53,6 +52,9 @@ public class PolishSynthesizer implements Synthesizer {
   private static final String COMP_TAG = "com";
   private static final String SUP_TAG = "sup";
 
+  // DictionaryLookup is not thread-safe, but can be reused by the same thread:
+  private final ThreadLocal<IStemmer> stemmers = new ThreadLocal<>();
+
   private Dictionary dictionary;
   private List<String> possibleTags;
   
@@ -60,14 +62,22 @@ public class PolishSynthesizer implements Synthesizer {
     if (this.dictionary == null) {
       synchronized (this) {
         if (this.dictionary == null) {
-          final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(RESOURCE_FILENAME);
-          this.dictionary = Dictionary.read(url);
+          this.dictionary = JLanguageTool.getDataBroker().getFromResourceDirAsDictionary(RESOURCE_FILENAME);
         }
       }
     }
     
     return this.dictionary;
   }
+
+  private IStemmer getStemmer() throws IOException {
+    IStemmer stemmer = stemmers.get();
+    if (stemmer == null) {
+      stemmer = new DictionaryLookup(getDictionary());
+      stemmers.set(stemmer);
+    }
+    return stemmer;
+  }
   
   @Override
   public final String[] synthesize(final AnalyzedToken token,
@@ -75,7 +85,7 @@ public class PolishSynthesizer implements Synthesizer {
     if (posTag == null) {
       return null;
     }
-    final IStemmer synthesizer = new DictionaryLookup(getDictionary());
+    final IStemmer synthesizer = getStemmer();
     boolean isNegated = false;
     if (token.getPOSTag() != null) {
       isNegated = posTag.indexOf(NEGATION_TAG) > 0
@@ -101,7 +111,7 @@ public class PolishSynthesizer implements Synthesizer {
         possibleTags = SynthesizerTools.loadWords(JLanguageTool.getDataBroker().
             getFromResourceDirAsStream(TAGS_FILE_NAME));
       }
-      final IStemmer synthesizer = new DictionaryLookup(getDictionary());
+      final IStemmer synthesizer = getStemmer();
       final ArrayList<String> results = new ArrayList<>();
 
       boolean isNegated = false;
@@ -23,7 +23,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
-import morfologik.stemming.DictionaryLookup;
 import morfologik.stemming.IStemmer;
 
 import org.languagetool.AnalyzedToken;
@@ -55,7 +54,7 @@ public class PolishTagger extends BaseTagger {
     List<AnalyzedToken> upperTaggerTokens;    
     final List<AnalyzedTokenReadings> tokenReadings = new ArrayList<>();
     int pos = 0;
-    final IStemmer morfologik = new DictionaryLookup(getDictionary());
+    final IStemmer morfologik = getStemmer();
 
     for (String word : sentenceTokens) {
       final List<AnalyzedToken> l = new ArrayList<>();
@@ -74,6 +74,7 @@ public class JLanguageToolTest extends TestCase {
     assertEquals(24, matches.get(0).getColumn());
 
     //and let's test other feats
+    tool.setTraceDisambiguation(true);
     AnalyzedSentence sent = tool.getAnalyzedSentence("Z powodu pogody dobre buty są wskazane.");
     assertEquals("Disambiguator log: \n\n"+
         "prep_verb:2 Z[z/prep:acc:nwok*,z/prep:gen:nwok*,z/prep:inst:nwok*] -> Z[z/prep:gen:nwok*]\n"+
@@ -23,7 +23,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
-import morfologik.stemming.DictionaryLookup;
 import morfologik.stemming.IStemmer;
 import morfologik.stemming.WordData;
 
@@ -69,7 +68,7 @@ public class RomanianTagger extends BaseTagger {
       final List<String> sentenceTokens) throws IOException {
     final List<AnalyzedTokenReadings> tokenReadings = new ArrayList<>();
     int pos = 0;
-    final IStemmer morfologik = new DictionaryLookup(getDictionary());
+    final IStemmer morfologik = getStemmer();
     if (manualTagger == null && plaintextDictPath != null) {
       manualTagger = new ManualTagger(JLanguageTool.getDataBroker().getFromResourceDirAsStream(plaintextDictPath));
     }
@@ -0,0 +1,149 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2005 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.tools.StringTools;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The format of batch requests, which check several documents with one request. The request
+ * is sent by POST to {@code /Batch} and looks like this:
+ * <pre>
+ * &lt;documents&gt;
+ *   &lt;document id="1" language="en-US"&gt;This is an test.&lt;/document&gt;
+ *   &lt;document id="2" language="de-DE" disabled="DE_CASE"&gt;Das ist ein Test.&lt;/document&gt;
+ * &lt;/documents&gt;
+ * </pre>
+ * A document's attributes are the same as the parameters of a single check, i.e.
+ * {@code language}, {@code motherTongue}, {@code autodetect}, {@code enabled}, {@code disabled},
+ * {@code enabledOnly}, {@code maxSuggestions}, {@code maxSuggestionTime} and {@code srctext}. The result of each document is sent as soon
+ * as its check is done, so the order of the results may differ from the order of the documents:
+ * <pre>
+ * &lt;results software="LanguageTool" version="..." buildDate="..."&gt;
+ * &lt;result id="2"&gt;
+ * &lt;language shortname="de-DE" name="German (Germany)"/&gt;
+ * &lt;/result&gt;
+ * &lt;result id="1"&gt;
+ * &lt;language shortname="en-US" name="English (US)"/&gt;
+ * &lt;error fromy="0" fromx="8" ... /&gt;
+ * &lt;/result&gt;
+ * &lt;result id="3" failure="java.lang.IllegalArgumentException: ..."/&gt;
+ * &lt;/results&gt;
+ * </pre>
+ * The {@code error} elements are the same as for a single check.
+ * @since 2.4
+ */
+final class BatchRequest {
+
+  static final String ID = "id";
+  static final String TEXT = "text";
+
+  private BatchRequest() {
+  }
+
+  /**
+   * @return the parameters of each document, with the text as parameter {@value #TEXT}
+   */
+  static List<Map<String, String>> parseDocuments(String requestXml) throws ParserConfigurationException, SAXException, IOException {
+    final SAXParserFactory factory = SAXParserFactory.newInstance();
+    // the request comes from the network, so don't resolve any external entities:
+    factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+    final SAXParser parser = factory.newSAXParser();
+    final DocumentHandler handler = new DocumentHandler();
+    parser.parse(new InputSource(new StringReader(requestXml)), handler);
+    return handler.documents;
+  }
+
+  static String getResponseStart() {
+    return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<results software=\"LanguageTool\" version=\"" + JLanguageTool.VERSION + "\""
+            + " buildDate=\"" + JLanguageTool.BUILD_DATE + "\">\n";
+  }
+
+  static String getResponseEnd() {
+    return "</results>\n";
+  }
+
+  static String getDocumentResult(String id, String matchesXml) {
+    return "<result id=\"" + StringTools.escapeXML(id) + "\">\n" + matchesXml + "</result>\n";
+  }
+
+  static String getDocumentFailure(String id, String message) {
+    return "<result id=\"" + StringTools.escapeXML(id) + "\" failure=\""
+            + StringTools.escapeXML(message).replaceAll("[\n\r]", " ") + "\"/>\n";
+  }
+
+  private static class DocumentHandler extends DefaultHandler {
+
+    private final List<Map<String, String>> documents = new ArrayList<>();
+    private final StringBuilder text = new StringBuilder();
+
+    private Map<String, String> document;
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+      if ("document".equals(qName)) {
+        if (document != null) {
+          throw new SAXException("Documents cannot be nested");
+        }
+        document = new HashMap<>();
+        for (int i = 0; i < attributes.getLength(); i++) {
+          document.put(attributes.getQName(i), attributes.getValue(i));
+        }
+        if (document.get(ID) == null) {
+          throw new SAXException("Missing '" + ID + "' attribute for document #" + (documents.size() + 1));
+        }
+        text.setLength(0);
+      } else if (!"documents".equals(qName)) {
+        throw new SAXException("Unknown element '" + qName + "', expected 'documents' or 'document'");
+      }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+      if (document != null) {
+        text.append(ch, start, length);
+      }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+      if ("document".equals(qName)) {
+        document.put(TEXT, text.toString());
+        documents.add(document);
+        document = null;
+      }
+    }
+  }
+
+}
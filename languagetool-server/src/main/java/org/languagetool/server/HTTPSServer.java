@@ -70,12 +70,17 @@ public class HTTPSServer extends Server {
       final HttpsConfigurator configurator = getConfigurator(sslContext);
       ((HttpsServer)server).setHttpsConfigurator(configurator);
       final RequestLimiter limiter = getRequestLimiterOrNull(config);
-      final LanguageToolHttpHandler httpHandler = new LanguageToolHttpHandler(config.isVerbose(), allowedIps, runInternally, limiter);
+      languageToolPool = new LanguageToolPool(config.getPoolSize(), runInternally, config.getWarmUpLanguages());
+      final LanguageToolHttpHandler httpHandler = new LanguageToolHttpHandler(config.isVerbose(), allowedIps, languageToolPool, limiter);
       httpHandler.setMaxTextLength(config.getMaxTextLength());
       httpHandler.setAllowOriginUrl(config.getAllowOriginUrl());
+      httpHandler.setMaxBatchDocuments(config.getMaxBatchDocuments());
+      httpHandler.setMaxBatchRequestLength(config.getMaxBatchRequestLength());
       server.createContext("/", httpHandler);
       executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
       server.setExecutor(executorService);
+      batchExecutorService = newBatchExecutorService();
+      httpHandler.setBatchExecutorService(batchExecutorService);
     } catch (BindException e) {
       final ResourceBundle messages = JLanguageTool.getMessageBundle();
       final String message = Tools.makeTexti18n(messages, "https_server_start_failed", host, Integer.toString(port));
@@ -133,17 +138,8 @@ public class HTTPSServer extends Server {
   }
 
   public static void main(String[] args) {
-    if (args.length > 7 || usageRequested(args)) {
-      System.out.println("Usage: " + HTTPSServer.class.getSimpleName()
-              + " --config propertyFile [--port|-p port] [--public]");
-      System.out.println("  --config file  a Java property file with values for:");
-      System.out.println("                 'keystore' - a Java keystore with an SSL certificate");
-      System.out.println("                 'password' - the keystore's password");
-      System.out.println("                 'maxTextLength' - maximum text length, longer texts will cause an error (optional)");
-      System.out.println("                 'requestLimit' - maximum number of requests (optional)");
-      System.out.println("                 'requestLimitPeriodInSeconds' - time period to which requestLimit applies (optional)");
-      printCommonOptions();
-      System.exit(1);
+    if (usageRequested(args)) {
+      printUsageAndExit();
     }
     final boolean runInternal = false;
     try {
@@ -164,9 +160,27 @@ public class HTTPSServer extends Server {
       System.out.println(e.getMessage());
       System.out.println("Note: this is the HTTPS server - if you want to use plain HTTP instead, please see http://languagetool.org/http-server/");
       System.exit(1);
+    } catch (IllegalArgumentException e) {
+      System.out.println(e.getMessage());
+      printUsageAndExit();
     }
   }
 
+  private static void printUsageAndExit() {
+    System.out.println("Usage: " + HTTPSServer.class.getSimpleName()
+            + " --config propertyFile [--port|-p port] [--public]");
+    System.out.println("  --config file  a Java property file with values for:");
+    System.out.println("                 'keystore' - a Java keystore with an SSL certificate");
+    System.out.println("                 'password' - the keystore's password");
+    System.out.println("                 'maxTextLength' - maximum text length, longer texts will cause an error (optional)");
+    System.out.println("                 'requestLimit' - maximum number of requests (optional)");
+    System.out.println("                 'requestLimitPeriodInSeconds' - time period to which requestLimit applies (optional)");
+    System.out.println("                 'maxBatchDocuments' - maximum number of documents per batch request (optional)");
+    System.out.println("                 'maxBatchRequestLength' - maximum length of a batch request in characters (optional)");
+    printCommonOptions();
+    System.exit(1);
+  }
+
   @Override
   protected String getProtocol() {
     return "https";
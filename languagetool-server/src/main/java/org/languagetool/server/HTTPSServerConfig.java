@@ -21,6 +21,7 @@ package org.languagetool.server;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Properties;
 
 /**
@@ -76,7 +77,7 @@ public class HTTPSServerConfig extends HTTPServerConfig {
    * Parse command line options and load settings from property file.
    */
   HTTPSServerConfig(String[] args) {
-    super(args);
+    super(args, Collections.singletonList("--config"));
     File config = null;
     for (int i = 0; i < args.length; i++) {
       if ("--config".equals(args[i])) {
@@ -95,6 +96,8 @@ public class HTTPSServerConfig extends HTTPServerConfig {
         requestLimit = Integer.parseInt(getOptionalProperty(props, "requestLimit", "0"));
         requestLimitPeriodInSeconds = Integer.parseInt(getOptionalProperty(props, "requestLimitPeriodInSeconds", "0"));
         maxTextLength = Integer.parseInt(getOptionalProperty(props, "maxTextLength", Integer.toString(Integer.MAX_VALUE)));
+        maxBatchDocuments = Integer.parseInt(getOptionalProperty(props, "maxBatchDocuments", Integer.toString(DEFAULT_MAX_BATCH_DOCUMENTS)));
+        maxBatchRequestLength = Integer.parseInt(getOptionalProperty(props, "maxBatchRequestLength", Integer.toString(DEFAULT_MAX_BATCH_REQUEST_LENGTH)));
       }
     } catch (IOException e) {
       throw new RuntimeException("Could not load properties from '" + config + "'", e);
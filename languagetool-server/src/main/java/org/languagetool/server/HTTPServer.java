@@ -98,11 +98,16 @@ public class HTTPServer extends Server {
       } else {
         server = HttpServer.create(new InetSocketAddress(host, port), 0);
       }
-      final LanguageToolHttpHandler httpHandler = new LanguageToolHttpHandler(config.isVerbose(), allowedIps, runInternally, null);
+      languageToolPool = new LanguageToolPool(config.getPoolSize(), runInternally, config.getWarmUpLanguages());
+      final LanguageToolHttpHandler httpHandler = new LanguageToolHttpHandler(config.isVerbose(), allowedIps, languageToolPool, null);
       httpHandler.setAllowOriginUrl(config.getAllowOriginUrl());
+      httpHandler.setMaxBatchDocuments(config.getMaxBatchDocuments());
+      httpHandler.setMaxBatchRequestLength(config.getMaxBatchRequestLength());
       server.createContext("/", httpHandler);
       executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
       server.setExecutor(executorService);
+      batchExecutorService = newBatchExecutorService();
+      httpHandler.setBatchExecutorService(batchExecutorService);
     } catch (Exception e) {
       final ResourceBundle messages = JLanguageTool.getMessageBundle();
       final String message = Tools.makeTexti18n(messages, "http_server_start_failed", host, Integer.toString(port));
@@ -119,13 +124,17 @@ public class HTTPServer extends Server {
   }
 
   public static void main(String[] args) {
-    if (args.length > 3 || usageRequested(args)) {
-      System.out.println("Usage: " + HTTPServer.class.getSimpleName() + " [--port|-p port] [--public]");
-      printCommonOptions();
-      System.exit(1);
+    if (usageRequested(args)) {
+      printUsageAndExit();
     }
     final boolean runInternal = false;
-    final HTTPServerConfig config = new HTTPServerConfig(args);
+    HTTPServerConfig config = null;
+    try {
+      config = new HTTPServerConfig(args);
+    } catch (IllegalArgumentException e) {
+      System.out.println(e.getMessage());
+      printUsageAndExit();
+    }
     try {
       final HTTPServer server;
       System.out.println("WARNING: running in HTTP mode, consider using SSL by running " + HTTPSServer.class.getName() + " instead");
@@ -141,6 +150,12 @@ public class HTTPServer extends Server {
     }
   }
 
+  private static void printUsageAndExit() {
+    System.out.println("Usage: " + HTTPServer.class.getSimpleName() + " [--port|-p port] [--public]");
+    printCommonOptions();
+    System.exit(1);
+  }
+
   @Override
   protected String getProtocol() {
     return "http";
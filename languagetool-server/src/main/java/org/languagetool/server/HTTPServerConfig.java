@@ -18,6 +18,12 @@
  */
 package org.languagetool.server;
 
+import org.languagetool.Language;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * @since 2.0
  */
@@ -28,10 +34,23 @@ public class HTTPServerConfig {
   /** The default port on which the server is running (8081). */
   public static final int DEFAULT_PORT = 8081;
 
+  /** The default maximum number of unused JLanguageTool instances kept per language. */
+  public static final int DEFAULT_POOL_SIZE = Server.THREAD_POOL_SIZE;
+
+  /** The default maximum number of documents in a batch request. */
+  public static final int DEFAULT_MAX_BATCH_DOCUMENTS = 100;
+
+  /** The default maximum length of a batch request in characters, including the XML markup. */
+  public static final int DEFAULT_MAX_BATCH_REQUEST_LENGTH = 1000000;
+
   protected boolean verbose = false;
   protected boolean publicAccess = false;
   protected int port = DEFAULT_PORT;
   protected String allowOriginUrl = null;
+  protected int poolSize = DEFAULT_POOL_SIZE;
+  protected List<Language> warmUpLanguages = new ArrayList<>();
+  protected int maxBatchDocuments = DEFAULT_MAX_BATCH_DOCUMENTS;
+  protected int maxBatchRequestLength = DEFAULT_MAX_BATCH_REQUEST_LENGTH;
 
   public HTTPServerConfig() {
     this.port = DEFAULT_PORT;
@@ -51,13 +70,23 @@ public class HTTPServerConfig {
 
   /**
    * Parse command line options.
+   * @throws IllegalArgumentException if an option is unknown or its value is missing or invalid
    */
   HTTPServerConfig(String[] args) {
+    this(args, Collections.<String>emptyList());
+  }
+
+  /**
+   * Parse command line options.
+   * @param additionalOptions options that take a value and are handled by a subclass
+   * @throws IllegalArgumentException if an option is unknown or its value is missing or invalid
+   */
+  HTTPServerConfig(String[] args, List<String> additionalOptions) {
     for (int i = 0; i < args.length; i++) {
       switch (args[i]) {
         case "-p":
         case "--port":
-          port = Integer.parseInt(args[++i]);
+          port = Integer.parseInt(getValue(args, i++));
           break;
         case "-v":
         case "--verbose":
@@ -67,10 +96,43 @@ public class HTTPServerConfig {
           publicAccess = true;
           break;
         case "--allow-origin":
-          allowOriginUrl = args[++i];
+          allowOriginUrl = getValue(args, i++);
           break;
+        case "--pool-size":
+          poolSize = Integer.parseInt(getValue(args, i++));
+          if (poolSize <= 0) {
+            throw new IllegalArgumentException("Value for option --pool-size must be > 0: " + poolSize);
+          }
+          break;
+        case "--warm-up":
+          warmUpLanguages = getLanguages(getValue(args, i++));
+          break;
+        default:
+          if (!additionalOptions.contains(args[i])) {
+            throw new IllegalArgumentException("Unknown option: " + args[i]);
+          }
+          getValue(args, i++);
+      }
+    }
+  }
+
+  private static String getValue(String[] args, int optionPos) {
+    if (optionPos + 1 >= args.length) {
+      throw new IllegalArgumentException("Missing value for option " + args[optionPos]);
+    }
+    return args[optionPos + 1];
+  }
+
+  private static List<Language> getLanguages(String langCodes) {
+    final List<Language> languages = new ArrayList<>();
+    for (String langCode : langCodes.split(",")) {
+      final String trimmedLangCode = langCode.trim();
+      if (trimmedLangCode.isEmpty() || !Language.isLanguageSupported(trimmedLangCode)) {
+        throw new IllegalArgumentException("Unknown language code '" + trimmedLangCode + "' for option --warm-up");
       }
+      languages.add(Language.getLanguageForShortName(trimmedLangCode));
     }
+    return languages;
   }
 
   /*
@@ -95,4 +157,68 @@ public class HTTPServerConfig {
     return allowOriginUrl;
   }
 
+  /**
+   * @param poolSize the maximum number of unused checker instances to keep per language and mother tongue
+   * @since 2.4
+   */
+  public void setPoolSize(int poolSize) {
+    this.poolSize = poolSize;
+  }
+
+  /**
+   * Maximum number of unused checker instances kept per language and mother tongue.
+   * @since 2.4
+   */
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  /**
+   * @param warmUpLanguages languages for which the rules are loaded when the server starts
+   * @since 2.4
+   */
+  public void setWarmUpLanguages(List<Language> warmUpLanguages) {
+    this.warmUpLanguages = new ArrayList<>(warmUpLanguages);
+  }
+
+  /**
+   * Languages for which the rules are loaded when the server starts, so the first
+   * request for these languages is not slower than the following ones.
+   * @since 2.4
+   */
+  public List<Language> getWarmUpLanguages() {
+    return Collections.unmodifiableList(warmUpLanguages);
+  }
+
+  /**
+   * @param maxBatchDocuments the maximum number of documents in a batch request, requests with more documents will cause an error
+   * @since 2.4
+   */
+  public void setMaxBatchDocuments(int maxBatchDocuments) {
+    this.maxBatchDocuments = maxBatchDocuments;
+  }
+
+  /**
+   * @since 2.4
+   */
+  public int getMaxBatchDocuments() {
+    return maxBatchDocuments;
+  }
+
+  /**
+   * @param maxBatchRequestLength the maximum length of a batch request in characters, including the XML markup,
+   *                              so this also limits the total length of the documents' texts
+   * @since 2.4
+   */
+  public void setMaxBatchRequestLength(int maxBatchRequestLength) {
+    this.maxBatchRequestLength = maxBatchRequestLength;
+  }
+
+  /**
+   * @since 2.4
+   */
+  public int getMaxBatchRequestLength() {
+    return maxBatchRequestLength;
+  }
+
 }
@@ -24,11 +24,14 @@ import java.net.URI;
 import java.net.URLDecoder;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import org.apache.tika.language.LanguageIdentifier;
-import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
-import org.languagetool.gui.Configuration;
 import org.languagetool.rules.RuleMatch;
 import org.languagetool.rules.bitext.BitextRule;
 import org.languagetool.tools.StringTools;
@@ -46,21 +49,25 @@ class LanguageToolHttpHandler implements HttpHandler {
 
   private final Set<String> allowedIps;  
   private final boolean verbose;
-  private final boolean internalServer;
+  private final LanguageToolPool languageToolPool;
   private final RequestLimiter requestLimiter;
 
   private int maxTextLength = Integer.MAX_VALUE;
+  private int maxBatchDocuments = HTTPServerConfig.DEFAULT_MAX_BATCH_DOCUMENTS;
+  private int maxBatchRequestLength = HTTPServerConfig.DEFAULT_MAX_BATCH_REQUEST_LENGTH;
   private String allowOriginUrl;
+  private ExecutorService batchExecutorService;
 
   /**
    * @param verbose print the input text in case of exceptions
    * @param allowedIps set of IPs that may connect or <tt>null</tt> to allow any IP
+   * @param languageToolPool the pool to get the JLanguageTool instances from
    * @param requestLimiter may be null
    */
-  LanguageToolHttpHandler(boolean verbose, Set<String> allowedIps, boolean internal, RequestLimiter requestLimiter) {
+  LanguageToolHttpHandler(boolean verbose, Set<String> allowedIps, LanguageToolPool languageToolPool, RequestLimiter requestLimiter) {
     this.verbose = verbose;
     this.allowedIps = allowedIps;
-    this.internalServer = internal;
+    this.languageToolPool = languageToolPool;
     this.requestLimiter = requestLimiter;
   }
 
@@ -68,6 +75,31 @@ class LanguageToolHttpHandler implements HttpHandler {
     this.maxTextLength = maxTextLength;
   }
 
+  /**
+   * @since 2.4
+   */
+  void setMaxBatchDocuments(int maxBatchDocuments) {
+    this.maxBatchDocuments = maxBatchDocuments;
+  }
+
+  /**
+   * @param maxBatchRequestLength maximum length of a batch request in characters, including the XML markup
+   * @since 2.4
+   */
+  void setMaxBatchRequestLength(int maxBatchRequestLength) {
+    this.maxBatchRequestLength = maxBatchRequestLength;
+  }
+
+  /**
+   * The executor that checks the documents of batch requests in parallel. If not set,
+   * the documents are checked one after the other. This should not be the executor
+   * that handles the HTTP requests, so that a large batch cannot block other requests.
+   * @since 2.4
+   */
+  void setBatchExecutorService(ExecutorService batchExecutorService) {
+    this.batchExecutorService = batchExecutorService;
+  }
+
   /**
    * Value to set as the "Access-Control-Allow-Origin" http header. Use {@code null}
    * to not return that header at all. Use {@code *} to run a server that any other web site
@@ -86,8 +118,12 @@ class LanguageToolHttpHandler implements HttpHandler {
       // According to the Javadoc, "Closing an exchange without consuming all of the request body is
       // not an error but may make the underlying TCP connection unusable for following exchanges.",
       // so we consume the request now, even before checking for request limits:
-      final Map<String, String> parameters = getRequestQuery(httpExchange, requestedUri);
-      if (requestLimiter != null && !requestLimiter.isAccessOkay(remoteAddress)) {
+      final boolean isBatchRequest = requestedUri.getRawPath().endsWith("/Batch");
+      final List<Map<String, String>> batchDocuments = isBatchRequest ? getBatchDocuments(httpExchange) : null;
+      final Map<String, String> parameters = isBatchRequest ? new HashMap<String, String>() : getRequestQuery(httpExchange, requestedUri);
+      // each document of a batch counts as a request:
+      final int requestCount = isBatchRequest ? Math.max(1, batchDocuments.size()) : 1;
+      if (requestLimiter != null && !requestLimiter.isAccessOkay(remoteAddress, requestCount)) {
         final String errorMessage = "Error: Access from " + StringTools.escapeXML(remoteAddress) +
                 " denied - too many requests. Allowed maximum requests: " + requestLimiter.getRequestLimit() +
                 " requests per " + requestLimiter.getRequestLimitPeriodInSeconds() + " seconds";
@@ -99,6 +135,9 @@ class LanguageToolHttpHandler implements HttpHandler {
         if (requestedUri.getRawPath().endsWith("/Languages")) {
           // request type: list known languages
           printListOfLanguages(httpExchange);
+        } else if (isBatchRequest) {
+          // request type: checking of several documents
+          checkBatch(batchDocuments, httpExchange);
         } else {
           // request type: text checking
           text = parameters.get("text");
@@ -116,6 +155,12 @@ class LanguageToolHttpHandler implements HttpHandler {
       if (verbose) {
         print("Exception was caused by this text: " + text);
       }
+      if (httpExchange.getResponseCode() != -1) {
+        // the response has already been started (e.g. a batch response, or an error response
+        // for denied access), so we cannot send an error anymore - just close the exchange:
+        print("Could not complete response: " + Tools.getFullStackTrace(e));
+        return;
+      }
       e.printStackTrace();
       final String response = "Error: " + StringTools.escapeXML(Tools.getFullStackTrace(e));
       sendError(httpExchange, HttpURLConnection.HTTP_INTERNAL_ERROR, response);
@@ -129,6 +174,31 @@ class LanguageToolHttpHandler implements HttpHandler {
     httpExchange.getResponseBody().write(response.getBytes(ENCODING));
   }
 
+  private List<Map<String, String>> getBatchDocuments(HttpExchange httpExchange) throws Exception {
+    if (!"post".equalsIgnoreCase(httpExchange.getRequestMethod())) {
+      throw new IllegalArgumentException("Batch requests must use POST");
+    }
+    final List<Map<String, String>> documents = BatchRequest.parseDocuments(getBatchRequestBody(httpExchange));
+    if (documents.size() > maxBatchDocuments) {
+      throw new IllegalArgumentException("Batch request has " + documents.size() + " documents, exceeding maximum of " + maxBatchDocuments);
+    }
+    return documents;
+  }
+
+  private String getBatchRequestBody(HttpExchange httpExchange) throws IOException {
+    final Reader reader = new InputStreamReader(httpExchange.getRequestBody(), ENCODING);
+    final StringBuilder sb = new StringBuilder();
+    final char[] buffer = new char[8192];
+    int length;
+    while ((length = reader.read(buffer)) != -1) {
+      sb.append(buffer, 0, length);
+      if (sb.length() > maxBatchRequestLength) {
+        throw new IllegalArgumentException("Batch request is longer than the maximum length of " + maxBatchRequestLength + " characters");
+      }
+    }
+    return sb.toString();
+  }
+
   private Map<String, String> getRequestQuery(HttpExchange httpExchange, URI requestedUri) throws IOException {
     final String query;
     if ("post".equalsIgnoreCase(httpExchange.getRequestMethod())) {
@@ -176,6 +246,76 @@ class LanguageToolHttpHandler implements HttpHandler {
 
   private void checkText(String text, HttpExchange httpExchange, Map<String, String> parameters) throws Exception {
     final long timeStart = System.currentTimeMillis();
+    final CheckResult result = check(text, parameters);
+    setCommonHeaders(httpExchange);
+    final String response = StringTools.ruleMatchesToXML(result.matches, text,
+            CONTEXT_SIZE, StringTools.XmlPrintMode.NORMAL_XML, result.language, result.motherTongue);
+    httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, response.getBytes(ENCODING).length);
+    httpExchange.getResponseBody().write(response.getBytes(ENCODING));
+    String languageMessage = result.language.getShortNameWithCountryAndVariant();
+    if (result.motherTongue != null) {
+      languageMessage += " (mother tongue: " + result.motherTongue.getShortNameWithCountryAndVariant() + ")";
+    }
+    final String referrer = httpExchange.getRequestHeaders().getFirst("Referer");
+    print("Check done: " + text.length() + " chars, " + languageMessage + ", " + referrer + ", "
+            + (System.currentTimeMillis() - timeStart) + "ms");
+  }
+
+  /**
+   * Check several documents, each with its own parameters, and send the result of each
+   * document as soon as it's available. The documents are checked in parallel if an
+   * executor has been set.
+   */
+  private void checkBatch(List<Map<String, String>> documents, HttpExchange httpExchange) throws Exception {
+    final long timeStart = System.currentTimeMillis();
+    final BlockingQueue<BatchCheck> doneChecks = new LinkedBlockingQueue<>();
+    final List<BatchCheck> checks = new ArrayList<>();
+    int chars = 0;
+    for (Map<String, String> document : documents) {
+      final BatchCheck check = new BatchCheck(document, doneChecks);
+      checks.add(check);
+      if (batchExecutorService != null) {
+        // the executor's queue is bounded, checks that it doesn't accept are run by this thread below:
+        batchExecutorService.execute(check);
+      }
+      chars += document.get(BatchRequest.TEXT).length();
+    }
+    setCommonHeaders(httpExchange);
+    httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);  // 0 = chunked
+    final OutputStream out = httpExchange.getResponseBody();
+    out.write(BatchRequest.getResponseStart().getBytes(ENCODING));
+    out.flush();
+    try {
+      int written = 0;
+      int nextCheckToRun = 0;
+      while (written < checks.size()) {
+        BatchCheck doneCheck = doneChecks.poll();
+        if (doneCheck == null) {
+          if (nextCheckToRun < checks.size()) {
+            // don't rely on a free thread, the executor may be busy with other batches or may not
+            // have accepted the check - this does nothing if the check has already been started:
+            checks.get(nextCheckToRun++).run();
+            continue;
+          }
+          doneCheck = doneChecks.take();
+        }
+        out.write(doneCheck.get().getBytes(ENCODING));
+        out.flush();
+        written++;
+      }
+    } finally {
+      // e.g. if the client has closed the connection, don't waste time on the other documents:
+      for (BatchCheck check : checks) {
+        check.cancel(false);
+      }
+    }
+    out.write(BatchRequest.getResponseEnd().getBytes(ENCODING));
+    print("Batch check done: " + checks.size() + " documents, " + chars + " chars, "
+            + (System.currentTimeMillis() - timeStart) + "ms");
+  }
+
+  // non-private only for test case
+  CheckResult check(String text, Map<String, String> parameters) throws Exception {
     if (text.length() > maxTextLength) {
       throw new IllegalArgumentException("Text is " + text.length() + " characters long, exceeding maximum length of " + maxTextLength);
     }
@@ -221,14 +361,23 @@ class LanguageToolHttpHandler implements HttpHandler {
       throw new IllegalArgumentException("You cannot specify disabled rules using enabledOnly=yes");
     }
     
+    final int maxSuggestions = (int) getLimitParameter(parameters, "maxSuggestions");
+    final long maxSuggestionTime = getLimitParameter(parameters, "maxSuggestionTime");
+
     final boolean useQuerySettings = enabledRules.size() > 0 || disabledRules.size() > 0;
-    final QueryParams params = new QueryParams(enabledRules, disabledRules, useEnabledOnly, useQuerySettings);
+    final QueryParams params = new QueryParams(enabledRules, disabledRules, useEnabledOnly, useQuerySettings,
+            maxSuggestions, maxSuggestionTime);
     
     final List<RuleMatch> matches;
     final String sourceText = parameters.get("srctext");
     if (sourceText == null) {
-      final JLanguageTool lt = getLanguageToolInstance(lang, motherTongue, params);
-      matches = lt.check(text);
+      final LanguageToolPool.PooledLanguageTool lt = languageToolPool.borrow(lang, motherTongue, params);
+      try {
+        matches = lt.getLanguageTool().check(text);
+        createSuggestions(matches);
+      } finally {
+        languageToolPool.giveBack(lt);
+      }
     } else {
       if (motherTongueParam == null) {
         throw new IllegalArgumentException("Missing 'motherTongue' for bilingual checks");
@@ -236,23 +385,96 @@ class LanguageToolHttpHandler implements HttpHandler {
       print("Checking bilingual text, with source length " + sourceText.length() +
           " and target length " + text.length() + " (characters), source language " +
           motherTongue + " and target language " + langParam);
-      final JLanguageTool sourceLt = getLanguageToolInstance(motherTongue, null, params);
-      final JLanguageTool targetLt = getLanguageToolInstance(lang, null, params);
-      final List<BitextRule> bRules = Tools.getBitextRules(motherTongue, lang);
-      matches = Tools.checkBitext(sourceText, text, sourceLt, targetLt, bRules);
+      final LanguageToolPool.PooledLanguageTool sourceLt = languageToolPool.borrow(motherTongue, null, params);
+      try {
+        final LanguageToolPool.PooledLanguageTool targetLt = languageToolPool.borrow(lang, null, params);
+        try {
+          final List<BitextRule> bRules = Tools.getBitextRules(motherTongue, lang);
+          matches = Tools.checkBitext(sourceText, text, sourceLt.getLanguageTool(), targetLt.getLanguageTool(), bRules);
+          createSuggestions(matches);
+        } finally {
+          languageToolPool.giveBack(targetLt);
+        }
+      } finally {
+        languageToolPool.giveBack(sourceLt);
+      }
     }
-    setCommonHeaders(httpExchange);
-    final String response = StringTools.ruleMatchesToXML(matches, text,
-            CONTEXT_SIZE, StringTools.XmlPrintMode.NORMAL_XML, lang, motherTongue);
-    httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, response.getBytes(ENCODING).length);
-    httpExchange.getResponseBody().write(response.getBytes(ENCODING));
-    String languageMessage = lang.getShortNameWithCountryAndVariant();
-    if (motherTongue != null) {
-      languageMessage += " (mother tongue: " + motherTongue.getShortNameWithCountryAndVariant() + ")";
+    return new CheckResult(matches, lang, motherTongue);
+  }
+
+  /**
+   * Create the suggestions of matches that only create them when needed. As required by
+   * {@link RuleMatch#setLazySuggestedReplacements}, this must happen before the JLanguageTool
+   * instance is given back to the pool, where another request may use its rules.
+   */
+  private static void createSuggestions(List<RuleMatch> matches) {
+    for (RuleMatch match : matches) {
+      match.getSuggestedReplacements();
+    }
+  }
+
+  /**
+   * @return the value of a parameter that is a number >= 0, or -1 if the parameter is not set
+   */
+  private long getLimitParameter(Map<String, String> parameters, String name) {
+    final String value = parameters.get(name);
+    if (value == null) {
+      return -1;
+    }
+    long limit;
+    try {
+      limit = Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      limit = -1;
+    }
+    if (limit < 0 || limit > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("'" + name + "' must be a number >= 0: '" + value + "'");
+    }
+    return limit;
+  }
+
+  static class CheckResult {
+    final List<RuleMatch> matches;
+    private final Language language;
+    private final Language motherTongue;
+    private CheckResult(List<RuleMatch> matches, Language language, Language motherTongue) {
+      this.matches = matches;
+      this.language = language;
+      this.motherTongue = motherTongue;
+    }
+  }
+
+  /**
+   * The check of one document of a batch request. Adds itself to the given queue when done.
+   */
+  private class BatchCheck extends FutureTask<String> {
+    private final BlockingQueue<BatchCheck> doneChecks;
+    private BatchCheck(final Map<String, String> document, BlockingQueue<BatchCheck> doneChecks) {
+      super(new Callable<String>() {
+        @Override
+        public String call() {
+          final String id = document.get(BatchRequest.ID);
+          final String text = document.get(BatchRequest.TEXT);
+          try {
+            final CheckResult result = check(text, document);
+            final String matchesXml = StringTools.ruleMatchesToXML(result.matches, text, CONTEXT_SIZE,
+                    StringTools.XmlPrintMode.CONTINUE_XML, result.language, result.motherTongue);
+            return BatchRequest.getDocumentResult(id, matchesXml);
+          } catch (Exception e) {
+            if (verbose) {
+              print("Exception was caused by this text: " + text);
+            }
+            print("Could not check document '" + id + "' of batch request: " + Tools.getFullStackTrace(e));
+            return BatchRequest.getDocumentFailure(id, e.toString());
+          }
+        }
+      });
+      this.doneChecks = doneChecks;
+    }
+    @Override
+    protected void done() {
+      doneChecks.add(this);
     }
-    final String referrer = httpExchange.getRequestHeaders().getFirst("Referer");
-    print("Check done: " + text.length() + " chars, " + languageMessage + ", " + referrer + ", "
-            + (System.currentTimeMillis() - timeStart) + "ms");
   }
 
   private Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
@@ -279,56 +501,12 @@ class LanguageToolHttpHandler implements HttpHandler {
     return parameters;
   }
 
-  private static void print(String s) {
+  static void print(String s) {
     final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
     final String now = dateFormat.format(new Date());
     System.out.println(now + " " + s);
   }
 
-  /**
-   * Find or create a JLanguageTool instance for a specific language, mother tongue, and rule configuration.
-   *
-   * @param lang the language to be used.
-   * @param motherTongue the user's mother tongue or {@code null}
-   */
-  private JLanguageTool getLanguageToolInstance(Language lang, Language motherTongue, QueryParams params) throws Exception {
-    final JLanguageTool newLanguageTool = new JLanguageTool(lang, motherTongue);
-    newLanguageTool.activateDefaultPatternRules();
-    newLanguageTool.activateDefaultFalseFriendRules();
-    final Configuration config = new Configuration(lang);
-    if (!params.useQuerySettings && internalServer && config.getUseGUIConfig()) { // use the GUI config values
-      configureGUI(newLanguageTool, config);
-    }
-    if (params.useQuerySettings) {
-      Tools.selectRules(newLanguageTool, params.disabledRules, params.enabledRules, params.useEnabledOnly);
-    }
-    return newLanguageTool;
-  }
-
-  private void configureGUI(JLanguageTool langTool, Configuration config) {
-    print("Using options configured in the GUI");
-    //TODO: add a parameter to config to set language
-    final Set<String> disabledRules = config.getDisabledRuleIds();
-    if (disabledRules != null) {
-      for (final String ruleId : disabledRules) {
-        langTool.disableRule(ruleId);
-      }
-    }
-    final Set<String> disabledCategories = config.getDisabledCategoryNames();
-    if (disabledCategories != null) {
-      for (final String categoryName : disabledCategories) {
-        langTool.disableCategory(categoryName);
-      }
-    }
-    final Set<String> enabledRules = config.getEnabledRuleIds();
-    if (enabledRules != null) {
-      for (String ruleName : enabledRules) {
-        langTool.enableDefaultOffRule(ruleName);
-        langTool.enableRule(ruleName);
-      }
-    }
-  }
-
   /**
    * Construct an XML string containing all supported languages. <br/>The XML format looks like this:<br/><br/>
    * &lt;languages&gt;<br/>
@@ -357,18 +535,4 @@ class LanguageToolHttpHandler implements HttpHandler {
     return xmlBuffer.toString();
   }
 
-  private class QueryParams {
-    final List<String> enabledRules;
-    final List<String> disabledRules;
-    final boolean useEnabledOnly;
-    final boolean useQuerySettings;
-
-    QueryParams(List<String> enabledRules, List<String> disabledRules, boolean useEnabledOnly, boolean useQuerySettings) {
-      this.enabledRules = enabledRules;
-      this.disabledRules = disabledRules;
-      this.useEnabledOnly = useEnabledOnly;
-      this.useQuerySettings = useQuerySettings;
-    }
-  }
-
 }
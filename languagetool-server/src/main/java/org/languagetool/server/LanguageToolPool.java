@@ -0,0 +1,235 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.gui.Configuration;
+import org.languagetool.tools.Tools;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A pool of ready-to-use {@link JLanguageTool} instances, one pool per language and mother tongue.
+ * Creating an instance means loading and parsing the XML rule files, which is much more expensive
+ * than the actual check of a typical request, so instances are borrowed and given back instead.
+ * The rule configuration of a request is applied when an instance is borrowed and undone
+ * when it is given back.
+ *
+ * <p><b>Thread-safety:</b> this class is thread-safe, the instances it returns are not.
+ *
+ * @since 2.4
+ */
+class LanguageToolPool {
+
+  private final ConcurrentMap<PoolKey, BlockingQueue<PooledLanguageTool>> idleInstances = new ConcurrentHashMap<>();
+  private final int maxIdleInstances;
+  private final boolean internalServer;
+  private final List<Language> warmUpLanguages;
+
+  /**
+   * @param maxIdleInstances maximum number of unused instances to keep per language and mother tongue
+   * @param internalServer if true, the server was started from the GUI and the GUI's rule configuration is used
+   * @param warmUpLanguages languages for which an instance is created in {@link #warmUp()}
+   */
+  LanguageToolPool(int maxIdleInstances, boolean internalServer, List<Language> warmUpLanguages) {
+    if (maxIdleInstances < 1) {
+      throw new IllegalArgumentException("maxIdleInstances must be > 0: " + maxIdleInstances);
+    }
+    this.maxIdleInstances = maxIdleInstances;
+    this.internalServer = internalServer;
+    this.warmUpLanguages = Objects.requireNonNull(warmUpLanguages);
+  }
+
+  /**
+   * Create one instance for each of the configured warm-up languages, so the first requests
+   * for these languages don't need to wait for the rules to be loaded.
+   */
+  void warmUp() throws Exception {
+    for (Language language : warmUpLanguages) {
+      final long startTime = System.currentTimeMillis();
+      final PoolKey key = new PoolKey(language, null, useGuiConfig(false));
+      getQueue(key).offer(createInstance(key));
+      LanguageToolHttpHandler.print("Warmed up " + language.getShortNameWithCountryAndVariant() + " in "
+              + (System.currentTimeMillis() - startTime) + "ms");
+    }
+  }
+
+  /**
+   * Get an instance for the given language and mother tongue, configured for the given request.
+   * The instance must be returned using {@link #giveBack(PooledLanguageTool)} once the check is done.
+   * @param motherTongue the user's mother tongue or {@code null}
+   */
+  PooledLanguageTool borrow(Language lang, Language motherTongue, QueryParams params) throws Exception {
+    final PoolKey key = new PoolKey(lang, motherTongue, useGuiConfig(params.useQuerySettings));
+    PooledLanguageTool instance = getQueue(key).poll();
+    if (instance == null) {
+      instance = createInstance(key);
+    }
+    if (params.useQuerySettings) {
+      Tools.selectRules(instance.languageTool, params.disabledRules, params.enabledRules, params.useEnabledOnly);
+    }
+    instance.languageTool.setMaxSuggestions(params.maxSuggestions);
+    instance.languageTool.setMaxSuggestionTime(params.maxSuggestionTimeMillis);
+    return instance;
+  }
+
+  /**
+   * Undo the request-specific rule configuration and make the instance available again.
+   * If there are already enough unused instances, the instance is dropped.
+   */
+  void giveBack(PooledLanguageTool instance) {
+    instance.restoreRuleConfiguration();
+    getQueue(instance.key).offer(instance);
+  }
+
+  private boolean useGuiConfig(boolean useQuerySettings) {
+    return !useQuerySettings && internalServer;
+  }
+
+  private BlockingQueue<PooledLanguageTool> getQueue(PoolKey key) {
+    BlockingQueue<PooledLanguageTool> queue = idleInstances.get(key);
+    if (queue == null) {
+      final BlockingQueue<PooledLanguageTool> newQueue = new LinkedBlockingQueue<>(maxIdleInstances);
+      queue = idleInstances.putIfAbsent(key, newQueue);
+      if (queue == null) {
+        queue = newQueue;
+      }
+    }
+    return queue;
+  }
+
+  private PooledLanguageTool createInstance(PoolKey key) throws Exception {
+    final JLanguageTool languageTool = new JLanguageTool(key.language, key.motherTongue);
+    languageTool.activateDefaultPatternRules();
+    languageTool.activateDefaultFalseFriendRules();
+    if (key.useGuiConfig) {
+      final Configuration config = new Configuration(key.language);
+      if (config.getUseGUIConfig()) {
+        configureGUI(languageTool, config);
+      }
+    }
+    return new PooledLanguageTool(key, languageTool);
+  }
+
+  private void configureGUI(JLanguageTool langTool, Configuration config) {
+    LanguageToolHttpHandler.print("Using options configured in the GUI");
+    final Set<String> disabledRules = config.getDisabledRuleIds();
+    if (disabledRules != null) {
+      langTool.disableRules(disabledRules);
+    }
+    final Set<String> disabledCategories = config.getDisabledCategoryNames();
+    if (disabledCategories != null) {
+      for (final String categoryName : disabledCategories) {
+        langTool.disableCategory(categoryName);
+      }
+    }
+    final Set<String> enabledRules = config.getEnabledRuleIds();
+    if (enabledRules != null) {
+      for (String ruleName : enabledRules) {
+        langTool.enableDefaultOffRule(ruleName);
+      }
+      langTool.enableRules(enabledRules);
+    }
+  }
+
+  /**
+   * A pooled {@link JLanguageTool} together with its rule configuration
+   * as it was before the configuration of a request was applied.
+   */
+  static class PooledLanguageTool {
+
+    private final PoolKey key;
+    private final JLanguageTool languageTool;
+    private final Set<String> disabledRules;
+    private final Set<String> enabledDefaultOffRules;
+
+    private PooledLanguageTool(PoolKey key, JLanguageTool languageTool) {
+      this.key = key;
+      this.languageTool = languageTool;
+      this.disabledRules = new HashSet<>(languageTool.getDisabledRules());
+      this.enabledDefaultOffRules = new HashSet<>(languageTool.getEnabledDefaultOffRules());
+    }
+
+    JLanguageTool getLanguageTool() {
+      return languageTool;
+    }
+
+    private void restoreRuleConfiguration() {
+      final Set<String> currentlyDisabled = languageTool.getDisabledRules();
+      if (!currentlyDisabled.equals(disabledRules)) {
+        final Set<String> toEnable = new HashSet<>(currentlyDisabled);
+        toEnable.removeAll(disabledRules);
+        final Set<String> toDisable = new HashSet<>(disabledRules);
+        toDisable.removeAll(currentlyDisabled);
+        languageTool.enableRules(toEnable);
+        if (!toDisable.isEmpty()) {
+          languageTool.disableRules(toDisable);
+        }
+      }
+      final List<String> toDisableAgain = new ArrayList<>(languageTool.getEnabledDefaultOffRules());
+      toDisableAgain.removeAll(enabledDefaultOffRules);
+      for (String ruleId : toDisableAgain) {
+        languageTool.disableDefaultOffRule(ruleId);
+      }
+    }
+
+  }
+
+  private static class PoolKey {
+
+    private final Language language;
+    private final Language motherTongue;
+    private final boolean useGuiConfig;
+
+    private PoolKey(Language language, Language motherTongue, boolean useGuiConfig) {
+      this.language = Objects.requireNonNull(language);
+      this.motherTongue = motherTongue;
+      this.useGuiConfig = useGuiConfig;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final PoolKey other = (PoolKey) o;
+      return useGuiConfig == other.useGuiConfig
+              && language.getShortNameWithCountryAndVariant().equals(other.language.getShortNameWithCountryAndVariant())
+              && Objects.equals(getShortName(motherTongue), getShortName(other.motherTongue));
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(language.getShortNameWithCountryAndVariant(), getShortName(motherTongue), useGuiConfig);
+    }
+
+    private static String getShortName(Language lang) {
+      return lang != null ? lang.getShortNameWithCountryAndVariant() : null;
+    }
+  }
+
+}
@@ -0,0 +1,50 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import java.util.List;
+
+/**
+ * The rule configuration of a single check request.
+ * @since 2.4
+ */
+class QueryParams {
+
+  final List<String> enabledRules;
+  final List<String> disabledRules;
+  final boolean useEnabledOnly;
+  final boolean useQuerySettings;
+  final int maxSuggestions;
+  final long maxSuggestionTimeMillis;
+
+  /**
+   * @param maxSuggestions see {@link org.languagetool.JLanguageTool#setMaxSuggestions(int)}
+   * @param maxSuggestionTimeMillis see {@link org.languagetool.JLanguageTool#setMaxSuggestionTime(long)}
+   */
+  QueryParams(List<String> enabledRules, List<String> disabledRules, boolean useEnabledOnly, boolean useQuerySettings,
+              int maxSuggestions, long maxSuggestionTimeMillis) {
+    this.enabledRules = enabledRules;
+    this.disabledRules = disabledRules;
+    this.useEnabledOnly = useEnabledOnly;
+    this.useQuerySettings = useQuerySettings;
+    this.maxSuggestions = maxSuggestions;
+    this.maxSuggestionTimeMillis = maxSuggestionTimeMillis;
+  }
+
+}
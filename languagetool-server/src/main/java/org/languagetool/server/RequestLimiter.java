@@ -61,10 +61,20 @@ class RequestLimiter {
    * @return true if access is allowed because the request limit is not reached yet
    */
   boolean isAccessOkay(String ipAddress) {
+    return isAccessOkay(ipAddress, 1);
+  }
+
+  /**
+   * Like {@link #isAccessOkay(String)}, for a request that counts as several requests,
+   * like a batch request with several documents.
+   * @param requestCount the number of requests this request counts as
+   * @since 2.4
+   */
+  boolean isAccessOkay(String ipAddress, int requestCount) {
     while (requestEvents.size() > API_REQUEST_QUEUE_SIZE) {
       requestEvents.remove(0);
     }
-    requestEvents.add(new RequestEvent(ipAddress, new Date()));
+    requestEvents.add(new RequestEvent(ipAddress, new Date(), requestCount));
     return !limitReached(ipAddress);
   }
   
@@ -74,7 +84,7 @@ class RequestLimiter {
     final Date thresholdDate = new Date(System.currentTimeMillis() - requestLimitPeriodInSeconds * 1000);
     for (RequestEvent requestEvent : requestEvents) {
       if (requestEvent.ip.equals(ipAddress) && requestEvent.date.after(thresholdDate)) {
-        requestsByIp++;
+        requestsByIp += requestEvent.count;
         if (requestsByIp > requestLimit) {
           return true;
         }
@@ -87,10 +97,12 @@ class RequestLimiter {
 
     private final String ip;
     private final Date date;
+    private final int count;
 
-    RequestEvent(String ip, Date date) {
+    RequestEvent(String ip, Date date, int count) {
       this.ip = ip;
       this.date = date;
+      this.count = count;
     }
   }
 
@@ -24,6 +24,10 @@ import org.languagetool.JLanguageTool;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.languagetool.server.HTTPServerConfig.DEFAULT_PORT;
 
@@ -42,10 +46,14 @@ abstract class Server {
             "127.0.0.1"
     ));
   static final int THREAD_POOL_SIZE = 10;
+  static final int BATCH_THREAD_POOL_SIZE = 10;
+  static final int BATCH_QUEUE_SIZE = 100;
 
   protected int port;
   protected String host;
   protected HttpServer server;
+  protected LanguageToolPool languageToolPool;
+  protected ExecutorService batchExecutorService;
 
   private boolean isRunning;
 
@@ -56,6 +64,13 @@ abstract class Server {
     final String hostName = host != null ? host : "localhost";
     System.out.println("Starting LanguageTool " + JLanguageTool.VERSION +
             " (build date: " + JLanguageTool.BUILD_DATE + ") server on " + getProtocol() + "://" + hostName + ":" + port  + "...");
+    if (languageToolPool != null) {
+      try {
+        languageToolPool.warmUp();
+      } catch (Exception e) {
+        throw new RuntimeException("Could not warm up LanguageTool instances", e);
+      }
+    }
     server.start();
     isRunning = true;
     System.out.println("Server started");
@@ -68,6 +83,9 @@ abstract class Server {
     if (server != null) {
       System.out.println("Stopping server");
       server.stop(0);
+      if (batchExecutorService != null) {
+        batchExecutorService.shutdownNow();
+      }
       isRunning = false;
       System.out.println("Server stopped");
     }
@@ -81,6 +99,16 @@ abstract class Server {
     return isRunning;
   }
 
+  /**
+   * The executor for the documents of batch requests. It's separate from the executor that
+   * handles the HTTP requests, so a large batch cannot keep other requests from being served.
+   * Its queue is bounded - documents that don't fit are checked by the request's own thread.
+   */
+  protected static ExecutorService newBatchExecutorService() {
+    return new ThreadPoolExecutor(BATCH_THREAD_POOL_SIZE, BATCH_THREAD_POOL_SIZE, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(BATCH_QUEUE_SIZE), new ThreadPoolExecutor.DiscardPolicy());
+  }
+
   protected static boolean usageRequested(String[] args) {
     return args.length == 1 && (args[0].equals("-h") || args[0].equals("--help"));
   }
@@ -92,6 +120,9 @@ abstract class Server {
     System.out.println("  --allow-origin ORIGIN  set the Access-Control-Allow-Origin header in the HTTP response,");
     System.out.println("                         used for direct (non-proxy) JavaScript-based access from browsers;");
     System.out.println("                         example: --allow-origin \"*\"");
+    System.out.println("  --pool-size N  maximum number of unused checker instances kept per language, defaults to " + HTTPServerConfig.DEFAULT_POOL_SIZE);
+    System.out.println("  --warm-up LANGS  comma-separated language codes whose rules are loaded at startup,");
+    System.out.println("                   example: --warm-up en-US,de-DE");
   }
 
 }
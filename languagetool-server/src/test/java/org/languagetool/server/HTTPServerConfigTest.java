@@ -46,6 +46,38 @@ public class HTTPServerConfigTest {
     assertThat(config4.getPort(), is(80));
     assertThat(config4.isPublicAccess(), is(true));
     assertThat(config4.isVerbose(), is(false));
+    assertThat(config4.getPoolSize(), is(HTTPServerConfig.DEFAULT_POOL_SIZE));
+    assertThat(config4.getWarmUpLanguages().size(), is(0));
+  }
+
+  @Test
+  public void testPoolArgumentParsing() {
+    final HTTPServerConfig config = new HTTPServerConfig("--pool-size 3 --warm-up en-US,de".split(" "));
+    assertThat(config.getPort(), is(HTTPServerConfig.DEFAULT_PORT));
+    assertThat(config.getPoolSize(), is(3));
+    assertThat(config.getWarmUpLanguages().size(), is(2));
+    assertThat(config.getWarmUpLanguages().get(0).getShortNameWithCountryAndVariant(), is("en-US"));
+    assertThat(config.getWarmUpLanguages().get(1).getShortName(), is("de"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownWarmUpLanguage() {
+    new HTTPServerConfig("--warm-up en-US,zz".split(" "));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPoolSize() {
+    new HTTPServerConfig("--pool-size 0".split(" "));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownOption() {
+    new HTTPServerConfig("--port 80 --foo".split(" "));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingValue() {
+    new HTTPServerConfig("--public --port".split(" "));
   }
 
 }
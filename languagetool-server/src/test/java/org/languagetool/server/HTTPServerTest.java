@@ -212,6 +212,63 @@ public class HTTPServerTest {
     }
   }
 
+  @Test
+  public void testBatch() throws Exception {
+    final HTTPServer server = new HTTPServer(new HTTPServerConfig(), false);
+    try {
+      server.run();
+      final String request = "<documents>\n" +
+              "<document id=\"a\" language=\"xx\">This is foo bar.</document>\n" +
+              "<document id=\"b\" language=\"xx\" disabled=\"DEMO_RULE\">This is foo bar.</document>\n" +
+              "<document id=\"c\" language=\"no-such-language\">This is foo bar.</document>\n" +
+              "<document id=\"d&amp;\" language=\"xx\">Here's foo bar &lt;again&gt;.</document>\n" +
+              "</documents>";
+      final URL url = new URL("http://localhost:" + DEFAULT_PORT + "/Batch");
+      final String result = HTTPTools.checkAtUrlByPost(url, request);
+      assertTrue(result, result.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<results software=\"LanguageTool\""));
+      assertTrue(result, result.trim().endsWith("</results>"));
+      // the order of the results depends on which check finishes first:
+      assertTrue(result, getBatchResult(result, "a").contains("<language shortname=\"xx-XX\" name=\"Testlanguage\"/>"));
+      assertTrue(result, getBatchResult(result, "a").contains("ruleId=\"DEMO_RULE\""));
+      assertFalse(result, getBatchResult(result, "b").contains("ruleId=\"DEMO_RULE\""));
+      assertTrue(result, result.matches("(?s).*<result id=\"c\" failure=\"[^\"]*no-such-language[^\"]*\"/>.*"));
+      assertTrue(result, getBatchResult(result, "d&amp;").contains("context=\"Here's foo bar &lt;again&gt;.\""));
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testBatchLimits() throws Exception {
+    final HTTPServerConfig config = new HTTPServerConfig();
+    config.setMaxBatchDocuments(2);
+    config.setMaxBatchRequestLength(500);
+    final HTTPServer server = new HTTPServer(config, false);
+    try {
+      server.run();
+      final URL url = new URL("http://localhost:" + DEFAULT_PORT + "/Batch");
+      final String document = "<document id=\"a\" language=\"xx\">This is foo bar.</document>\n";
+      final String result = HTTPTools.checkAtUrlByPost(url, "<documents>" + document + document + "</documents>");
+      assertTrue(result, result.contains("ruleId=\"DEMO_RULE\""));
+      try {
+        HTTPTools.checkAtUrlByPost(url, "<documents>" + document + document + document + "</documents>");
+        fail();
+      } catch (IOException expected) {}
+      try {
+        HTTPTools.checkAtUrlByPost(url, "<documents>" + document.replace("foo", StringUtils.repeat("foo ", 200)) + "</documents>");
+        fail();
+      } catch (IOException expected) {}
+    } finally {
+      server.stop();
+    }
+  }
+
+  private String getBatchResult(String batchResult, String id) {
+    final int start = batchResult.indexOf("<result id=\"" + id + "\">");
+    assertTrue("No result for " + id + ": " + batchResult, start != -1);
+    return batchResult.substring(start, batchResult.indexOf("</result>", start));
+  }
+
   private String bitextCheck(Language lang, Language motherTongue, String sourceText, String text) throws IOException {
     String urlOptions = "/?language=" + lang.getShortName();
     urlOptions += "&srctext=" + URLEncoder.encode(sourceText, "UTF-8");
@@ -0,0 +1,240 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2012 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import org.junit.Test;
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.AnalyzedTokenReadings;
+import org.languagetool.Language;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.SuggestionProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LanguageToolHttpHandlerTest {
+
+  @Test
+  public void testSuggestionsAreCreatedBeforeGiveBack() throws Exception {
+    final LanguageToolPool pool = new LanguageToolPool(1, false, Collections.<Language>emptyList());
+    final QueryParams params = new QueryParams(new ArrayList<String>(), new ArrayList<String>(), false, false, -1, -1);
+    final LanguageToolPool.PooledLanguageTool lt = pool.borrow(Language.DEMO, null, params);
+    final LazyFooRule rule = new LazyFooRule();
+    lt.getLanguageTool().addRule(rule);
+    pool.giveBack(lt);
+
+    final LanguageToolHttpHandler handler = new LanguageToolHttpHandler(false, null, pool, null);
+    final Map<String, String> parameters = new HashMap<>();
+    parameters.put("language", Language.DEMO.getShortName());
+    final List<RuleMatch> matches = handler.check("A foo and another foo.", parameters).matches;
+    final List<RuleMatch> fooMatches = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      if (match.getRule() == rule) {
+        fooMatches.add(match);
+      }
+    }
+    assertEquals(2, fooMatches.size());
+    // the rule belongs to an instance that is back in the pool now, so check() must have created the suggestions:
+    assertEquals(2, rule.suggestionCalls);
+    for (RuleMatch match : fooMatches) {
+      assertFalse(match.hasLazySuggestedReplacements());
+      assertEquals(Arrays.asList("bar", "baz"), match.getSuggestedReplacements());
+    }
+    assertEquals(2, rule.suggestionCalls);
+  }
+
+  @Test
+  public void testErrorAfterResponseHeaders() throws Exception {
+    final LanguageToolPool pool = new LanguageToolPool(1, false, Collections.<Language>emptyList());
+    final LanguageToolHttpHandler handler = new LanguageToolHttpHandler(false, null, pool, null);
+    final String request = "<documents><document id=\"a\" language=\"xx\">This is foo bar.</document></documents>";
+    final FakeHttpExchange exchange = new FakeHttpExchange("/Batch", request);
+    // the client closes the connection after the headers have been sent:
+    handler.handle(exchange);
+    assertEquals(1, exchange.sendResponseHeadersCalls);
+    assertEquals(200, exchange.getResponseCode());
+    assertTrue(exchange.closed);
+  }
+
+  private static class FakeHttpExchange extends HttpExchange {
+
+    private final URI uri;
+    private final InputStream requestBody;
+    private final Headers responseHeaders = new Headers();
+    private int responseCode = -1;
+    private int sendResponseHeadersCalls;
+    private boolean closed;
+
+    private FakeHttpExchange(String path, String requestBody) {
+      this.uri = URI.create("http://localhost" + path);
+      this.requestBody = new ByteArrayInputStream(requestBody.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void sendResponseHeaders(int code, long length) throws IOException {
+      sendResponseHeadersCalls++;
+      if (responseCode != -1) {
+        throw new IOException("headers already sent");
+      }
+      responseCode = code;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+      return new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+          throw new IOException("Broken pipe");
+        }
+      };
+    }
+
+    @Override
+    public int getResponseCode() {
+      return responseCode;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public URI getRequestURI() {
+      return uri;
+    }
+
+    @Override
+    public String getRequestMethod() {
+      return "POST";
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+      return requestBody;
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+      return responseHeaders;
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+      return new Headers();
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+      return new InetSocketAddress("127.0.0.1", 12345);
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+      return new InetSocketAddress("127.0.0.1", HTTPServerConfig.DEFAULT_PORT);
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+      return null;
+    }
+
+    @Override
+    public String getProtocol() {
+      return "HTTP/1.1";
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+      return null;
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+    }
+
+    @Override
+    public void setStreams(InputStream in, OutputStream out) {
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+      return null;
+    }
+  }
+
+  private static class LazyFooRule extends Rule {
+
+    private int suggestionCalls;
+
+    @Override
+    public String getId() {
+      return "LAZY_FOO_RULE";
+    }
+
+    @Override
+    public String getDescription() {
+      return "Test rule with lazy suggestions";
+    }
+
+    @Override
+    public RuleMatch[] match(AnalyzedSentence text) {
+      final List<RuleMatch> matches = new ArrayList<>();
+      for (AnalyzedTokenReadings token : text.getTokensWithoutWhitespace()) {
+        if ("foo".equals(token.getToken())) {
+          final RuleMatch match = new RuleMatch(this, token.getStartPos(), token.getStartPos() + 3, "foo");
+          match.setLazySuggestedReplacements(new SuggestionProvider() {
+            @Override
+            public List<String> getSuggestions() {
+              suggestionCalls++;
+              return Arrays.asList("bar", "baz");
+            }
+          });
+          matches.add(match);
+        }
+      }
+      return toRuleMatchArray(matches);
+    }
+
+    @Override
+    public void reset() {
+    }
+  }
+
+}
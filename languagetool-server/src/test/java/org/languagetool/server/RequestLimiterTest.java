@@ -42,5 +42,15 @@ public class RequestLimiterTest {
     assertTrue(limiter.isAccessOkay(secondIp));
     assertFalse(limiter.isAccessOkay(secondIp));
   }
+
+  @Test
+  public void testIsAccessOkayWithRequestCount() throws Exception {
+    final RequestLimiter limiter = new RequestLimiter(3, 60);
+    final String ip = "192.168.10.1";
+    assertTrue(limiter.isAccessOkay(ip, 2));
+    assertTrue(limiter.isAccessOkay(ip));
+    assertFalse(limiter.isAccessOkay(ip, 2));
+    assertFalse(limiter.isAccessOkay("192.168.10.2", 4));
+  }
   
 }
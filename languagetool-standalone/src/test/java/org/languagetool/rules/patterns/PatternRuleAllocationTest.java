@@ -0,0 +1,88 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2005 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.rules.Rule;
+import org.languagetool.tools.StringTools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measure the memory allocated when matching the pattern rules against each sentence.
+ * Needs a HotSpot-based JVM. Not a unit test, for interactive use only.
+ */
+final class PatternRuleAllocationTest {
+
+  private static final int RUNS = 3;
+
+  private PatternRuleAllocationTest() {
+  }
+
+  private void run(JLanguageTool langTool, File textFile) throws IOException {
+    final String text = StringTools.readStream(new FileInputStream(textFile), "utf-8");
+    final List<AnalyzedSentence> sentences = new ArrayList<>();
+    for (String sentence : langTool.sentenceTokenize(text)) {
+      sentences.add(langTool.getAnalyzedSentence(sentence));
+    }
+    langTool.activateDefaultPatternRules();
+    final List<PatternRule> rules = new ArrayList<>();
+    for (Rule rule : langTool.getAllActiveRules()) {
+      if (rule instanceof PatternRule) {
+        rules.add((PatternRule) rule);
+      }
+    }
+    System.out.println(sentences.size() + " sentences, " + rules.size() + " pattern rules");
+    final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final long threadId = Thread.currentThread().getId();
+    for (int i = 1; i <= RUNS; i++) {
+      final long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+      final long startTime = System.currentTimeMillis();
+      long matches = 0;
+      for (AnalyzedSentence sentence : sentences) {
+        for (PatternRule rule : rules) {
+          matches += rule.match(sentence).length;
+        }
+      }
+      final long runTime = System.currentTimeMillis() - startTime;
+      final long bytes = threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+      final long calls = (long) sentences.size() * rules.size();
+      System.out.printf("Run %d: %d matches, %dms, %.1fMB allocated = %.1f bytes per rule and sentence\n",
+              i, matches, runTime, bytes / 1_000_000.0, (float) bytes / calls);
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.out.println("Usage: " + PatternRuleAllocationTest.class.getSimpleName() + " <languageCode> <text_file>");
+      System.exit(1);
+    }
+    final PatternRuleAllocationTest test = new PatternRuleAllocationTest();
+    final JLanguageTool langTool = new JLanguageTool(Language.getLanguageForShortName(args[0]));
+    test.run(langTool, new File(args[1]));
+  }
+
+}